@@ -97,6 +97,8 @@ public class BatchDriver {
     Image newImage = model.applyFilter(FilterFactory.getFilter(filterEnum), image);
     String imageName = getImageImageNameWithoutExtensionFromPath(input);
     writeImage(newImage, filterEnum.toString(), imageName);
+    image.getData().release();
+    newImage.getData().release();
   }
 
   private static void testTransform(String inputImgPath, TransformEnum transformEnum) {
@@ -104,6 +106,8 @@ public class BatchDriver {
     Image newImage = model.applyTransform(TransformFactory.getTransformer(transformEnum), image);
     String imageName = getImageImageNameWithoutExtensionFromPath(inputImgPath);
     writeImage(newImage, transformEnum.toString(), imageName);
+    image.getData().release();
+    newImage.getData().release();
   }
 
   private static Image readImage(String filePath) {
@@ -2,12 +2,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import controller.Controller;
 import controller.ControllerImpl;
 import controller.ExtendedControllerImpl;
+import enums.BorderEnum;
 import model.ExtendedModel;
 import model.ExtendedModelImpl;
+import model.image.PointwiseExecutor;
 import view.View;
 import view.ViewImpl;
 
@@ -16,12 +20,35 @@ import view.ViewImpl;
  */
 public class Main {
 
+  private static final String HIGH_PRECISION_FLAG = "-highprecision";
+  private static final String FIXED_POINT_FLAG = "-fixedpoint";
+
+  private static final String THREADS_FLAG = "-threads";
+  private static final String FUSION_FLAG = "-fusion";
+  private static final String BORDER_FLAG = "-border";
+
+  private static boolean highPrecision;
+  private static boolean fixedPoint;
+  private static int threads = Runtime.getRuntime().availableProcessors();
+  private static int maxFusedFilterSize = ExtendedModelImpl.DEFAULT_MAX_FUSED_FILTER_SIZE;
+  private static BorderEnum border = BorderEnum.ZERO;
+
   /**
-   * Main class for running all the model implementations.
+   * Main class for running all the model implementations. The flag {@value #HIGH_PRECISION_FLAG}
+   * can be added to any of the supported arguments to process images with high precision
+   * channels, and {@value #FIXED_POINT_FLAG} to filter and transform 8-bit images in fixed point.
+   * {@value #THREADS_FLAG} followed by a number limits the number of threads used to filter an
+   * image, {@value #FUSION_FLAG} followed by a number lets consecutive filters in a script be
+   * composed into filters of up to that size, which take fewer passes but may change the results
+   * by a step, and {@value #BORDER_FLAG} followed by zero, clamp, mirror or wrap sets how filters
+   * take the pixels outside of an image.
    *
    * @param args arguments.
    */
   public static void main(String[] args) throws IOException {
+    args = parseFlags(args);
+    // conversions outside of the model, e.g. when saving, use the same number of threads.
+    PointwiseExecutor.setCommonParallelism(threads);
     if (args.length == 1 && args[0] != null) {
       if (args[0].equalsIgnoreCase("in")) {
         handleCLIInput();
@@ -42,7 +69,8 @@ public class Main {
   }
 
   private static void handleInteractiveInput() throws IOException {
-    ExtendedModel model = new ExtendedModelImpl();
+    ExtendedModelImpl model = createModel();
+    model.setDisplayResults(true);
     View view = new ViewImpl();
     Controller controller = new ExtendedControllerImpl(view, model);
     controller.start();
@@ -51,22 +79,85 @@ public class Main {
   private static void handleScriptInput(String scriptFilePath) throws IOException {
     File file = new File(scriptFilePath);
     InputStream inputStream = new FileInputStream(file);
-    ExtendedModel model = new ExtendedModelImpl();
+    ExtendedModel model = createModel();
     Controller controller = new ControllerImpl(inputStream, model);
     controller.start();
   }
 
   private static void handleCLIInput() throws IOException {
     InputStream inputStream = System.in;
-    ExtendedModel model = new ExtendedModelImpl();
+    ExtendedModel model = createModel();
     Controller controller = new ControllerImpl(inputStream, model);
     controller.start();
   }
 
+  private static ExtendedModelImpl createModel() {
+    ExtendedModelImpl model = new ExtendedModelImpl(ExtendedModelImpl.DEFAULT_OFF_HEAP_THRESHOLD,
+            highPrecision, threads, fixedPoint);
+    model.setMaxFusedFilterSize(maxFusedFilterSize);
+    model.setBorder(border);
+    return model;
+  }
+
+  private static String[] parseFlags(String[] args) {
+    List<String> remaining = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if (HIGH_PRECISION_FLAG.equalsIgnoreCase(args[i])) {
+        highPrecision = true;
+      } else if (FIXED_POINT_FLAG.equalsIgnoreCase(args[i])) {
+        fixedPoint = true;
+      } else if (THREADS_FLAG.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+        threads = parsePositive(args[++i]);
+      } else if (FUSION_FLAG.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+        maxFusedFilterSize = parsePositive(args[++i]);
+      } else if (BORDER_FLAG.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+        border = parseBorder(args[++i]);
+      } else {
+        remaining.add(args[i]);
+      }
+    }
+
+    return remaining.toArray(new String[0]);
+  }
+
+  private static int parsePositive(String value) {
+    try {
+      int count = Integer.parseInt(value);
+      if (count > 0) {
+        return count;
+      }
+    } catch (NumberFormatException e) {
+      // reported below, same as a non positive count.
+    }
+
+    exitWithErrorMsg();
+    return 0;
+  }
+
+  private static BorderEnum parseBorder(String value) {
+    for (BorderEnum mode : BorderEnum.values()) {
+      if (mode.name().equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+
+    exitWithErrorMsg();
+    return null;
+  }
+
   private static void exitWithErrorMsg() {
     String errorMsg = "Invalid arguments. Supported arguments are:\n"
             + "1. -script <path-to-script>\n"
-            + "2. -interactive";
+            + "2. -interactive\n"
+            + "Add " + HIGH_PRECISION_FLAG + " to process images with high precision channels.\n"
+            + "Add " + FIXED_POINT_FLAG + " to filter and transform 8-bit images in integer "
+            + "arithmetic, which is faster but may change results by a step.\n"
+            + "Add " + THREADS_FLAG + " <count> to limit the number of threads used by filters.\n"
+            + "Add " + FUSION_FLAG + " <size> to compose consecutive filters into filters of up "
+            + "to this size, which is faster but may change results by a step. By default every "
+            + "filter is applied on its own.\n"
+            + "Add " + BORDER_FLAG + " <zero|clamp|mirror|wrap> to set how filters take the "
+            + "pixels outside of an image.";
     System.out.println(errorMsg);
     System.exit(1);
   }
@@ -2,7 +2,10 @@ package controller;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 
 import controller.command.draw.DrawCommand;
 import controller.command.io.ImageReadCommand;
@@ -56,14 +59,14 @@ public class ControllerImpl implements Controller {
             throw new IllegalStateException("Image is null. Kindly load an image before running "
                     + "the image command");
           }
-          this.image = new ImageProcessingCommand(scanner, image).execute(model);
+          processImage();
           break;
         case READ:
-          this.image = new ImageReadCommand(scanner).execute();
+          setImage(new ImageReadCommand(scanner).execute());
           break;
         case WRITE:
           new ImageWriteCommand(scanner).execute(this.image);
-          this.image = null;
+          setImage(null);
           break;
         case QUIT:
           break;
@@ -72,4 +75,74 @@ public class ControllerImpl implements Controller {
       }
     }
   }
+
+  /**
+   * Helper method to run an image processing command. A run of linear filters, i.e. consecutive
+   * blur and sharpen commands, or of linear color transforms, i.e. consecutive sepia and
+   * greyscale commands, is collected first and handed to the model as a whole, so that the model
+   * can compose them and traverse the image once. The current image is replaced by the result
+   * and never used again, so color transforms are applied to it in place. The command which ends
+   * the run, if any, is executed afterwards, which may start another run.
+   */
+  private void processImage() {
+    boolean pendingCommand = true;
+    while (pendingCommand) {
+      List<float[][]> filters = new ArrayList<>();
+      pendingCommand = collectRun(ImageProcessingCommand::nextLinearFilter, filters);
+      if (!filters.isEmpty()) {
+        setImage(model.applyFilters(filters, image));
+        continue;
+      }
+
+      List<float[][]> transforms = new ArrayList<>();
+      pendingCommand = collectRun(ImageProcessingCommand::nextLinearTransform, transforms);
+      if (!transforms.isEmpty()) {
+        setImage(model.applyTransformsInPlace(transforms, image));
+        continue;
+      }
+
+      setImage(new ImageProcessingCommand(scanner, image).execute(model));
+      pendingCommand = false;
+    }
+  }
+
+  /**
+   * Helper method to collect a run of consecutive image processing commands of one kind.
+   *
+   * @param nextOperation reads the next operation if it is of the kind, and provides its
+   *         matrix, or provides null otherwise.
+   * @param run list receiving the matrices of the run.
+   * @return true if an image processing command which is not part of the run is still to be
+   *         executed.
+   */
+  private boolean collectRun(Function<Scanner, float[][]> nextOperation, List<float[][]> run) {
+    float[][] operation = nextOperation.apply(scanner);
+    while (operation != null) {
+      run.add(operation);
+      if (!scanner.hasNext(IMAGE_COMMAND)) {
+        return false;
+      }
+
+      scanner.next();
+      operation = nextOperation.apply(scanner);
+    }
+
+    return true;
+  }
+
+  /**
+   * Helper method to replace the current image. The data of the previous image is released, as
+   * none of the commands refer to it once it has been replaced.
+   *
+   * @param newImage the new current image, or null.
+   */
+  private void setImage(Image newImage) {
+    Image previousImage = this.image;
+    this.image = newImage;
+
+    if (previousImage != null
+            && (newImage == null || previousImage.getData() != newImage.getData())) {
+      previousImage.getData().release();
+    }
+  }
 }
@@ -65,8 +65,7 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyFilter(FilterFactory.getFilter(FilterEnum.BLUR), image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyFilter(FilterFactory.getFilter(FilterEnum.BLUR), image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -84,8 +83,7 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyFilter(FilterFactory.getFilter(FilterEnum.SHARPEN), image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyFilter(FilterFactory.getFilter(FilterEnum.SHARPEN), image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -103,9 +101,8 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyTransform(TransformFactory.getTransformer(TransformEnum.GREYSCALE),
-                image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyTransform(
+                TransformFactory.getTransformer(TransformEnum.GREYSCALE), image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -123,8 +120,8 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyTransform(TransformFactory.getTransformer(TransformEnum.SEPIA), image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyTransform(
+                TransformFactory.getTransformer(TransformEnum.SEPIA), image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -142,8 +139,8 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyDither(DitherKernelFactory.getDitherKernel(DitherEnum.FS_DITHER), image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyDither(
+                DitherKernelFactory.getDitherKernel(DitherEnum.FS_DITHER), image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -161,8 +158,7 @@ public class ExtendedControllerImpl implements Features, Controller {
 
     queue.add(() -> {
       try {
-        image = model.applyMosaic(seedCount, image);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(model.applyMosaic(seedCount, image));
       } catch (Exception e) {
         view.displayError(e.getMessage());
       }
@@ -218,8 +214,7 @@ public class ExtendedControllerImpl implements Features, Controller {
   public void loadImage(String filePath) {
     queue.add(() -> {
       try {
-        image = ImageReader.readImage(ImageFileEnums.FILE, filePath);
-        view.setImage(Utils.convertImage(image));
+        setCurrentImage(ImageReader.readImage(ImageFileEnums.FILE, filePath));
       } catch (IOException e) {
         view.displayError(e.getMessage());
       }
@@ -259,6 +254,22 @@ public class ExtendedControllerImpl implements Features, Controller {
     }
   }
 
+  /**
+   * Helper method to make the result of an operation the current image and display it. The data
+   * of the previous image is released, as the controller was the only one holding it.
+   *
+   * @param newImage the new current image.
+   */
+  private void setCurrentImage(Image newImage) {
+    Image previousImage = image;
+    image = newImage;
+    view.setImage(Utils.convertImage(image));
+
+    if (previousImage != null && previousImage.getData() != newImage.getData()) {
+      previousImage.getData().release();
+    }
+  }
+
   private void save(Image image, String filePath) {
     try {
       ImageWriter.writeImage(image, filePath);
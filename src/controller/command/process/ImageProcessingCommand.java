@@ -26,6 +26,9 @@ public class ImageProcessingCommand implements ImageCommand {
   private static final String COMMAND_DITHER = "dither";
   private static final String COMMAND_JJN_DITHER = "jjn_dither";
   private static final String COMMAND_MOSAIC = "mosaic";
+  private static final String COMMAND_BOX_BLUR = "box_blur";
+  private static final String COMMAND_GAUSSIAN = "gaussian";
+  private static final String COMMAND_MEDIAN = "median";
   private Scanner scanner;
   private HashMap<String, Function<Scanner, ImageCommand>> commands;
 
@@ -46,6 +49,52 @@ public class ImageProcessingCommand implements ImageCommand {
     commands.put(COMMAND_DITHER, a -> new FSDither(image));
     commands.put(COMMAND_JJN_DITHER, a -> new JJNDither(image));
     commands.put(COMMAND_MOSAIC, a -> new Mosaic(a.nextInt(), image));
+    commands.put(COMMAND_BOX_BLUR, a -> new BoxBlur(a.nextInt(), a.nextInt(), image));
+    commands.put(COMMAND_GAUSSIAN, a -> new GaussianBlur(a.nextFloat(), image));
+    commands.put(COMMAND_MEDIAN, a -> new Median(a.nextInt(), image));
+  }
+
+  /**
+   * Reads the next image processing operation if it is a linear filter, i.e. blur or sharpen,
+   * and provides the weights of the filter. Any other operation is left in the scanner.
+   *
+   * @param scanner for user inputs.
+   * @return weights of the filter, or null if the next operation is not a linear filter.
+   */
+  public static float[][] nextLinearFilter(Scanner scanner) {
+    if (scanner.hasNext("(?i)" + COMMAND_BLUR)) {
+      scanner.next();
+      return FilterFactory.getFilter(FilterEnum.BLUR);
+    }
+
+    if (scanner.hasNext("(?i)" + COMMAND_SHARPEN)) {
+      scanner.next();
+      return FilterFactory.getFilter(FilterEnum.SHARPEN);
+    }
+
+    return null;
+  }
+
+  /**
+   * Reads the next image processing operation if it is a linear color transform, i.e. sepia or
+   * greyscale, and provides the matrix of the transform. Any other operation is left in the
+   * scanner.
+   *
+   * @param scanner for user inputs.
+   * @return matrix of the transform, or null if the next operation is not a linear transform.
+   */
+  public static float[][] nextLinearTransform(Scanner scanner) {
+    if (scanner.hasNext("(?i)" + COMMAND_SEPIA)) {
+      scanner.next();
+      return TransformFactory.getTransformer(TransformEnum.SEPIA);
+    }
+
+    if (scanner.hasNext("(?i)" + COMMAND_GREY_SCALE)) {
+      scanner.next();
+      return TransformFactory.getTransformer(TransformEnum.GREYSCALE);
+    }
+
+    return null;
   }
 
   /**
@@ -255,4 +304,98 @@ public class ImageProcessingCommand implements ImageCommand {
       return m.applyMosaic(seedCount, image);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Class for applying a box blur on an image. Three passes or more approximate a Gaussian
+   * blur.
+   */
+  private static class BoxBlur implements ImageCommand {
+    private Image image;
+    private int radius;
+    private int passes;
+
+    /**
+     * Constructor for creating a box blur.
+     *
+     * @param radius of the window around each pixel
+     * @param passes number of times the blur is applied
+     * @param image to be blurred
+     */
+    BoxBlur(int radius, int passes, Image image) {
+      this.image = image;
+      this.radius = radius;
+      this.passes = passes;
+    }
+
+    /**
+     * This method executes the box blur on an image.
+     *
+     * @param m model for blurring
+     * @return blurred image
+     */
+    @Override
+    public Image execute(ExtendedModel m) {
+      return m.applyBoxBlur(radius, passes, image);
+    }
+  }
+
+  /**
+   * Class for applying a Gaussian blur of any standard deviation on an image.
+   */
+  private static class GaussianBlur implements ImageCommand {
+    private Image image;
+    private float sigma;
+
+    /**
+     * Constructor for creating a Gaussian blur.
+     *
+     * @param sigma standard deviation of the Gaussian in pixels
+     * @param image to be blurred
+     */
+    GaussianBlur(float sigma, Image image) {
+      this.image = image;
+      this.sigma = sigma;
+    }
+
+    /**
+     * This method executes the Gaussian blur on an image.
+     *
+     * @param m model for blurring
+     * @return blurred image
+     */
+    @Override
+    public Image execute(ExtendedModel m) {
+      return m.applyGaussianBlur(sigma, image);
+    }
+  }
+
+  /**
+   * Class for denoising an image with a median filter.
+   */
+  private static class Median implements ImageCommand {
+    private Image image;
+    private int radius;
+
+    /**
+     * Constructor for creating a median filter.
+     *
+     * @param radius of the window around each pixel
+     * @param image to be filtered
+     */
+    Median(int radius, Image image) {
+      this.image = image;
+      this.radius = radius;
+    }
+
+    /**
+     * This method executes the median filter on an image.
+     *
+     * @param m model for filtering
+     * @return filtered image
+     */
+    @Override
+    public Image execute(ExtendedModel m) {
+      return m.applyMedianFilter(radius, image);
+    }
+  }
+}
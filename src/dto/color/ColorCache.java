@@ -0,0 +1,123 @@
+package dto.color;
+
+/**
+ * Factory which returns canonical, immutable {@link ColorImpl} instances. Images usually contain
+ * far fewer distinct colors than pixels, so handing out one shared object per color instead of a
+ * new object per request keeps the number of color objects small.
+ *
+ * <p>Colors are kept in a fixed size table indexed by a hash of their packed ARGB value, so the
+ * cache never holds more than {@value #CACHE_SIZE} colors; a color may replace another one that
+ * hashes to the same slot. Pinned colors are never evicted, so they are always served from the
+ * cache. Pure black and white are pinned from the start, and palettes such as the rainbow colors
+ * pin themselves with {@link #pin(int)}.</p>
+ *
+ * <p>The cache can be used from several threads. Colors are immutable, so a race on a slot at
+ * worst creates a duplicate object.</p>
+ */
+public final class ColorCache {
+
+  /**
+   * Number of slots of the cache table. Must be a power of two.
+   */
+  public static final int CACHE_SIZE = 4096;
+
+  /**
+   * Maximum number of colors that can be pinned.
+   */
+  public static final int MAX_PINNED = 64;
+
+  private static final int HASH_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(CACHE_SIZE);
+
+  private static final ColorImpl[] CACHE = new ColorImpl[CACHE_SIZE];
+  private static volatile ColorImpl[] pinned = new ColorImpl[0];
+
+  static {
+    pin(PackedColor.pack(0, 0, 0, 255));
+    pin(PackedColor.pack(255, 255, 255, 255));
+  }
+
+  private ColorCache() {
+  }
+
+  /**
+   * Provides the canonical color for the packed ARGB value.
+   *
+   * @param argb packed color.
+   * @return shared color holding the same channels.
+   */
+  public static BaseColor getColor(int argb) {
+    int slot = (argb * 0x9E3779B9) >>> HASH_SHIFT;
+    ColorImpl color = CACHE[slot];
+    if (color != null && color.toArgb() == argb) {
+      return color;
+    }
+
+    color = findPinned(argb);
+    if (color == null) {
+      color = new ColorImpl(new int[]{PackedColor.red(argb), PackedColor.green(argb),
+              PackedColor.blue(argb), PackedColor.alpha(argb)});
+    }
+
+    CACHE[slot] = color;
+    return color;
+  }
+
+  /**
+   * Provides the canonical color for the channel values, which are clamped to [0, 255].
+   *
+   * @param components channels of the color in RGBA format.
+   * @return shared color holding the channels.
+   * @throws IllegalArgumentException if there are not exactly 4 components.
+   */
+  public static BaseColor getColor(int[] components) throws IllegalArgumentException {
+    if (components == null || components.length != 4) {
+      throw new IllegalArgumentException("Number of color components insufficient!");
+    }
+
+    return getColor(PackedColor.packClamped(components[0], components[1], components[2],
+            components[3]));
+  }
+
+  /**
+   * Pins a color in the cache, so that it is never evicted by other colors. Pinning a color which
+   * is already pinned has no effect.
+   *
+   * @param argb packed color.
+   * @return shared color holding the same channels.
+   * @throws IllegalStateException if the maximum number of pinned colors has been reached.
+   */
+  public static synchronized BaseColor pin(int argb) throws IllegalStateException {
+    ColorImpl color = findPinned(argb);
+    if (color != null) {
+      return color;
+    }
+
+    if (pinned.length >= MAX_PINNED) {
+      throw new IllegalStateException("Cannot pin more than " + MAX_PINNED + " colors!");
+    }
+
+    color = new ColorImpl(new int[]{PackedColor.red(argb), PackedColor.green(argb),
+            PackedColor.blue(argb), PackedColor.alpha(argb)});
+    ColorImpl[] newPinned = new ColorImpl[pinned.length + 1];
+    System.arraycopy(pinned, 0, newPinned, 0, pinned.length);
+    newPinned[pinned.length] = color;
+    pinned = newPinned;
+    return color;
+  }
+
+  /**
+   * Helper method to look up a pinned color.
+   *
+   * @param argb packed color.
+   * @return the pinned color, or null if the color is not pinned.
+   */
+  private static ColorImpl findPinned(int argb) {
+    for (ColorImpl color : pinned) {
+      if (color.toArgb() == argb) {
+        return color;
+      }
+    }
+
+    return null;
+  }
+}
@@ -3,12 +3,15 @@ package dto.color;
 /**
  * Concrete implementation of {@link BaseColor} class. This class stores pixel values in sRGB
  * format. It provides its components in RGBA format.
+ *
+ * <p>Colors are immutable, so a single instance can be shared by any number of pixels. The
+ * factory methods return canonical instances from the {@link ColorCache}.</p>
  */
-public class ColorImpl implements BaseColor {
-  private int red;
-  private int green;
-  private int blue;
-  private int alpha;
+public final class ColorImpl implements BaseColor {
+  private final int red;
+  private final int green;
+  private final int blue;
+  private final int alpha;
 
   /**
    * Constructor to create a pixel.
@@ -33,11 +36,7 @@ public class ColorImpl implements BaseColor {
 
   @Override
   public BaseColor createColor(int[] colArray) {
-    for (int i = 0; i < colArray.length; i++) {
-      colArray[i] = clampIntValue(colArray[i]);
-    }
-
-    return new ColorImpl(colArray);
+    return ColorCache.getColor(colArray);
   }
 
   @Override
@@ -46,7 +45,8 @@ public class ColorImpl implements BaseColor {
       throw new IllegalArgumentException("Need to provide exactly 3 components");
     }
 
-    return createColor(new int[]{components[0], components[1], components[2], alpha});
+    return ColorCache.getColor(PackedColor.pack(PackedColor.clamp(components[0]),
+            PackedColor.clamp(components[1]), PackedColor.clamp(components[2]), alpha));
   }
 
   @Override
@@ -65,15 +65,34 @@ public class ColorImpl implements BaseColor {
     return null;
   }
 
-  private boolean isValueOutOfRange(int value) {
-    return value < 0 || value > 255;
-  }
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
 
-  private int clampIntValue(int value) {
-    if (value < 0) {
-      return 0;
-    } else {
-      return Math.min(value, 255);
+    if (!(o instanceof ColorImpl)) {
+      return false;
     }
+
+    return toArgb() == ((ColorImpl) o).toArgb();
+  }
+
+  @Override
+  public int hashCode() {
+    return toArgb();
+  }
+
+  /**
+   * Provides the color as a packed ARGB value.
+   *
+   * @return packed color.
+   */
+  int toArgb() {
+    return PackedColor.pack(red, green, blue, alpha);
+  }
+
+  private boolean isValueOutOfRange(int value) {
+    return value < 0 || value > 255;
   }
 }
@@ -0,0 +1,112 @@
+package dto.color;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of {@link BaseColor} which keeps its channels as floats instead of integers. The
+ * channels use the same scale as {@link ColorImpl}, i.e. [0, 255], but values between the
+ * integer steps are kept, so colors computed by a chain of operations are not rounded after every
+ * step.
+ *
+ * <p>{@link #getComponents()} rounds the channels to the nearest integer, so the color can be
+ * used wherever an 8-bit color is expected. Colors are immutable.</p>
+ */
+public final class FloatColor implements BaseColor {
+  private final float red;
+  private final float green;
+  private final float blue;
+  private final float alpha;
+
+  /**
+   * Constructor to create a pixel.
+   *
+   * @param components should have 4 channels in RGBA format, each in the range [0, 255].
+   */
+  public FloatColor(float[] components) {
+    if (components.length != 4) {
+      throw new IllegalArgumentException("Number of color components insufficient!");
+    }
+
+    for (float component : components) {
+      if (!(component >= 0 && component <= 255)) {
+        throw new IllegalArgumentException("Input value not in range");
+      }
+    }
+
+    this.red = components[0];
+    this.green = components[1];
+    this.blue = components[2];
+    this.alpha = components[3];
+  }
+
+  @Override
+  public BaseColor createColor(int[] components) {
+    if (components.length != 4) {
+      throw new IllegalArgumentException("Number of color components insufficient!");
+    }
+
+    return new FloatColor(new float[]{PackedColor.clamp(components[0]),
+            PackedColor.clamp(components[1]), PackedColor.clamp(components[2]),
+            PackedColor.clamp(components[3])});
+  }
+
+  @Override
+  public BaseColor createColorWithoutAlpha(int[] components) {
+    if (components.length != 3) {
+      throw new IllegalArgumentException("Need to provide exactly 3 components");
+    }
+
+    return new FloatColor(new float[]{PackedColor.clamp(components[0]),
+            PackedColor.clamp(components[1]), PackedColor.clamp(components[2]), alpha});
+  }
+
+  @Override
+  public int[] getComponents() {
+    return new int[]{Math.round(red), Math.round(green), Math.round(blue), Math.round(alpha)};
+  }
+
+  /**
+   * This method provides the channels stored in the pixel without rounding them.
+   *
+   * @return the channels in RGBA format.
+   */
+  public float[] getFloatComponents() {
+    return new float[]{red, green, blue, alpha};
+  }
+
+  @Override
+  public int getNumComponents() {
+    return 3;
+  }
+
+  /**
+   * The channels are rounded and clamped to 8-bit values and converted like those of the equal
+   * {@link ColorImpl}, so a float color converts exactly like the color it is displayed as.
+   *
+   * @param colorType color model required.
+   * @return components in the required color model.
+   */
+  @Override
+  public float[] convertToColorType(int colorType) {
+    return ColorCache.getColor(PackedColor.packClamped(Math.round(red), Math.round(green),
+            Math.round(blue), Math.round(alpha))).convertToColorType(colorType);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (!(o instanceof FloatColor)) {
+      return false;
+    }
+
+    return Arrays.equals(getFloatComponents(), ((FloatColor) o).getFloatComponents());
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(getFloatComponents());
+  }
+}
@@ -0,0 +1,139 @@
+package dto.color;
+
+/**
+ * Helper methods for working with colors packed into a single int in ARGB order, i.e. alpha in
+ * the highest byte followed by red, green and blue. This is the same layout used by
+ * {@link java.awt.image.BufferedImage#getRGB(int, int)}, which lets the image data move between
+ * the model and the IO layer without creating a color object for every pixel.
+ */
+public final class PackedColor {
+
+  /**
+   * Packed value of an opaque black pixel.
+   */
+  public static final int OPAQUE_BLACK = 0xFF000000;
+
+  private PackedColor() {
+  }
+
+  /**
+   * Packs the provided channels into an ARGB int. The channels are expected to be in the range
+   * [0, 255].
+   *
+   * @param red red channel.
+   * @param green green channel.
+   * @param blue blue channel.
+   * @param alpha alpha channel.
+   * @return packed ARGB value.
+   */
+  public static int pack(int red, int green, int blue, int alpha) {
+    return alpha << 24 | red << 16 | green << 8 | blue;
+  }
+
+  /**
+   * Packs the provided channels into an ARGB int after clamping each of them to [0, 255].
+   *
+   * @param red red channel.
+   * @param green green channel.
+   * @param blue blue channel.
+   * @param alpha alpha channel.
+   * @return packed ARGB value.
+   */
+  public static int packClamped(int red, int green, int blue, int alpha) {
+    return pack(clamp(red), clamp(green), clamp(blue), clamp(alpha));
+  }
+
+  /**
+   * Returns the alpha channel of a packed color.
+   *
+   * @param argb packed color.
+   * @return alpha channel.
+   */
+  public static int alpha(int argb) {
+    return argb >>> 24;
+  }
+
+  /**
+   * Returns the red channel of a packed color.
+   *
+   * @param argb packed color.
+   * @return red channel.
+   */
+  public static int red(int argb) {
+    return (argb >> 16) & 0xFF;
+  }
+
+  /**
+   * Returns the green channel of a packed color.
+   *
+   * @param argb packed color.
+   * @return green channel.
+   */
+  public static int green(int argb) {
+    return (argb >> 8) & 0xFF;
+  }
+
+  /**
+   * Returns the blue channel of a packed color.
+   *
+   * @param argb packed color.
+   * @return blue channel.
+   */
+  public static int blue(int argb) {
+    return argb & 0xFF;
+  }
+
+  /**
+   * Returns the color channel at the given position in RGBA order, i.e. 0 for red, 1 for green,
+   * 2 for blue and 3 for alpha. This mirrors the order of {@link BaseColor#getComponents()}.
+   *
+   * @param argb packed color.
+   * @param channel channel index in RGBA order.
+   * @return value of the channel.
+   */
+  public static int channel(int argb, int channel) {
+    if (channel == 3) {
+      return argb >>> 24;
+    }
+    return (argb >> (16 - 8 * channel)) & 0xFF;
+  }
+
+  /**
+   * Clamps a channel value to the range [0, 255].
+   *
+   * @param value channel value.
+   * @return clamped value.
+   */
+  public static int clamp(int value) {
+    if (value < 0) {
+      return 0;
+    }
+    return Math.min(value, 255);
+  }
+
+  /**
+   * Packs the provided color into an ARGB int. A null color is treated as fully transparent.
+   *
+   * @param color color to be packed.
+   * @return packed ARGB value.
+   */
+  public static int fromColor(BaseColor color) {
+    if (color == null) {
+      return 0;
+    }
+
+    int[] components = color.getComponents();
+    return pack(components[0], components[1], components[2], components[3]);
+  }
+
+  /**
+   * Unpacks an ARGB int into a color object. The color is shared through the
+   * {@link ColorCache}.
+   *
+   * @param argb packed color.
+   * @return color holding the same channels.
+   */
+  public static BaseColor toColor(int argb) {
+    return ColorCache.getColor(argb);
+  }
+}
@@ -0,0 +1,32 @@
+package dto.image;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Helper for freeing the memory of direct and memory-mapped buffers without waiting for the
+ * garbage collector. The JDK only exposes this through sun.misc.Unsafe, which is looked up
+ * reflectively so that the memory is simply left to the collector on runtimes where it is not
+ * available.
+ */
+class BufferCleaner {
+
+  /**
+   * Frees the memory of a direct buffer, or unmaps a memory-mapped buffer. The buffer must not be
+   * a slice or a view of another buffer, and must not be used afterwards.
+   *
+   * @param buffer buffer to be freed.
+   */
+  static void free(ByteBuffer buffer) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+      unsafeField.setAccessible(true);
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      invokeCleaner.invoke(unsafeField.get(null), buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // the buffer is freed by the garbage collector once it is unreachable.
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package dto.image;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Canvas which keeps its pixels in a {@link BufferedImage} of type
+ * {@link BufferedImage#TYPE_INT_ARGB}. The packed pixel array of the canvas is the data buffer of
+ * the image itself, so the image can be handed to AWT for display or to ImageIO for writing
+ * without copying any pixels, and changes to the canvas show up in the image right away.
+ *
+ * <p>Duplicates of this canvas are copied right away instead of sharing the pixel array, so that
+ * the canvas never loses the connection to its image.</p>
+ */
+public class BufferedCanvas extends Canvas {
+  private BufferedImage image;
+  private int[] pixels;
+
+  /**
+   * Constructor to create an empty image backed by a new {@link BufferedImage}.
+   *
+   * @param height of image
+   * @param width of image
+   */
+  public BufferedCanvas(int height, int width) {
+    this(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+  }
+
+  /**
+   * Constructor to wrap an image whose raster stores exactly one packed ARGB int per pixel.
+   *
+   * @param image image to be wrapped
+   */
+  private BufferedCanvas(BufferedImage image) {
+    this(image, ((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+  }
+
+  /**
+   * Constructor to wrap an image with the given pixel array.
+   *
+   * @param image image to be wrapped
+   * @param pixels data array of the image
+   */
+  private BufferedCanvas(BufferedImage image, int[] pixels) {
+    super(image.getHeight(), image.getWidth(), pixels);
+    this.image = image;
+    this.pixels = pixels;
+  }
+
+  /**
+   * Creates a canvas on top of the provided image. Images of type
+   * {@link BufferedImage#TYPE_INT_ARGB} are wrapped as they are, so the canvas and the image
+   * share their pixels. Images of any other type are first converted in a single bulk drawing
+   * operation.
+   *
+   * @param image image to be wrapped or converted
+   * @return canvas holding the pixels of the image
+   */
+  public static BufferedCanvas of(BufferedImage image) {
+    if (image == null) {
+      throw new IllegalArgumentException("Image cannot be null");
+    }
+
+    if (isWrappable(image)) {
+      return new BufferedCanvas(image);
+    }
+
+    BufferedCanvas canvas = new BufferedCanvas(image.getHeight(), image.getWidth());
+    Graphics2D graphics = canvas.image.createGraphics();
+    try {
+      graphics.setComposite(AlphaComposite.Src);
+      graphics.drawImage(image, 0, 0, null);
+    } finally {
+      graphics.dispose();
+    }
+
+    return canvas;
+  }
+
+  /**
+   * Creates a copy of the provided canvas which is backed by a {@link BufferedImage}. If the
+   * canvas already is, it is returned as is.
+   *
+   * @param canvas canvas to be converted
+   * @return canvas holding the same pixels as the input
+   */
+  public static BufferedCanvas of(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    if (canvas instanceof BufferedCanvas) {
+      return (BufferedCanvas) canvas;
+    }
+
+    BufferedCanvas bufferedCanvas = new BufferedCanvas(canvas.getHeight(), canvas.getWidth());
+    bufferedCanvas.copyRegion(canvas, 0, 0, 0, 0, canvas.getHeight(), canvas.getWidth());
+    return bufferedCanvas;
+  }
+
+  /**
+   * Provides the image backing this canvas. The image shares its pixels with the canvas.
+   *
+   * @return image of type {@link BufferedImage#TYPE_INT_ARGB}
+   */
+  public BufferedImage getBufferedImage() {
+    return image;
+  }
+
+  @Override
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new BufferedCanvas(height, width);
+  }
+
+  @Override
+  public Canvas duplicate() {
+    BufferedCanvas newCanvas = new BufferedCanvas(getHeight(), getWidth());
+    System.arraycopy(pixels, 0, newCanvas.pixels, 0, getHeight() * getWidth());
+    return newCanvas;
+  }
+
+  /**
+   * Helper method to check whether the data buffer of an image can be used as the pixel array of
+   * a canvas, i.e. it holds one non-premultiplied ARGB int per pixel with no padding.
+   *
+   * @param image image to be checked.
+   * @return true if the image can be wrapped, false otherwise.
+   */
+  private static boolean isWrappable(BufferedImage image) {
+    if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+      return false;
+    }
+
+    WritableRaster raster = image.getRaster();
+    return raster.getParent() == null
+            && raster.getSampleModelTranslateX() == 0
+            && raster.getSampleModelTranslateY() == 0
+            && raster.getDataBuffer().getOffset() == 0
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+            && ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride()
+            == image.getWidth();
+  }
+}
@@ -1,12 +1,32 @@
 package dto.image;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 
 /**
- * This class stores image data in a 2d array of pixel colors.
+ * This class stores image data as a single contiguous array of packed ARGB values, one int per
+ * pixel in row-major order. Pixels that have not been written are transparent black.
+ *
+ * <p>The {@link BaseColor} accessors are kept for existing callers, but they convert between the
+ * packed and the object representation on every call. Performance sensitive code should use
+ * {@link #getArgb(int, int)} and {@link #setArgb(int, int, int)} instead, and loops over whole rows
+ * should use the row and span methods, which check their bounds once per call and copy the pixels
+ * in bulk.</p>
+ *
+ * <p>Canvases created by {@link #duplicate()} share their pixel array with the original until
+ * either of them is written to. Only the canvas being written copies the array, so duplicating
+ * an image that is then only read costs no memory. The canvases sharing an array count its
+ * owners, so once all others have been released or have made their own copy, the last owner
+ * writes to the array in place and hands it back to the pool when it is released.</p>
  */
 public class Canvas {
-  private BaseColor[][] data;
+  private int[] data;
+  // number of canvases sharing the pixel array, or null if this canvas owns it alone.
+  private AtomicInteger owners;
+  private boolean pooled;
   private int width;
   private int height;
 
@@ -17,11 +37,34 @@ public class Canvas {
    * @param width of image
    */
   public Canvas(int height, int width) {
+    this(height, width, null);
+    this.data = CanvasBufferPool.borrowInts(height * width);
+    this.pooled = true;
+  }
+
+  /**
+   * Constructor for canvases that provide their own pixel storage. Subclasses which do not keep
+   * their pixels in a packed int array pass null, and must override every method that accesses
+   * the pixel data.
+   *
+   * @param height of image
+   * @param width of image
+   * @param data packed ARGB pixels in row-major order, or null.
+   */
+  protected Canvas(int height, int width, int[] data) {
     if (width <= 0 || height <= 0) {
       throw new IllegalArgumentException("Cannot create canvas with non-positive dimensions");
     }
 
-    this.data = new BaseColor[height][width];
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Canvas dimensions are too large");
+    }
+
+    if (data != null && data.length < width * height) {
+      throw new IllegalArgumentException("Pixel data is smaller than the canvas");
+    }
+
+    this.data = data;
     this.width = width;
     this.height = height;
   }
@@ -53,11 +96,7 @@ public class Canvas {
    * @throws ArrayIndexOutOfBoundsException for wrong pixel position.
    */
   public void setPixel(int y, int x, BaseColor pixelValue) throws ArrayIndexOutOfBoundsException {
-    if (isWithinBounds(y, x)) {
-      this.data[y][x] = pixelValue;
-    } else {
-      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
-    }
+    setArgb(y, x, PackedColor.fromColor(pixelValue));
   }
 
   /**
@@ -80,10 +119,285 @@ public class Canvas {
    * @throws ArrayIndexOutOfBoundsException for wrong position
    */
   public BaseColor getPixel(int height, int width) throws ArrayIndexOutOfBoundsException {
-    if (isWithinBounds(height, width)) {
-      return this.data[height][width];
+    return PackedColor.toColor(getArgb(height, width));
+  }
+
+  /**
+   * Packed ARGB value of the pixel at the given index.
+   *
+   * @param y row of the pixel
+   * @param x column of the pixel
+   * @return packed pixel color
+   * @throws ArrayIndexOutOfBoundsException for wrong position
+   */
+  public int getArgb(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (isWithinBounds(y, x)) {
+      return this.data[y * this.width + x];
     } else {
       throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
     }
   }
+
+  /**
+   * Sets the packed ARGB value of the pixel at the given index.
+   *
+   * @param y row of the pixel
+   * @param x column of the pixel
+   * @param argb packed pixel color
+   * @throws ArrayIndexOutOfBoundsException for wrong position
+   */
+  public void setArgb(int y, int x, int argb) throws ArrayIndexOutOfBoundsException {
+    if (isWithinBounds(y, x)) {
+      if (this.owners != null) {
+        detach();
+      }
+      this.data[y * this.width + x] = argb;
+    } else {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+  }
+
+  /**
+   * Reads a whole row of packed ARGB values.
+   *
+   * @param y row to be read
+   * @param dst array receiving the pixels, at least as long as the width of the canvas
+   * @throws ArrayIndexOutOfBoundsException for wrong row or a too short array
+   */
+  public void readRow(int y, int[] dst) throws ArrayIndexOutOfBoundsException {
+    readSpan(y, 0, this.width, dst, 0);
+  }
+
+  /**
+   * Writes a whole row of packed ARGB values.
+   *
+   * @param y row to be written
+   * @param src array holding the pixels, at least as long as the width of the canvas
+   * @throws ArrayIndexOutOfBoundsException for wrong row or a too short array
+   */
+  public void writeRow(int y, int[] src) throws ArrayIndexOutOfBoundsException {
+    writeSpan(y, 0, this.width, src, 0);
+  }
+
+  /**
+   * Reads the packed ARGB values of the columns {@code [x0, x1)} of a row.
+   *
+   * @param y row to be read
+   * @param x0 first column, inclusive
+   * @param x1 last column, exclusive
+   * @param dst array receiving the pixels
+   * @param offset position in the array of the first pixel
+   * @throws ArrayIndexOutOfBoundsException for wrong position or a too short array
+   */
+  public void readSpan(int y, int x0, int x1, int[] dst, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, dst.length, offset);
+    if (this.data != null) {
+      System.arraycopy(this.data, y * this.width + x0, dst, offset, x1 - x0);
+      return;
+    }
+
+    for (int x = x0; x < x1; x++) {
+      dst[offset++] = getArgb(y, x);
+    }
+  }
+
+  /**
+   * Writes packed ARGB values to the columns {@code [x0, x1)} of a row.
+   *
+   * @param y row to be written
+   * @param x0 first column, inclusive
+   * @param x1 last column, exclusive
+   * @param src array holding the pixels
+   * @param offset position in the array of the first pixel
+   * @throws ArrayIndexOutOfBoundsException for wrong position or a too short array
+   */
+  public void writeSpan(int y, int x0, int x1, int[] src, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, src.length, offset);
+    if (this.data != null) {
+      if (this.owners != null) {
+        detach();
+      }
+      System.arraycopy(src, offset, this.data, y * this.width + x0, x1 - x0);
+      return;
+    }
+
+    for (int x = x0; x < x1; x++) {
+      setArgb(y, x, src[offset++]);
+    }
+  }
+
+  /**
+   * Sets the columns {@code [x0, x1)} of a row to a single color.
+   *
+   * @param y row to be filled
+   * @param x0 first column, inclusive
+   * @param x1 last column, exclusive
+   * @param argb packed color
+   * @throws ArrayIndexOutOfBoundsException for wrong position
+   */
+  public void fillSpan(int y, int x0, int x1, int argb) throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, x1 - x0, 0);
+    if (this.data != null) {
+      if (this.owners != null) {
+        detach();
+      }
+      int rowOffset = y * this.width;
+      Arrays.fill(this.data, rowOffset + x0, rowOffset + x1, argb);
+      return;
+    }
+
+    for (int x = x0; x < x1; x++) {
+      setArgb(y, x, argb);
+    }
+  }
+
+  /**
+   * Copies a rectangular region of a canvas into this canvas. The source may be this canvas
+   * itself, in which case the regions may overlap.
+   *
+   * @param source canvas to copy from
+   * @param srcY top row of the region in the source
+   * @param srcX left column of the region in the source
+   * @param dstY top row of the region in this canvas
+   * @param dstX left column of the region in this canvas
+   * @param height number of rows to copy
+   * @param width number of columns to copy
+   * @throws ArrayIndexOutOfBoundsException if the region does not fit either canvas
+   */
+  public void copyRegion(Canvas source, int srcY, int srcX, int dstY, int dstX, int height,
+                         int width) throws ArrayIndexOutOfBoundsException {
+    if (source == null) {
+      throw new IllegalArgumentException("Source canvas cannot be null");
+    }
+
+    if (height < 0 || width < 0 || srcY < 0 || srcX < 0 || dstY < 0 || dstX < 0
+            || height > source.height - srcY || width > source.width - srcX
+            || height > this.height - dstY || width > this.width - dstX) {
+      throw new ArrayIndexOutOfBoundsException("Provided region is out of bounds!");
+    }
+
+    if (this.owners != null) {
+      detach();
+    }
+
+    // copy bottom up if the region moves down within this canvas, so no row is overwritten
+    // before it has been copied.
+    boolean bottomUp = source == this && dstY > srcY;
+    int[] row = source.data != null && this.data != null ? null : new int[width];
+    for (int i = 0; i < height; i++) {
+      int rowIndex = bottomUp ? height - 1 - i : i;
+      if (row == null) {
+        System.arraycopy(source.data, (srcY + rowIndex) * source.width + srcX, this.data,
+                (dstY + rowIndex) * this.width + dstX, width);
+      } else {
+        source.readSpan(srcY + rowIndex, srcX, srcX + width, row, 0);
+        writeSpan(dstY + rowIndex, dstX, dstX + width, row, 0);
+      }
+    }
+  }
+
+  /**
+   * Creates a new, empty canvas of the given dimensions which uses the same pixel storage as this
+   * canvas. Operations use this to create their output so that the storage chosen for an image
+   * carries over to the images derived from it.
+   *
+   * @param height of the new canvas
+   * @param width of the new canvas
+   * @return empty canvas
+   */
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new Canvas(height, width);
+  }
+
+  /**
+   * Creates a duplicate of this canvas. Changes to the duplicate do not affect this canvas and
+   * vice versa. The duplicate shares the packed pixel array with this canvas until one of them is
+   * written to, so read-only use of a duplicate never copies the pixels. Canvases which manage
+   * their own storage are copied right away into a canvas of the same kind.
+   *
+   * @return duplicate canvas
+   */
+  public Canvas duplicate() {
+    if (this.data == null) {
+      Canvas newCanvas = createCompatibleCanvas(this.height, this.width);
+      newCanvas.copyRegion(this, 0, 0, 0, 0, this.height, this.width);
+      return newCanvas;
+    }
+
+    if (this.owners == null) {
+      this.owners = new AtomicInteger(1);
+    }
+    this.owners.incrementAndGet();
+
+    Canvas newCanvas = new Canvas(this.height, this.width, this.data);
+    newCanvas.owners = this.owners;
+    newCanvas.pooled = this.pooled;
+    return newCanvas;
+  }
+
+  /**
+   * Makes sure that this canvas does not share its pixels with a duplicate, copying them if it
+   * does. Writing to a shared canvas copies the pixels on the first write, so a canvas which is
+   * about to be written from several threads at once has to be unshared first.
+   */
+  public void unshare() {
+    if (this.owners != null) {
+      detach();
+    }
+  }
+
+  /**
+   * Releases the pixel storage held by this canvas. The canvas must not be used once it has been
+   * released. The pixel array of a heap canvas is handed back to the {@link CanvasBufferPool} by
+   * its last owner, unless it was provided by a subclass; canvases holding resources outside the
+   * heap free them here.
+   */
+  public void release() {
+    boolean lastOwner = this.owners == null || this.owners.decrementAndGet() == 0;
+    if (this.data != null && this.pooled && lastOwner) {
+      CanvasBufferPool.returnInts(this.data);
+    }
+    this.data = null;
+    this.owners = null;
+    this.pooled = false;
+  }
+
+  /**
+   * Helper method to validate a span of a row and the array it is copied to or from.
+   *
+   * @param y row of the span
+   * @param x0 first column, inclusive
+   * @param x1 last column, exclusive
+   * @param arrayLength length of the array
+   * @param offset position in the array of the first pixel
+   * @throws ArrayIndexOutOfBoundsException if the span or the array range is out of bounds
+   */
+  protected void checkSpan(int y, int x0, int x1, int arrayLength, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    if (y < 0 || y >= this.height || x0 < 0 || x1 > this.width || x0 > x1) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    if (offset < 0 || offset > arrayLength - (x1 - x0)) {
+      throw new ArrayIndexOutOfBoundsException("Array is too short for the provided span!");
+    }
+  }
+
+  /**
+   * Helper method to give this canvas its own copy of a pixel array shared with a duplicate. The
+   * other canvases keep the original array, and copy it themselves when they are written to. The
+   * copy is taken from the pool, and can be handed back once this canvas is released. If all
+   * other owners are gone already, this canvas keeps the array and writes to it in place.
+   */
+  private void detach() {
+    if (this.owners.decrementAndGet() > 0) {
+      int[] copy = CanvasBufferPool.borrowInts(this.data.length);
+      System.arraycopy(this.data, 0, copy, 0, copy.length);
+      this.data = copy;
+      this.pooled = true;
+    }
+    this.owners = null;
+  }
 }
@@ -0,0 +1,189 @@
+package dto.image;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of pixel arrays for heap canvases. Processing chains create and drop canvases of the same
+ * dimensions over and over again; instead of leaving every released array to the garbage
+ * collector, {@link Canvas#release()} hands it back here and the next canvas of the same size
+ * borrows it.
+ *
+ * <p>Arrays are bucketed by their exact length. The pool holds at most {@link #getCapacity()}
+ * bytes; arrays returned beyond that are simply dropped. Pooled arrays are only softly
+ * referenced, so the garbage collector can still reclaim them when memory runs low.</p>
+ *
+ * <p>Borrowed arrays are always cleared, so a canvas built on top of one starts out transparent
+ * black, same as a newly allocated one. The pool can be used from several threads.</p>
+ */
+public final class CanvasBufferPool {
+
+  /**
+   * Default maximum number of bytes held by the pool, i.e. 64 megabytes.
+   */
+  public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+  private static final Map<Integer, Deque<SoftReference<int[]>>> INT_BUFFERS = new HashMap<>();
+  private static final Map<Integer, Deque<SoftReference<byte[]>>> BYTE_BUFFERS = new HashMap<>();
+
+  private static long capacity = DEFAULT_CAPACITY;
+  private static long pooledBytes;
+
+  private CanvasBufferPool() {
+  }
+
+  /**
+   * Provides the maximum number of bytes held by the pool.
+   *
+   * @return capacity of the pool in bytes.
+   */
+  public static synchronized long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the maximum number of bytes held by the pool. A capacity of 0 disables pooling. Arrays
+   * which no longer fit are dropped.
+   *
+   * @param bytes capacity of the pool in bytes.
+   * @throws IllegalArgumentException if the capacity is negative.
+   */
+  public static synchronized void setCapacity(long bytes) throws IllegalArgumentException {
+    if (bytes < 0) {
+      throw new IllegalArgumentException("Pool capacity cannot be negative!");
+    }
+
+    capacity = bytes;
+    if (pooledBytes > capacity) {
+      clear();
+    }
+  }
+
+  /**
+   * Drops all pooled arrays.
+   */
+  public static synchronized void clear() {
+    INT_BUFFERS.clear();
+    BYTE_BUFFERS.clear();
+    pooledBytes = 0;
+  }
+
+  /**
+   * Borrows a cleared int array of the given length, or allocates a new one if none is pooled.
+   *
+   * @param length length of the array.
+   * @return array filled with zeros.
+   */
+  static int[] borrowInts(int length) {
+    int[] buffer = poll(INT_BUFFERS, length, (long) length * Integer.BYTES);
+    if (buffer == null) {
+      return new int[length];
+    }
+
+    Arrays.fill(buffer, 0);
+    return buffer;
+  }
+
+  /**
+   * Hands an int array back to the pool. The caller must not use the array afterwards.
+   *
+   * @param buffer array to be pooled.
+   */
+  static void returnInts(int[] buffer) {
+    offer(INT_BUFFERS, buffer.length, (long) buffer.length * Integer.BYTES, buffer);
+  }
+
+  /**
+   * Borrows a cleared byte array of the given length, or allocates a new one if none is pooled.
+   *
+   * @param length length of the array.
+   * @return array filled with zeros.
+   */
+  static byte[] borrowBytes(int length) {
+    byte[] buffer = poll(BYTE_BUFFERS, length, length);
+    if (buffer == null) {
+      return new byte[length];
+    }
+
+    Arrays.fill(buffer, (byte) 0);
+    return buffer;
+  }
+
+  /**
+   * Hands a byte array back to the pool. The caller must not use the array afterwards.
+   *
+   * @param buffer array to be pooled.
+   */
+  static void returnBytes(byte[] buffer) {
+    offer(BYTE_BUFFERS, buffer.length, buffer.length, buffer);
+  }
+
+  /**
+   * Helper method to take an array of the given length out of the pool. Arrays which have been
+   * reclaimed by the garbage collector are skipped.
+   *
+   * @param buckets pooled arrays by length.
+   * @param length length of the array.
+   * @param bytes size of an array of that length in bytes.
+   * @param <T> type of the array.
+   * @return pooled array, or null if there is none.
+   */
+  private static synchronized <T> T poll(Map<Integer, Deque<SoftReference<T>>> buckets,
+                                         int length, long bytes) {
+    Deque<SoftReference<T>> bucket = buckets.get(length);
+    while (bucket != null && !bucket.isEmpty()) {
+      T buffer = bucket.pop().get();
+      pooledBytes -= bytes;
+      if (buffer != null) {
+        return buffer;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Helper method to put an array into the pool, if it still fits.
+   *
+   * @param buckets pooled arrays by length.
+   * @param length length of the array.
+   * @param bytes size of the array in bytes.
+   * @param buffer array to be pooled.
+   * @param <T> type of the array.
+   */
+  private static synchronized <T> void offer(Map<Integer, Deque<SoftReference<T>>> buckets,
+                                             int length, long bytes, T buffer) {
+    if (pooledBytes + bytes > capacity) {
+      purge(INT_BUFFERS, Integer.BYTES);
+      purge(BYTE_BUFFERS, 1);
+      if (pooledBytes + bytes > capacity) {
+        return;
+      }
+    }
+
+    buckets.computeIfAbsent(length, key -> new ArrayDeque<>()).push(new SoftReference<>(buffer));
+    pooledBytes += bytes;
+  }
+
+  /**
+   * Helper method to drop the arrays which have been reclaimed by the garbage collector, so that
+   * they no longer count towards the capacity.
+   *
+   * @param buckets pooled arrays by length.
+   * @param elementBytes size of an element of the arrays in bytes.
+   * @param <T> type of the arrays.
+   */
+  private static <T> void purge(Map<Integer, Deque<SoftReference<T>>> buckets,
+                                int elementBytes) {
+    for (Map.Entry<Integer, Deque<SoftReference<T>>> bucket : buckets.entrySet()) {
+      long bytes = (long) bucket.getKey() * elementBytes;
+      int before = bucket.getValue().size();
+      bucket.getValue().removeIf(reference -> reference.get() == null);
+      pooledBytes -= (before - bucket.getValue().size()) * bytes;
+    }
+  }
+}
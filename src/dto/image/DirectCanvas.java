@@ -0,0 +1,216 @@
+package dto.image;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canvas which keeps its packed ARGB pixels outside the Java heap, in a direct
+ * {@link ByteBuffer}. The garbage collector never has to scan or move the pixel data, which keeps
+ * pauses short while large images are being held.
+ *
+ * <p>The memory is freed when {@link #release()} is called. If a canvas is never released, the
+ * memory is only reclaimed once the canvas itself has been garbage collected, so callers should
+ * release canvases they no longer need.</p>
+ *
+ * <p>Same as for heap canvases, duplicates share the buffer of the original until either of them
+ * is written to, and the canvases sharing a buffer count its owners. The buffer is freed once its
+ * last owner has been released.</p>
+ */
+public class DirectCanvas extends Canvas {
+  private ByteBuffer buffer;
+  private IntBuffer pixels;
+  // number of canvases sharing the buffer, or null if this canvas owns it alone.
+  private AtomicInteger owners;
+
+  /**
+   * Constructor to create an empty off-heap image.
+   *
+   * @param height of image
+   * @param width of image
+   */
+  public DirectCanvas(int height, int width) {
+    super(height, width, null);
+
+    if ((long) height * width * Integer.BYTES > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Canvas dimensions are too large");
+    }
+
+    this.buffer = ByteBuffer.allocateDirect(height * width * Integer.BYTES)
+            .order(ByteOrder.nativeOrder());
+    this.pixels = buffer.asIntBuffer();
+  }
+
+  /**
+   * Constructor to create a duplicate on top of the buffer of another canvas.
+   *
+   * @param height of image
+   * @param width of image
+   * @param buffer buffer holding the pixels.
+   * @param owners owner count of the buffer.
+   */
+  private DirectCanvas(int height, int width, ByteBuffer buffer, AtomicInteger owners) {
+    super(height, width, null);
+    this.buffer = buffer;
+    this.pixels = buffer.asIntBuffer();
+    this.owners = owners;
+  }
+
+  /**
+   * Creates an off-heap copy of the provided canvas. If the canvas is already off-heap, it is
+   * returned as is.
+   *
+   * @param canvas canvas to be converted
+   * @return off-heap canvas holding the same pixels
+   */
+  public static DirectCanvas of(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    if (canvas instanceof DirectCanvas) {
+      return (DirectCanvas) canvas;
+    }
+
+    return copyOf(canvas);
+  }
+
+  /**
+   * Creates an off-heap copy of the provided canvas. Unlike {@link #of(Canvas)}, this always
+   * creates a new canvas, so the result can be modified without affecting the input.
+   *
+   * @param canvas canvas to be copied
+   * @return off-heap canvas holding the same pixels
+   */
+  public static DirectCanvas copyOf(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    DirectCanvas directCanvas = new DirectCanvas(canvas.getHeight(), canvas.getWidth());
+    directCanvas.copyRegion(canvas, 0, 0, 0, 0, canvas.getHeight(), canvas.getWidth());
+    return directCanvas;
+  }
+
+  @Override
+  public int getArgb(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    return getPixels().get(y * getWidth() + x);
+  }
+
+  @Override
+  public void setArgb(int y, int x, int argb) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    getWritablePixels().put(y * getWidth() + x, argb);
+  }
+
+  @Override
+  public void readSpan(int y, int x0, int x1, int[] dst, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, dst.length, offset);
+    IntBuffer view = getPixels().duplicate();
+    view.position(y * getWidth() + x0);
+    view.get(dst, offset, x1 - x0);
+  }
+
+  @Override
+  public void writeSpan(int y, int x0, int x1, int[] src, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, src.length, offset);
+    IntBuffer view = getWritablePixels().duplicate();
+    view.position(y * getWidth() + x0);
+    view.put(src, offset, x1 - x0);
+  }
+
+  @Override
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new DirectCanvas(height, width);
+  }
+
+  /**
+   * Frees the off-heap memory of this canvas right away, unless it is still shared with a
+   * duplicate, in which case the last owner frees it. Any further access to the pixels throws an
+   * {@link IllegalStateException}. Releasing a canvas more than once has no effect.
+   */
+  @Override
+  public void release() {
+    if (buffer == null) {
+      return;
+    }
+
+    ByteBuffer released = buffer;
+    boolean lastOwner = owners == null || owners.decrementAndGet() == 0;
+    buffer = null;
+    pixels = null;
+    owners = null;
+    if (lastOwner) {
+      BufferCleaner.free(released);
+    }
+  }
+
+  @Override
+  public void unshare() {
+    getWritablePixels();
+  }
+
+  /**
+   * Creates a duplicate which shares the off-heap buffer of this canvas until either of them is
+   * written to.
+   *
+   * @return duplicate canvas
+   */
+  @Override
+  public Canvas duplicate() {
+    getPixels();
+    if (owners == null) {
+      owners = new AtomicInteger(1);
+    }
+    owners.incrementAndGet();
+
+    return new DirectCanvas(getHeight(), getWidth(), buffer, owners);
+  }
+
+  /**
+   * Helper method to access the pixels while ensuring that the canvas has not been released.
+   *
+   * @return buffer holding the pixels.
+   */
+  private IntBuffer getPixels() {
+    if (pixels == null) {
+      throw new IllegalStateException("Canvas has already been released!");
+    }
+
+    return pixels;
+  }
+
+  /**
+   * Helper method to access the pixels before they are written to. If the buffer is shared with
+   * a duplicate, this canvas gets its own copy of it first, unless all other owners are gone
+   * already.
+   *
+   * @return buffer holding the pixels, owned by this canvas alone.
+   */
+  private IntBuffer getWritablePixels() {
+    IntBuffer current = getPixels();
+    if (owners != null) {
+      if (owners.decrementAndGet() > 0) {
+        ByteBuffer copy = ByteBuffer.allocateDirect(buffer.capacity())
+                .order(ByteOrder.nativeOrder());
+        copy.put(buffer.duplicate().clear()).clear();
+        buffer = copy;
+        pixels = copy.asIntBuffer();
+        current = pixels;
+      }
+      owners = null;
+    }
+
+    return current;
+  }
+}
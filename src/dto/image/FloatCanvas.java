@@ -0,0 +1,195 @@
+package dto.image;
+
+import dto.color.BaseColor;
+import dto.color.FloatColor;
+import dto.color.PackedColor;
+
+/**
+ * Canvas which stores each channel of the image as a plane of floats, in the range [0, 255].
+ * Operations on such a canvas keep the fractional part of their results, so a chain of filters
+ * and color transforms is only quantized once, when the image is finally read as 8-bit colors,
+ * e.g. to be written to a file or displayed.
+ *
+ * <p>The planes are indexed in RGBA order. A pixel takes 16 bytes, which is still well below an
+ * object per pixel.</p>
+ *
+ * <p>{@link #getArgb(int, int)} and {@link #getPixel(int, int)} round the channels to the nearest
+ * integer. {@link #setPixel(int, int, BaseColor)} keeps the full precision of a
+ * {@link FloatColor}, and {@link #getFloatColor(int, int)} provides it.</p>
+ */
+public class FloatCanvas extends Canvas {
+  private float[][] planes;
+
+  /**
+   * Constructor to create an empty high precision image.
+   *
+   * @param height of image
+   * @param width of image
+   */
+  public FloatCanvas(int height, int width) {
+    super(height, width, null);
+    this.planes = new float[4][height * width];
+  }
+
+  /**
+   * Creates a high precision copy of the provided canvas. If the canvas already has high
+   * precision, it is returned as is.
+   *
+   * @param canvas canvas to be converted
+   * @return high precision canvas holding the same pixels
+   */
+  public static FloatCanvas of(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    if (canvas instanceof FloatCanvas) {
+      return (FloatCanvas) canvas;
+    }
+
+    return copyOf(canvas);
+  }
+
+  /**
+   * Creates a high precision copy of the provided canvas. Unlike {@link #of(Canvas)}, this always
+   * creates a new canvas, so the result can be modified without affecting the input.
+   *
+   * @param canvas canvas to be copied
+   * @return high precision canvas holding the same pixels
+   */
+  public static FloatCanvas copyOf(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    if (canvas instanceof FloatCanvas) {
+      return (FloatCanvas) canvas.duplicate();
+    }
+
+    FloatCanvas floatCanvas = new FloatCanvas(canvas.getHeight(), canvas.getWidth());
+    floatCanvas.copyRegion(canvas, 0, 0, 0, 0, canvas.getHeight(), canvas.getWidth());
+    return floatCanvas;
+  }
+
+  /**
+   * Provides the plane holding a single channel of the image. The returned array is the actual
+   * storage of the canvas, so writes to it change the image. Values written must be in the range
+   * [0, 255].
+   *
+   * @param channel index of the channel in RGBA order.
+   * @return plane of the channel
+   */
+  public float[] getPlane(int channel) {
+    if (channel < 0 || channel >= getPlanes().length) {
+      throw new IllegalArgumentException("Invalid channel index");
+    }
+
+    return planes[channel];
+  }
+
+  /**
+   * Color of the pixel at the given index, with full precision.
+   *
+   * @param y row of the pixel
+   * @param x column of the pixel
+   * @return pixel color
+   * @throws ArrayIndexOutOfBoundsException for wrong position
+   */
+  public FloatColor getFloatColor(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int index = y * getWidth() + x;
+    float[][] channels = getPlanes();
+    return new FloatColor(new float[]{channels[0][index], channels[1][index],
+            channels[2][index], channels[3][index]});
+  }
+
+  @Override
+  public BaseColor getPixel(int height, int width) throws ArrayIndexOutOfBoundsException {
+    return getFloatColor(height, width);
+  }
+
+  @Override
+  public void setPixel(int y, int x, BaseColor pixelValue) throws ArrayIndexOutOfBoundsException {
+    if (!(pixelValue instanceof FloatColor)) {
+      super.setPixel(y, x, pixelValue);
+      return;
+    }
+
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int index = y * getWidth() + x;
+    float[] components = ((FloatColor) pixelValue).getFloatComponents();
+    float[][] channels = getPlanes();
+    for (int channel = 0; channel < channels.length; channel++) {
+      channels[channel][index] = components[channel];
+    }
+  }
+
+  @Override
+  public int getArgb(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int index = y * getWidth() + x;
+    float[][] channels = getPlanes();
+    return PackedColor.pack(Math.round(channels[0][index]), Math.round(channels[1][index]),
+            Math.round(channels[2][index]), Math.round(channels[3][index]));
+  }
+
+  @Override
+  public void setArgb(int y, int x, int argb) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int index = y * getWidth() + x;
+    float[][] channels = getPlanes();
+    for (int channel = 0; channel < channels.length; channel++) {
+      channels[channel][index] = PackedColor.channel(argb, channel);
+    }
+  }
+
+  @Override
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new FloatCanvas(height, width);
+  }
+
+  @Override
+  public Canvas duplicate() {
+    FloatCanvas newCanvas = new FloatCanvas(getHeight(), getWidth());
+    float[][] channels = getPlanes();
+    for (int channel = 0; channel < channels.length; channel++) {
+      System.arraycopy(channels[channel], 0, newCanvas.planes[channel], 0,
+              channels[channel].length);
+    }
+
+    return newCanvas;
+  }
+
+  /**
+   * Drops the planes of this canvas. The canvas must not be used afterwards.
+   */
+  @Override
+  public void release() {
+    planes = null;
+  }
+
+  /**
+   * Helper method to access the planes while ensuring that the canvas has not been released.
+   *
+   * @return planes of the canvas.
+   */
+  private float[][] getPlanes() {
+    if (planes == null) {
+      throw new IllegalStateException("Canvas has already been released!");
+    }
+
+    return planes;
+  }
+}
@@ -1,5 +1,7 @@
 package dto.image;
 
+import java.awt.image.BufferedImage;
+
 /**
  * Concrete implementation of {@link Image} interface. This class stores data in a {@link Canvas}
  * and also stores its color coding, and type.
@@ -26,6 +28,24 @@ public class Image2D implements Image {
     this.imageType = imageType;
   }
 
+  /**
+   * Creates an image on top of a {@link BufferedImage}. The pixels are held in a
+   * {@link BufferedCanvas}, which shares them with the provided image if it is of type
+   * {@link BufferedImage#TYPE_INT_ARGB}.
+   *
+   * @param image decoded image
+   * @param imageType image type
+   * @return image holding the pixels of the provided image
+   */
+  public static Image2D fromBufferedImage(BufferedImage image, String imageType) {
+    if (image == null) {
+      throw new IllegalArgumentException("Image cannot be null!");
+    }
+
+    int imageColorType = image.getColorModel().getColorSpace().getType();
+    return new Image2D(BufferedCanvas.of(image), imageColorType, imageType);
+  }
+
   @Override
   public int getWidth() {
     return this.data.getWidth();
@@ -0,0 +1,214 @@
+package dto.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canvas which keeps its packed ARGB pixels in a memory-mapped scratch file, so that images
+ * larger than the Java heap (and even larger than the physical memory) can be processed. The
+ * operating system pages the pixel data in and out as it is accessed.
+ *
+ * <p>The pixels are stored in square tiles of {@value #TILE_SIZE} x {@value #TILE_SIZE} pixels,
+ * each of which occupies a contiguous region of the file. Operations that work on a neighbourhood
+ * of a pixel, like filters and dithering, therefore touch only a few pages at a time regardless
+ * of the width of the image. The file is mapped in segments of several tiles to keep the number
+ * of mappings low.</p>
+ *
+ * <p>The scratch file is deleted when the canvas is released, or when the JVM exits. The files
+ * of canvases which are still alive are tracked in a single set, which a shutdown hook empties,
+ * so that released canvases leave nothing behind.</p>
+ */
+public class MappedCanvas extends Canvas {
+
+  /**
+   * Width and height of a tile, in pixels.
+   */
+  public static final int TILE_SIZE = 256;
+
+  private static final int TILE_SHIFT = 8;
+  private static final int TILE_MASK = TILE_SIZE - 1;
+  private static final int TILE_PIXELS = TILE_SIZE * TILE_SIZE;
+  private static final int TILES_PER_SEGMENT = 64;
+
+  // scratch files of the canvases which have not been released yet.
+  private static final Set<File> SCRATCH_FILES = ConcurrentHashMap.newKeySet();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      for (File file : SCRATCH_FILES) {
+        file.delete();
+      }
+    }, "canvas-scratch-cleanup"));
+  }
+
+  private int tilesAcross;
+  private File file;
+  private FileChannel channel;
+  private MappedByteBuffer[] segments;
+  private IntBuffer[] segmentPixels;
+
+  /**
+   * Constructor to create an empty file-backed image.
+   *
+   * @param height of image
+   * @param width of image
+   * @throws IllegalStateException if the scratch file cannot be created.
+   */
+  public MappedCanvas(int height, int width) throws IllegalStateException {
+    super(height, width, null);
+
+    this.tilesAcross = (width + TILE_MASK) >> TILE_SHIFT;
+    int tilesDown = (height + TILE_MASK) >> TILE_SHIFT;
+    long tileCount = (long) tilesAcross * tilesDown;
+    int segmentCount = (int) ((tileCount + TILES_PER_SEGMENT - 1) / TILES_PER_SEGMENT);
+    long tileBytes = (long) TILE_PIXELS * Integer.BYTES;
+
+    try {
+      this.file = File.createTempFile("canvas_", ".tiles");
+      SCRATCH_FILES.add(file);
+
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      randomAccessFile.setLength(tileCount * tileBytes);
+      this.channel = randomAccessFile.getChannel();
+      this.segments = new MappedByteBuffer[segmentCount];
+      this.segmentPixels = new IntBuffer[segmentCount];
+
+      for (int i = 0; i < segmentCount; i++) {
+        long firstTile = (long) i * TILES_PER_SEGMENT;
+        long segmentTiles = Math.min(TILES_PER_SEGMENT, tileCount - firstTile);
+        segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, firstTile * tileBytes,
+                segmentTiles * tileBytes);
+        segments[i].order(ByteOrder.nativeOrder());
+        segmentPixels[i] = segments[i].asIntBuffer();
+      }
+    } catch (IOException e) {
+      release();
+      throw new IllegalStateException("Could not create scratch file for canvas: "
+              + e.getMessage());
+    }
+  }
+
+  @Override
+  public int getArgb(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int tile = (y >> TILE_SHIFT) * tilesAcross + (x >> TILE_SHIFT);
+    return getSegment(tile / TILES_PER_SEGMENT).get(offset(tile, y, x));
+  }
+
+  @Override
+  public void setArgb(int y, int x, int argb) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int tile = (y >> TILE_SHIFT) * tilesAcross + (x >> TILE_SHIFT);
+    getSegment(tile / TILES_PER_SEGMENT).put(offset(tile, y, x), argb);
+  }
+
+  @Override
+  public void readSpan(int y, int x0, int x1, int[] dst, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, dst.length, offset);
+    int x = x0;
+    while (x < x1) {
+      int tile = (y >> TILE_SHIFT) * tilesAcross + (x >> TILE_SHIFT);
+      int length = Math.min(x1, (x | TILE_MASK) + 1) - x;
+      IntBuffer view = getSegment(tile / TILES_PER_SEGMENT).duplicate();
+      view.position(offset(tile, y, x));
+      view.get(dst, offset, length);
+      offset += length;
+      x += length;
+    }
+  }
+
+  @Override
+  public void writeSpan(int y, int x0, int x1, int[] src, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, src.length, offset);
+    int x = x0;
+    while (x < x1) {
+      int tile = (y >> TILE_SHIFT) * tilesAcross + (x >> TILE_SHIFT);
+      int length = Math.min(x1, (x | TILE_MASK) + 1) - x;
+      IntBuffer view = getSegment(tile / TILES_PER_SEGMENT).duplicate();
+      view.position(offset(tile, y, x));
+      view.put(src, offset, length);
+      offset += length;
+      x += length;
+    }
+  }
+
+  @Override
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new MappedCanvas(height, width);
+  }
+
+  /**
+   * Unmaps the scratch file and deletes it. Any further access to the pixels throws an
+   * {@link IllegalStateException}. Releasing a canvas more than once has no effect.
+   */
+  @Override
+  public void release() {
+    if (segments != null) {
+      MappedByteBuffer[] mapped = segments;
+      segments = null;
+      segmentPixels = null;
+      for (MappedByteBuffer segment : mapped) {
+        if (segment != null) {
+          BufferCleaner.free(segment);
+        }
+      }
+    }
+
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // nothing left to do, the file is deleted below or when the JVM exits.
+      }
+      channel = null;
+    }
+
+    if (file != null) {
+      file.delete();
+      SCRATCH_FILES.remove(file);
+      file = null;
+    }
+  }
+
+  /**
+   * Helper method to compute the position of a pixel within the segment holding its tile.
+   *
+   * @param tile index of the tile holding the pixel.
+   * @param y row of the pixel.
+   * @param x column of the pixel.
+   * @return offset of the pixel in the segment, in pixels.
+   */
+  private static int offset(int tile, int y, int x) {
+    return (tile % TILES_PER_SEGMENT) * TILE_PIXELS + ((y & TILE_MASK) << TILE_SHIFT)
+            + (x & TILE_MASK);
+  }
+
+  /**
+   * Helper method to access a segment while ensuring that the canvas has not been released.
+   *
+   * @param segment index of the segment.
+   * @return pixels of the segment.
+   */
+  private IntBuffer getSegment(int segment) {
+    if (segmentPixels == null) {
+      throw new IllegalStateException("Canvas has already been released!");
+    }
+
+    return segmentPixels[segment];
+  }
+}
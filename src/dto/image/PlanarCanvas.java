@@ -0,0 +1,275 @@
+package dto.image;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dto.color.PackedColor;
+
+/**
+ * Canvas which stores each channel of the image in its own plane, i.e. a separate byte array per
+ * channel in row-major order. Operations that work on the channels independently, such as
+ * filters, can stream through a single plane at a time instead of unpacking every pixel.
+ *
+ * <p>The planes are indexed in RGBA order, same as {@link dto.color.BaseColor#getComponents()}.
+ * Channel values are stored as unsigned bytes, so they have to be read as
+ * {@code plane[index] & 0xFF}.</p>
+ *
+ * <p>Duplicates share the planes of the original. Each plane is copied separately the first time
+ * it is written to, so an operation which only changes some channels leaves the others
+ * shared. Same as for packed canvases, every plane counts its owners, so the last owner of a
+ * plane writes to it in place and hands it back to the pool when it is released.</p>
+ */
+public class PlanarCanvas extends Canvas {
+  private byte[][] planes;
+  // number of canvases sharing each plane, or null for planes this canvas owns alone.
+  private AtomicInteger[] planeOwners;
+
+  /**
+   * Constructor to create an empty planar image.
+   *
+   * @param height of image
+   * @param width of image
+   */
+  public PlanarCanvas(int height, int width) {
+    this(height, width, borrowPlanes(height, width));
+  }
+
+  /**
+   * Constructor to create a planar image on top of existing planes.
+   *
+   * @param height of image
+   * @param width of image
+   * @param planes channel planes in RGBA order
+   */
+  private PlanarCanvas(int height, int width, byte[][] planes) {
+    super(height, width, null);
+    this.planes = planes;
+    this.planeOwners = new AtomicInteger[planes.length];
+  }
+
+  /**
+   * Creates a planar copy of the provided canvas. If the canvas is already planar, it is returned
+   * as is.
+   *
+   * @param canvas canvas to be converted
+   * @return planar canvas holding the same pixels
+   */
+  public static PlanarCanvas of(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    if (canvas instanceof PlanarCanvas) {
+      return (PlanarCanvas) canvas;
+    }
+
+    return copyOf(canvas);
+  }
+
+  /**
+   * Creates a planar copy of the provided canvas. Unlike {@link #of(Canvas)}, this always
+   * creates a new canvas, so the result can be modified without affecting the input.
+   *
+   * @param canvas canvas to be copied
+   * @return planar canvas holding the same pixels
+   */
+  public static PlanarCanvas copyOf(Canvas canvas) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    PlanarCanvas planarCanvas = new PlanarCanvas(canvas.getHeight(), canvas.getWidth());
+    planarCanvas.copyRegion(canvas, 0, 0, 0, 0, canvas.getHeight(), canvas.getWidth());
+    return planarCanvas;
+  }
+
+  /**
+   * Provides the plane holding a single channel of the image for reading. The returned array is
+   * the actual storage of the canvas and may be shared with duplicates, so it must not be written
+   * to; use {@link #getWritablePlane(int)} for that.
+   *
+   * @param channel index of the channel in RGBA order.
+   * @return plane of the channel
+   */
+  public byte[] getPlane(int channel) {
+    if (channel < 0 || channel >= planes.length) {
+      throw new IllegalArgumentException("Invalid channel index");
+    }
+
+    return planes[channel];
+  }
+
+  /**
+   * Provides the plane holding a single channel of the image for writing. If the plane is shared
+   * with a duplicate, this canvas gets its own copy of it first, unless all other owners of the
+   * plane are gone already. Writes to the returned array change the image.
+   *
+   * @param channel index of the channel in RGBA order.
+   * @return plane of the channel
+   */
+  public byte[] getWritablePlane(int channel) {
+    if (channel < 0 || channel >= planes.length) {
+      throw new IllegalArgumentException("Invalid channel index");
+    }
+
+    AtomicInteger owners = planeOwners[channel];
+    if (owners != null) {
+      if (owners.decrementAndGet() > 0) {
+        byte[] copy = CanvasBufferPool.borrowBytes(planes[channel].length);
+        System.arraycopy(planes[channel], 0, copy, 0, copy.length);
+        planes[channel] = copy;
+      }
+      planeOwners[channel] = null;
+    }
+
+    return planes[channel];
+  }
+
+  @Override
+  public int getArgb(int y, int x) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    int index = y * getWidth() + x;
+    return PackedColor.pack(planes[0][index] & 0xFF, planes[1][index] & 0xFF,
+            planes[2][index] & 0xFF, planes[3][index] & 0xFF);
+  }
+
+  @Override
+  public void setArgb(int y, int x, int argb) throws ArrayIndexOutOfBoundsException {
+    if (!isWithinBounds(y, x)) {
+      throw new ArrayIndexOutOfBoundsException("Provided indices are out of bounds!");
+    }
+
+    detachPlanes();
+    setPlanarArgb(y * getWidth() + x, argb);
+  }
+
+  @Override
+  public void readSpan(int y, int x0, int x1, int[] dst, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, dst.length, offset);
+    byte[] red = planes[0];
+    byte[] green = planes[1];
+    byte[] blue = planes[2];
+    byte[] alpha = planes[3];
+    int rowOffset = y * getWidth();
+
+    for (int index = rowOffset + x0; index < rowOffset + x1; index++) {
+      dst[offset++] = PackedColor.pack(red[index] & 0xFF, green[index] & 0xFF,
+              blue[index] & 0xFF, alpha[index] & 0xFF);
+    }
+  }
+
+  @Override
+  public void writeSpan(int y, int x0, int x1, int[] src, int offset)
+          throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, src.length, offset);
+    detachPlanes();
+    int rowOffset = y * getWidth();
+
+    for (int index = rowOffset + x0; index < rowOffset + x1; index++) {
+      setPlanarArgb(index, src[offset++]);
+    }
+  }
+
+  @Override
+  public void fillSpan(int y, int x0, int x1, int argb) throws ArrayIndexOutOfBoundsException {
+    checkSpan(y, x0, x1, x1 - x0, 0);
+    int rowOffset = y * getWidth();
+
+    for (int channel = 0; channel < planes.length; channel++) {
+      Arrays.fill(getWritablePlane(channel), rowOffset + x0, rowOffset + x1,
+              (byte) PackedColor.channel(argb, channel));
+    }
+  }
+
+  @Override
+  public Canvas createCompatibleCanvas(int height, int width) {
+    return new PlanarCanvas(height, width);
+  }
+
+  /**
+   * Hands the planes of this canvas back to the {@link CanvasBufferPool}, except for those which
+   * are still used by a duplicate. The canvas must not be used afterwards.
+   */
+  @Override
+  public void release() {
+    if (planes == null) {
+      return;
+    }
+
+    for (int channel = 0; channel < planes.length; channel++) {
+      AtomicInteger owners = planeOwners[channel];
+      if (owners == null || owners.decrementAndGet() == 0) {
+        CanvasBufferPool.returnBytes(planes[channel]);
+      }
+      planeOwners[channel] = null;
+    }
+    planes = null;
+  }
+
+  @Override
+  public void unshare() {
+    detachPlanes();
+  }
+
+  @Override
+  public Canvas duplicate() {
+    PlanarCanvas newCanvas = new PlanarCanvas(getHeight(), getWidth(), planes.clone());
+    for (int channel = 0; channel < planes.length; channel++) {
+      if (planeOwners[channel] == null) {
+        planeOwners[channel] = new AtomicInteger(1);
+      }
+      planeOwners[channel].incrementAndGet();
+      newCanvas.planeOwners[channel] = planeOwners[channel];
+    }
+
+    return newCanvas;
+  }
+
+  /**
+   * Helper method to borrow the four planes of a new canvas from the {@link CanvasBufferPool}.
+   *
+   * Invalid dimensions yield empty planes, and are then rejected by the canvas constructor.
+   *
+   * @param height of the canvas.
+   * @param width of the canvas.
+   * @return cleared planes in RGBA order.
+   */
+  private static byte[][] borrowPlanes(int height, int width) {
+    byte[][] planes = new byte[4][];
+    boolean valid = height > 0 && width > 0 && (long) height * width <= Integer.MAX_VALUE;
+    for (int channel = 0; channel < planes.length; channel++) {
+      planes[channel] = valid ? CanvasBufferPool.borrowBytes(height * width) : new byte[0];
+    }
+
+    return planes;
+  }
+
+  /**
+   * Helper method to make sure that none of the planes is shared with a duplicate before the
+   * pixels are written to.
+   */
+  private void detachPlanes() {
+    for (int channel = 0; channel < planes.length; channel++) {
+      if (planeOwners[channel] != null) {
+        getWritablePlane(channel);
+      }
+    }
+  }
+
+  /**
+   * Helper method to spread a packed color over the planes.
+   *
+   * @param index index of the pixel in the planes.
+   * @param argb packed color of the pixel.
+   */
+  private void setPlanarArgb(int index, int argb) {
+    planes[0][index] = (byte) PackedColor.red(argb);
+    planes[1][index] = (byte) PackedColor.green(argb);
+    planes[2][index] = (byte) PackedColor.blue(argb);
+    planes[3][index] = (byte) PackedColor.alpha(argb);
+  }
+}
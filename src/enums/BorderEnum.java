@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * Ways of treating the pixels outside of an image which a filter reaches at the borders.
+ * <ul>
+ *   <li>ZERO: outside pixels are opaque black.</li>
+ *   <li>CLAMP: outside pixels repeat the nearest edge pixel.</li>
+ *   <li>MIRROR: the image is reflected at its edges, the edge pixels included.</li>
+ *   <li>WRAP: the image repeats, i.e. the left edge continues at the right edge.</li>
+ * </ul>
+ */
+public enum BorderEnum {
+  ZERO, CLAMP, MIRROR, WRAP
+}
@@ -0,0 +1,66 @@
+package io;
+
+import java.awt.image.DataBuffer;
+
+import dto.image.Canvas;
+
+/**
+ * Read only {@link DataBuffer} holding one packed ARGB int per pixel, which reads the pixels from
+ * a {@link Canvas} whenever they are asked for. Images built on it can be handed to an image
+ * writer without copying the canvas, so canvases larger than the heap can be written as well.
+ *
+ * <p>The most recently read row is kept, since image writers read the pixels row by row. A
+ * buffer must therefore only be used by one thread at a time.</p>
+ */
+final class CanvasDataBuffer extends DataBuffer {
+  private final Canvas canvas;
+  private final int width;
+  private final int[] row;
+  private int rowIndex;
+
+  /**
+   * Creates a buffer reading from the canvas.
+   *
+   * @param canvas image data.
+   * @throws IllegalArgumentException if the canvas has more pixels than a buffer can index.
+   */
+  CanvasDataBuffer(Canvas canvas) throws IllegalArgumentException {
+    super(DataBuffer.TYPE_INT, checkSize(canvas));
+    this.canvas = canvas;
+    this.width = canvas.getWidth();
+    this.row = new int[width];
+    this.rowIndex = -1;
+  }
+
+  @Override
+  public int getElem(int bank, int i) {
+    int y = i / width;
+    if (y != rowIndex) {
+      canvas.readRow(y, row);
+      rowIndex = y;
+    }
+
+    return row[i - y * width];
+  }
+
+  @Override
+  public void setElem(int bank, int i, int val) {
+    throw new UnsupportedOperationException("Canvas data buffers are read only");
+  }
+
+  /**
+   * Helper method to find the number of pixels of a canvas.
+   *
+   * @param canvas image data.
+   * @return number of pixels.
+   * @throws IllegalArgumentException if the canvas has more pixels than a buffer can index.
+   */
+  private static int checkSize(Canvas canvas) throws IllegalArgumentException {
+    long size = (long) canvas.getHeight() * canvas.getWidth();
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Image has too many pixels to be written");
+    }
+
+    return (int) size;
+  }
+}
@@ -1,23 +1,44 @@
 package io;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Iterator;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.stream.ImageInputStream;
 
-import dto.color.ColorImpl;
+import dto.color.PackedColor;
 import dto.image.Canvas;
 import dto.image.Image;
 import dto.image.Image2D;
+import dto.image.MappedCanvas;
 import enums.ImageFileEnums;
 
 /**
  * This class various methods to read an image.
+ *
+ * <p>Decoded images are kept in a {@link dto.image.BufferedCanvas}, so their pixels are not
+ * copied one at a time after decoding.</p>
+ *
+ * <p>Image files with at least {@link #MAPPED_IMAGE_THRESHOLD} pixels are decoded in horizontal
+ * strips straight into a file-backed {@link MappedCanvas}, so that images larger than the heap
+ * can be read.</p>
  */
 public class ImageReader {
+
+  /**
+   * Number of pixels from which image files are read into a file-backed canvas, i.e. 64
+   * megapixels.
+   */
+  public static final long MAPPED_IMAGE_THRESHOLD = 64L * 1024 * 1024;
+
+  private static final int STRIP_PIXELS = 4 * 1024 * 1024;
+
   private static BufferedImage readFromFile(String filePath) throws IOException {
     return ImageIO.read(new File((filePath)));
   }
@@ -27,32 +48,80 @@ public class ImageReader {
     return ImageIO.read(url);
   }
 
-  private static int[] getRGBAColorFormat(int[] colors, int colorType) {
-    if (colors.length == 3) {
-      colors = new int[]{colors[0], colors[1], colors[2], 255};
-    }
-    //TODO add support for more colors
-    return colors;
+  private static Image createImageObject(BufferedImage input, String imageType) {
+    return Image2D.fromBufferedImage(input, imageType);
   }
 
-  private static Image createImageObject(BufferedImage input, String imageType) {
-    int imgHeight = input.getHeight();
-    int imgWidth = input.getWidth();
-    int imageColorType = input.getColorModel().getColorSpace().getType();
-    Canvas cvs = new Canvas(imgHeight, imgWidth);
+  private static void copyPixels(BufferedImage input, Canvas cvs, int rowOffset) {
     Raster raster = input.getRaster();
     int numColors = raster.getNumBands();
-
-    for (int i = 0; i < imgHeight; i++) {
-      for (int j = 0; j < imgWidth; j++) {
-        int[] colors = new int[numColors];
-        raster.getPixel(j, i, colors);
-        int[] rgbColors = getRGBAColorFormat(colors, imageColorType);
-        cvs.setPixel(i, j, new ColorImpl(rgbColors));
+    int width = input.getWidth();
+    int[] samples = new int[width * numColors];
+    int[] row = new int[width];
+
+    for (int i = 0; i < input.getHeight(); i++) {
+      raster.getPixels(0, i, width, 1, samples);
+      for (int j = 0; j < width; j++) {
+        int sample = j * numColors;
+        int alpha = numColors > 3 ? samples[sample + 3] : 255;
+        row[j] = PackedColor.pack(samples[sample], samples[sample + 1], samples[sample + 2],
+                alpha);
       }
+      cvs.writeRow(i + rowOffset, row);
     }
+  }
 
-    return new Image2D(cvs, imageColorType, imageType);
+  /**
+   * Reads a large image file into a file-backed canvas, one strip of rows at a time, so that the
+   * decoded image never has to fit on the heap as a whole.
+   *
+   * @param path path of the image file to be read.
+   * @return the image, or null if the image is smaller than {@link #MAPPED_IMAGE_THRESHOLD} or
+   *         cannot be decoded in strips.
+   * @throws IOException for unable to read image.
+   */
+  private static Image readMappedImage(String path) throws IOException {
+    File file = new File(path);
+    if (!file.canRead()) {
+      return null;
+    }
+
+    String imageType = getImageType(path);
+
+    try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+      Iterator<javax.imageio.ImageReader> readers = input == null ? null
+              : ImageIO.getImageReaders(input);
+      if (readers == null || !readers.hasNext()) {
+        return null;
+      }
+
+      javax.imageio.ImageReader reader = readers.next();
+      try {
+        reader.setInput(input);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height < MAPPED_IMAGE_THRESHOLD) {
+          return null;
+        }
+
+        Canvas cvs = new MappedCanvas(height, width);
+        ImageReadParam param = reader.getDefaultReadParam();
+        int stripHeight = Math.max(1, STRIP_PIXELS / width);
+        int imageColorType = 0;
+
+        for (int row = 0; row < height; row += stripHeight) {
+          param.setSourceRegion(new Rectangle(0, row, width, Math.min(stripHeight,
+                  height - row)));
+          BufferedImage strip = reader.read(0, param);
+          imageColorType = strip.getColorModel().getColorSpace().getType();
+          copyPixels(strip, cvs, row);
+        }
+
+        return new Image2D(cvs, imageColorType, imageType);
+      } finally {
+        reader.dispose();
+      }
+    }
   }
 
   private static String getImageType(String imagePath) {
@@ -93,6 +162,11 @@ public class ImageReader {
         break;
       }
       case FILE: {
+        Image mappedImage = readMappedImage(path);
+        if (mappedImage != null) {
+          return mappedImage;
+        }
+
         bufferedImage = readFromFile(path);
         break;
       }
@@ -101,7 +175,6 @@ public class ImageReader {
       }
     }
 
-
     return createImageObject(bufferedImage, getImageType(path));
   }
 
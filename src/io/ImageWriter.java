@@ -1,12 +1,18 @@
 package io;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
 
 import util.Utils;
+import dto.image.BufferedCanvas;
+import dto.image.Canvas;
 import dto.image.Image;
 
 /**
@@ -15,7 +21,8 @@ import dto.image.Image;
 public class ImageWriter {
 
   /**
-   * This method stores an image to the file path provided.
+   * This method stores an image to the file path provided. Images with high precision channels
+   * are rounded to 8-bit channels at this point.
    *
    * @param image to store
    * @param filePath to store to
@@ -30,11 +37,72 @@ public class ImageWriter {
       throw new IllegalArgumentException("Path cannot be null/empty!");
     }
 
-    BufferedImage response = Utils.convertImage(image);
+    BufferedImage response = toWritableImage(image, image.getBaseImageType());
 
     return ImageIO.write(response, image.getBaseImageType(), new File(filePath));
   }
 
+  /**
+   * Helper method to provide an image which can be encoded in the requested format. Images are
+   * not copied: images held in a {@link BufferedCanvas} are written from their buffered image,
+   * all others from a view which reads the rows of the canvas while they are encoded, so that
+   * canvases larger than the heap can be written. Formats which cannot store transparency, like
+   * jpg, receive a view without the alpha channel instead. Only images of color types other than
+   * 8-bit RGB are copied into a buffered image of their type.
+   *
+   * @param image image to be written.
+   * @param format file format to write.
+   * @return image which can be written in the format.
+   */
+  private static BufferedImage toWritableImage(Image image, String format) {
+    Canvas canvas = image.getData();
+    BufferedImage writable;
+    if (canvas instanceof BufferedCanvas) {
+      writable = ((BufferedCanvas) canvas).getBufferedImage();
+    } else {
+      switch (image.getBaseImageColorType()) {
+        case BufferedImage.TYPE_INT_ARGB:
+        case BufferedImage.TYPE_4BYTE_ABGR:
+          writable = createView(canvas, true);
+          break;
+        case BufferedImage.TYPE_INT_RGB:
+        case BufferedImage.TYPE_INT_BGR:
+        case BufferedImage.TYPE_3BYTE_BGR:
+          writable = createView(canvas, false);
+          break;
+        default:
+          writable = Utils.convertImage(image);
+          break;
+      }
+    }
+
+    if (!writable.getColorModel().hasAlpha()
+            || ImageIO.getImageWriters(ImageTypeSpecifier.createFromRenderedImage(writable),
+            format).hasNext()) {
+      return writable;
+    }
+
+    return createView(canvas, false);
+  }
+
+  /**
+   * Helper method to create an image of packed ARGB ints which reads its pixels from a canvas.
+   * Without the alpha channel, the alpha bits of the pixels are ignored.
+   *
+   * @param canvas image data.
+   * @param alpha true if the image has an alpha channel, false otherwise.
+   * @return image sharing the pixels of the canvas.
+   */
+  private static BufferedImage createView(Canvas canvas, boolean alpha) {
+    DirectColorModel colorModel = alpha
+            ? new DirectColorModel(32, 0xff0000, 0xff00, 0xff, 0xff000000)
+            : new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+    WritableRaster raster = Raster.createWritableRaster(
+            colorModel.createCompatibleSampleModel(canvas.getWidth(), canvas.getHeight()),
+            new CanvasDataBuffer(canvas), null);
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
   /**
    * Method to store the image in the OS temporary directory.
    *
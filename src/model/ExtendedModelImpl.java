@@ -1,43 +1,136 @@
 package model;
 
 import dto.image.Canvas;
+import dto.image.DirectCanvas;
+import dto.image.FloatCanvas;
 import dto.image.Image;
 import dto.image.Image2D;
+import dto.image.MappedCanvas;
 import model.image.ExtendedImageModel;
 import model.image.ExtendedImageModelImpl;
 import model.image.dither.Dither;
 import model.image.dither.DitherImpl;
-import model.utils.Util;
 
 /**
  * Implementation of the {@link ExtendedModelImpl} interface. This class implements the new
  * image processing operations defined by {@link ExtendedModel}, and inherits the existing
  * methods implementations of the {@link Model} interface from the ModelImpl class.
+ *
+ * <p>Images with at least as many pixels as the off-heap threshold are processed in
+ * {@link DirectCanvas} storage, which keeps their pixels out of the Java heap. The results of
+ * such operations stay off-heap as well. Smaller images stay on the heap, and images backed by
+ * a file ({@link MappedCanvas}) keep their storage. Results kept for display stay on the heap in
+ * any size, see {@link #setDisplayResults(boolean)}.</p>
+ *
+ * <p>Dithering and the mosaic effect only read their input, so they are given the data of the
+ * input image as it is, without a working copy. Dithering writes its result to a canvas of the
+ * same kind as the input.</p>
  */
 public class ExtendedModelImpl extends ModelImpl implements ExtendedModel {
 
+  /**
+   * Default number of pixels from which images are kept off-heap, i.e. 16 megapixels.
+   */
+  public static final long DEFAULT_OFF_HEAP_THRESHOLD = 16L * 1024 * 1024;
+
   private ExtendedImageModel extendedImageModel;
+  private long offHeapThreshold;
 
   /**
    * Instantiates a new extended model impl object.
    */
   public ExtendedModelImpl() {
-    super();
-    this.extendedImageModel = new ExtendedImageModelImpl();
+    this(DEFAULT_OFF_HEAP_THRESHOLD);
+  }
+
+  /**
+   * Instantiates a new extended model impl object which keeps images off-heap from the given
+   * number of pixels.
+   *
+   * @param offHeapThreshold minimum number of pixels for an image to be kept off-heap.
+   */
+  public ExtendedModelImpl(long offHeapThreshold) {
+    this(offHeapThreshold, false);
+  }
+
+  /**
+   * Instantiates a new extended model impl object which keeps images off-heap from the given
+   * number of pixels, optionally processing images with high precision channels. High precision
+   * images are always kept on the heap.
+   *
+   * @param offHeapThreshold minimum number of pixels for an image to be kept off-heap.
+   * @param highPrecision true to process images with high precision channels.
+   */
+  public ExtendedModelImpl(long offHeapThreshold, boolean highPrecision) {
+    this(offHeapThreshold, highPrecision, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates a new extended model impl object which keeps images off-heap from the given
+   * number of pixels and applies filters on at most the given number of threads.
+   *
+   * @param offHeapThreshold minimum number of pixels for an image to be kept off-heap.
+   * @param highPrecision true to process images with high precision channels.
+   * @param parallelism maximum number of threads used by an operation.
+   */
+  public ExtendedModelImpl(long offHeapThreshold, boolean highPrecision, int parallelism) {
+    this(offHeapThreshold, highPrecision, parallelism, false);
+  }
+
+  /**
+   * Instantiates a new extended model impl object which keeps images off-heap from the given
+   * number of pixels, applies filters on at most the given number of threads, and optionally
+   * applies filters and color transforms to 8-bit images in fixed point.
+   *
+   * @param offHeapThreshold minimum number of pixels for an image to be kept off-heap.
+   * @param highPrecision true to process images with high precision channels.
+   * @param parallelism maximum number of threads used by an operation.
+   * @param fixedPoint true to use scaled integer arithmetic for 8-bit images.
+   */
+  public ExtendedModelImpl(long offHeapThreshold, boolean highPrecision, int parallelism,
+                           boolean fixedPoint) {
+    super(highPrecision, parallelism, fixedPoint);
+    if (offHeapThreshold <= 0) {
+      throw new IllegalArgumentException("Off-heap threshold must be positive!");
+    }
+
+    this.extendedImageModel = new ExtendedImageModelImpl(parallelism, fixedPoint);
+    this.offHeapThreshold = offHeapThreshold;
   }
 
   @Override
   public Image applyDither(float[][] ditherKernel, Image image) {
     Dither dither = new DitherImpl(ditherKernel);
-    Canvas duplicateCanvas = Util.duplicateCanvas(image.getData());
-    return new Image2D(extendedImageModel.applyDither(dither, duplicateCanvas),
-            image.getBaseImageColorType(), image.getBaseImageType());
+    Canvas dithered = extendedImageModel.applyDither(dither, image.getData());
+    return new Image2D(dithered, image.getBaseImageColorType(), image.getBaseImageType());
   }
 
   @Override
   public Image applyMosaic(int seedCount, Image image) {
-    Canvas duplicateCanvas = Util.duplicateCanvas(image.getData());
-    return new Image2D(extendedImageModel.applyMosaic(seedCount, duplicateCanvas),
-            image.getBaseImageColorType(), image.getBaseImageType());
+    Canvas mosaic = extendedImageModel.applyMosaic(seedCount, image.getData());
+    return new Image2D(mosaic, image.getBaseImageColorType(), image.getBaseImageType());
+  }
+
+  @Override
+  protected Canvas getWorkingCanvas(Canvas canvas) {
+    if (isLarge(canvas)) {
+      return DirectCanvas.of(canvas);
+    }
+
+    return super.getWorkingCanvas(canvas);
+  }
+
+  /**
+   * Helper method to check whether an image is large enough to be kept off-heap. Images that
+   * are already backed by a file are left where they are, and high precision images and results
+   * kept for display stay on the heap.
+   *
+   * @param canvas data of the image.
+   * @return true if the image should be kept off-heap, false otherwise.
+   */
+  private boolean isLarge(Canvas canvas) {
+    return !(canvas instanceof MappedCanvas) && !(canvas instanceof FloatCanvas)
+            && !isHighPrecision() && !isDisplayResults()
+            && (long) canvas.getWidth() * canvas.getHeight() >= offHeapThreshold;
   }
 }
@@ -1,5 +1,7 @@
 package model;
 
+import java.util.List;
+
 import dto.image.Image;
 import enums.FlagEnum;
 
@@ -21,6 +23,30 @@ public interface Model {
    */
   Image applyTransform(float[][] transformArr, Image image);
 
+  /**
+   * Operation for applying a chain of linear color transforms, one after another. Consecutive
+   * transforms may be composed into a single transform, so that the image is traversed once for
+   * the whole run instead of once per transform.
+   *
+   * @param transforms 2-d floating point arrays of the transforms to apply, in order.
+   * @param image image on which the transforms should be applied.
+   * @return resulting image.
+   */
+  Image applyTransforms(List<float[][]> transforms, Image image);
+
+  /**
+   * Operation for applying a chain of linear color transforms, like
+   * {@link #applyTransforms(List, Image)}, for callers which do not need the input image any
+   * more. The transforms overwrite the data of the input image where possible instead of
+   * allocating new images, so the resulting image may share its data with the input image,
+   * which must not be used afterwards.
+   *
+   * @param transforms 2-d floating point arrays of the transforms to apply, in order.
+   * @param image image on which the transforms should be applied, which is consumed.
+   * @return resulting image.
+   */
+  Image applyTransformsInPlace(List<float[][]> transforms, Image image);
+
   /**
    * Operation for performing simple linear convolutional 2d filter on an image. More details on
    * the type of supported filters can be found here:
@@ -32,6 +58,50 @@ public interface Model {
    */
   Image applyFilter(float[][] filterArr, Image image);
 
+  /**
+   * Operation for applying a chain of linear convolutional 2d filters, one after another.
+   * Consecutive filters may be composed into a single filter, so that the image is traversed
+   * once for the whole run instead of once per filter.
+   *
+   * @param filters 2d filters to be applied, in order.
+   * @param image image on which the filters should be applied.
+   * @return resulting image.
+   */
+  Image applyFilters(List<float[][]> filters, Image image);
+
+  /**
+   * Operation for blurring an image with a box blur, which averages every color channel over a
+   * square window around each pixel. The cost does not depend on the size of the window, so it
+   * suits very wide blurs. Applying the blur three times or more approximates a Gaussian blur.
+   *
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   * @param image image which should be blurred.
+   * @return resulting image.
+   */
+  Image applyBoxBlur(int radius, int passes, Image image);
+
+  /**
+   * Operation for blurring an image with a Gaussian blur of any standard deviation. The blur is
+   * computed recursively, so its cost does not depend on sigma.
+   *
+   * @param sigma standard deviation of the Gaussian in pixels.
+   * @param image image which should be blurred.
+   * @return resulting image.
+   */
+  Image applyGaussianBlur(float sigma, Image image);
+
+  /**
+   * Operation for denoising an image with a median filter, which replaces every color channel
+   * with its median over a square window around each pixel. The cost does not depend on the
+   * size of the window.
+   *
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param image image which should be filtered.
+   * @return resulting image.
+   */
+  Image applyMedianFilter(int radius, Image image);
+
   /**
    * Operation for drawing a checkerboard pattern from scratch. A checkerboard is always square
    * in shape, and so are the units making up the square.
@@ -1,46 +1,379 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import dto.image.BufferedCanvas;
 import dto.image.Canvas;
+import dto.image.FloatCanvas;
 import dto.image.Image;
 import dto.image.Image2D;
+import dto.image.MappedCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
 import enums.FlagEnum;
 import model.draw.Draw;
 import model.draw.DrawImpl;
 import model.image.ImageModel;
 import model.image.ImageModelImpl;
 import model.image.filter.ConvolutionalFilter2D;
+import model.image.filter.FilterComposition;
+import model.image.filter.MedianFilter2D;
 import model.image.filter.SimpleProductFilter2D;
 import model.image.transform.ColorTransform;
 import model.image.transform.FloatingTransform2D;
-import model.utils.Util;
+import model.image.transform.TransformComposition;
 
 /**
  * Concrete implementation of {@link Model} interface. Used composition to delegate operations to
  * appropriate model objects.
+ *
+ * <p>Filters and color transforms work on a planar view of the image data, see
+ * {@link PlanarCanvas}. The resulting images stay planar, so a chain of such operations converts
+ * the data only once; the IO layer reads them back pixel by pixel like any other canvas.
+ * Subclasses can choose a different storage by overriding {@link #getWorkingCanvas(Canvas)}.</p>
+ *
+ * <p>In high precision mode, images are processed in a {@link FloatCanvas} instead, so that a
+ * chain of operations keeps the fractional part of its results and is only quantized when the
+ * final image is written or displayed.</p>
+ *
+ * <p>Front ends which display every result can ask for results in display storage, see
+ * {@link #setDisplayResults(boolean)}. Operations then work on a {@link BufferedCanvas}, whose
+ * pixels are already those of an AWT image, so showing a result needs no copy.</p>
  */
 public class ModelImpl implements Model {
+
+  /**
+   * Default size of the largest filter that a chain of filters is composed into. Composed
+   * filters round their results once instead of after every filter, so they may differ from the
+   * chain by a step; by default every filter is therefore applied on its own.
+   */
+  public static final int DEFAULT_MAX_FUSED_FILTER_SIZE = 1;
+
   private ImageModel imageModel;
   private Draw drawObj;
+  private boolean highPrecision;
+  private boolean fixedPoint;
+  private int parallelism;
+  private int maxFusedFilterSize = DEFAULT_MAX_FUSED_FILTER_SIZE;
+  private BorderEnum border = BorderEnum.ZERO;
+  private boolean displayResults;
 
   public ModelImpl() {
-    imageModel = new ImageModelImpl();
+    this(false);
+  }
+
+  /**
+   * Instantiates a new model impl object.
+   *
+   * @param highPrecision true to process images with high precision channels.
+   */
+  public ModelImpl(boolean highPrecision) {
+    this(highPrecision, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates a new model impl object which applies filters on at most the given number of
+   * threads.
+   *
+   * @param highPrecision true to process images with high precision channels.
+   * @param parallelism maximum number of threads used by an operation.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ModelImpl(boolean highPrecision, int parallelism) throws IllegalArgumentException {
+    this(highPrecision, parallelism, false);
+  }
+
+  /**
+   * Instantiates a new model impl object which applies filters on at most the given number of
+   * threads, and optionally applies filters and color transforms to 8-bit images in fixed point,
+   * see {@link ImageModelImpl#ImageModelImpl(int, boolean)}.
+   *
+   * @param highPrecision true to process images with high precision channels.
+   * @param parallelism maximum number of threads used by an operation.
+   * @param fixedPoint true to use scaled integer arithmetic for 8-bit images.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ModelImpl(boolean highPrecision, int parallelism, boolean fixedPoint)
+          throws IllegalArgumentException {
+    imageModel = new ImageModelImpl(parallelism, fixedPoint);
     drawObj = new DrawImpl();
+    this.highPrecision = highPrecision;
+    this.fixedPoint = fixedPoint;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Checks whether this model processes images with high precision channels.
+   *
+   * @return true in high precision mode, false otherwise.
+   */
+  public boolean isHighPrecision() {
+    return highPrecision;
+  }
+
+  /**
+   * Checks whether this model applies filters and color transforms to 8-bit images in fixed
+   * point.
+   *
+   * @return true in fixed point mode, false otherwise.
+   */
+  public boolean isFixedPoint() {
+    return fixedPoint;
+  }
+
+  /**
+   * Provides the maximum number of threads used by an operation of this model.
+   *
+   * @return parallelism of the model.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Provides the size of the largest filter that {@link #applyFilters(List, Image)} composes a
+   * chain of filters into.
+   *
+   * @return maximum number of rows of a composed filter.
+   */
+  public int getMaxFusedFilterSize() {
+    return maxFusedFilterSize;
+  }
+
+  /**
+   * Sets the size of the largest filter that {@link #applyFilters(List, Image)} composes a chain
+   * of filters into. Larger budgets save more passes over the image, but every pass gets more
+   * expensive. A budget of 1, the default, applies every filter on its own.
+   *
+   * @param size maximum number of rows of a composed filter.
+   * @throws IllegalArgumentException if the size is not positive.
+   */
+  public void setMaxFusedFilterSize(int size) throws IllegalArgumentException {
+    if (size < 1) {
+      throw new IllegalArgumentException("Fused filter size must be positive!");
+    }
+
+    this.maxFusedFilterSize = size;
+  }
+
+  /**
+   * Provides how filters take the pixels outside of an image at its borders.
+   *
+   * @return border mode of the filters.
+   */
+  public BorderEnum getBorder() {
+    return border;
+  }
+
+  /**
+   * Sets how filters take the pixels outside of an image at its borders. Defaults to
+   * {@link BorderEnum#ZERO}, which darkens the edges of a blurred image; the other modes keep
+   * them.
+   *
+   * @param border border mode of the filters.
+   * @throws IllegalArgumentException if the border mode is null.
+   */
+  public void setBorder(BorderEnum border) throws IllegalArgumentException {
+    if (border == null) {
+      throw new IllegalArgumentException("Border mode cannot be null!");
+    }
+
+    this.border = border;
+  }
+
+  /**
+   * Checks whether the results of filters and color transforms are kept in display storage.
+   *
+   * @return true if results are kept in a {@link BufferedCanvas}, false otherwise.
+   */
+  public boolean isDisplayResults() {
+    return displayResults;
+  }
+
+  /**
+   * Sets whether the results of filters and color transforms are kept in a
+   * {@link BufferedCanvas}, which can be displayed without copying its pixels. Interactive front
+   * ends, which display every result, should turn this on; the operations then work on packed
+   * pixels instead of planes. High precision images and images backed by a file keep their
+   * storage, and are still copied for display.
+   *
+   * @param displayResults true to keep results in display storage.
+   */
+  public void setDisplayResults(boolean displayResults) {
+    this.displayResults = displayResults;
   }
 
   @Override
   public Image applyTransform(float[][] transformArr, Image image) {
     ColorTransform colorTransform = new FloatingTransform2D(transformArr);
-    Canvas duplicateCanvas = Util.duplicateCanvas(image.getData());
-    return new Image2D(imageModel.applyTransformer(colorTransform, duplicateCanvas),
-            image.getBaseImageColorType(), image.getBaseImageType());
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    Canvas transformed = imageModel.applyTransformer(colorTransform, workingCanvas);
+    releaseWorkingCanvas(workingCanvas, image.getData());
+    return new Image2D(transformed, image.getBaseImageColorType(), image.getBaseImageType());
   }
 
   @Override
   public Image applyFilter(float[][] filterArr, Image image) {
     ConvolutionalFilter2D convolutionalFilter2D = new SimpleProductFilter2D(filterArr);
-    Canvas duplicateCanvas = Util.duplicateCanvas(image.getData());
-    return new Image2D(imageModel.applyFilter(convolutionalFilter2D, duplicateCanvas),
-            image.getBaseImageColorType(), image.getBaseImageType());
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    Canvas filtered = imageModel.applyFilter(convolutionalFilter2D, workingCanvas, border);
+    releaseWorkingCanvas(workingCanvas, image.getData());
+    return new Image2D(filtered, image.getBaseImageColorType(), image.getBaseImageType());
+  }
+
+  /**
+   * Applies a chain of color transforms. Consecutive transforms are composed by multiplying their
+   * matrices, see {@link TransformComposition}, and every composed transform is applied in a
+   * single pass. A transform is only composed with the next one if its results can never leave
+   * the range of a channel, like greyscale, since the chain would clamp them. Intermediate
+   * images are released right away.
+   *
+   * @param transforms 2-d floating point arrays of the transforms to apply, in order.
+   * @param image image on which the transforms should be applied.
+   * @return resulting image.
+   */
+  @Override
+  public Image applyTransforms(List<float[][]> transforms, Image image) {
+    Image result = image;
+    for (float[][] transform : composeTransforms(transforms)) {
+      Image transformed = applyTransform(transform, result);
+      if (result != image) {
+        result.getData().release();
+      }
+      result = transformed;
+    }
+
+    return result;
+  }
+
+  /**
+   * Applies a chain of color transforms like {@link #applyTransforms(List, Image)}, but every
+   * composed transform overwrites the working canvas instead of allocating a new one. The
+   * working canvas is the data of the input image itself unless it first has to be converted,
+   * see {@link #getWorkingCanvas(Canvas)}, so a chain on a planar image keeps a single copy of
+   * the pixels. Pixels the data shares with duplicates of the input are copied before they are
+   * overwritten, so duplicates are not affected.
+   *
+   * @param transforms 2-d floating point arrays of the transforms to apply, in order.
+   * @param image image on which the transforms should be applied, which is consumed.
+   * @return resulting image.
+   */
+  @Override
+  public Image applyTransformsInPlace(List<float[][]> transforms, Image image) {
+    List<float[][]> composed = composeTransforms(transforms);
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    for (float[][] transform : composed) {
+      imageModel.applyTransformerInPlace(new FloatingTransform2D(transform), workingCanvas);
+    }
+
+    return new Image2D(workingCanvas, image.getBaseImageColorType(), image.getBaseImageType());
+  }
+
+  /**
+   * Helper method to compose consecutive color transforms of a chain, see
+   * {@link #applyTransforms(List, Image)}.
+   *
+   * @param transforms 2-d floating point arrays of the transforms, in order.
+   * @return composed transforms, in order.
+   * @throws IllegalArgumentException if the chain is null or empty.
+   */
+  private static List<float[][]> composeTransforms(List<float[][]> transforms)
+          throws IllegalArgumentException {
+    if (transforms == null || transforms.isEmpty()) {
+      throw new IllegalArgumentException("Transforms cannot be null/empty");
+    }
+
+    List<float[][]> composed = new ArrayList<>();
+    float[][] current = null;
+    for (float[][] transform : transforms) {
+      if (current != null && TransformComposition.keepsRange(current)) {
+        current = TransformComposition.compose(current, transform);
+        continue;
+      }
+
+      if (current != null) {
+        composed.add(current);
+      }
+      current = transform;
+    }
+    composed.add(current);
+    return composed;
+  }
+
+  /**
+   * Applies a chain of filters. Consecutive filters are composed, see {@link FilterComposition},
+   * as long as the composed filter is no larger than {@link #getMaxFusedFilterSize()}, and every
+   * composed filter is applied in a single pass. A filter is only composed with the next one if
+   * its results can never leave the range of a channel, like a blur, since the chain would clamp
+   * them, and if the composed filter is estimated to be cheaper than the two passes it replaces.
+   * Intermediate images are released right away.
+   *
+   * @param filters 2d filters to be applied, in order.
+   * @param image image on which the filters should be applied.
+   * @return resulting image.
+   */
+  @Override
+  public Image applyFilters(List<float[][]> filters, Image image) {
+    if (filters == null || filters.isEmpty()) {
+      throw new IllegalArgumentException("Filters cannot be null/empty");
+    }
+
+    List<float[][]> fused = new ArrayList<>();
+    float[][] current = null;
+    for (float[][] filter : filters) {
+      if (current != null && FilterComposition.keepsRange(current)
+              && FilterComposition.composedSize(current, filter) <= maxFusedFilterSize) {
+        float[][] composed = FilterComposition.compose(current, filter);
+        if (FilterComposition.cost(composed)
+                <= FilterComposition.cost(current) + FilterComposition.cost(filter)) {
+          current = composed;
+          continue;
+        }
+      }
+
+      if (current != null) {
+        fused.add(current);
+      }
+      current = filter;
+    }
+    fused.add(current);
+
+    Image result = image;
+    for (float[][] filter : fused) {
+      Image filtered = applyFilter(filter, result);
+      if (result != image) {
+        result.getData().release();
+      }
+      result = filtered;
+    }
+
+    return result;
+  }
+
+  @Override
+  public Image applyBoxBlur(int radius, int passes, Image image) {
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    Canvas blurred = imageModel.applyBoxBlur(radius, passes, workingCanvas);
+    releaseWorkingCanvas(workingCanvas, image.getData());
+    return new Image2D(blurred, image.getBaseImageColorType(), image.getBaseImageType());
+  }
+
+  @Override
+  public Image applyGaussianBlur(float sigma, Image image) {
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    Canvas blurred = imageModel.applyGaussianBlur(sigma, workingCanvas);
+    releaseWorkingCanvas(workingCanvas, image.getData());
+    return new Image2D(blurred, image.getBaseImageColorType(), image.getBaseImageType());
+  }
+
+  @Override
+  public Image applyMedianFilter(int radius, Image image) {
+    MedianFilter2D medianFilter = new MedianFilter2D(radius);
+    Canvas workingCanvas = getWorkingCanvas(image.getData());
+    Canvas filtered = imageModel.applyNonLinearFilter(medianFilter, workingCanvas);
+    releaseWorkingCanvas(workingCanvas, image.getData());
+    return new Image2D(filtered, image.getBaseImageColorType(), image.getBaseImageType());
   }
 
   @Override
@@ -58,4 +391,44 @@ public class ModelImpl implements Model {
   public Image drawFlag(FlagEnum countryName, int flagWidth) {
     return drawObj.drawFlag(countryName, flagWidth);
   }
+
+  /**
+   * Provides the canvas that filters and color transforms read from. The operations never
+   * modify it, and their output uses the same storage as this canvas. By default this is a
+   * planar view of the image data, or a high precision copy in high precision mode, or a
+   * {@link BufferedCanvas} if results are kept in display storage. Images backed by a file are
+   * used as they are, since they may not fit on the heap, and high precision images are kept as
+   * they are so that they do not lose their precision.
+   *
+   * @param canvas data of the input image.
+   * @return canvas holding the same pixels as the input.
+   */
+  protected Canvas getWorkingCanvas(Canvas canvas) {
+    if (canvas instanceof MappedCanvas || canvas instanceof FloatCanvas) {
+      return canvas;
+    }
+
+    if (highPrecision) {
+      return FloatCanvas.of(canvas);
+    }
+
+    if (displayResults) {
+      return BufferedCanvas.of(canvas);
+    }
+
+    return PlanarCanvas.of(canvas);
+  }
+
+  /**
+   * Releases a working canvas once an operation is done with it, unless it is the data of the
+   * input image itself.
+   *
+   * @param workingCanvas canvas used by the operation.
+   * @param original data of the input image.
+   */
+  protected void releaseWorkingCanvas(Canvas workingCanvas, Canvas original) {
+    if (workingCanvas != original) {
+      workingCanvas.release();
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package model.draw.drawable;
 
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 import dto.image.Canvas;
 
 /**
@@ -24,14 +25,22 @@ public class Rectangle extends ShapeDrawable {
   @Override
   public void draw(Canvas canvas) {
     // logic to draw a Rectangle on the canvas.
+    int argb = PackedColor.fromColor(color);
+    int rowEnd = centerX + width;
     for (int i = centerY; i < centerY + height; i++) {
-      for (int j = centerX; j < centerX + width; j++) {
-        if (canvas.isWithinBounds(i, j)) {
-          canvas.setPixel(i, j, color);
-        } else {
-          throw new IllegalStateException(String.format("Canvas too small to draw image on "
-                  + "indices: height = %s and width = %s", i, j));
-        }
+      // the row is drawn up to the first column which does not fit onto the canvas.
+      int drawEnd = centerX;
+      if (i >= 0 && i < canvas.getHeight() && centerX >= 0) {
+        drawEnd = Math.max(centerX, Math.min(rowEnd, canvas.getWidth()));
+      }
+
+      if (drawEnd > centerX) {
+        canvas.fillSpan(i, centerX, drawEnd, argb);
+      }
+
+      if (drawEnd < rowEnd) {
+        throw new IllegalStateException(String.format("Canvas too small to draw image on "
+                + "indices: height = %s and width = %s", i, drawEnd));
       }
     }
   }
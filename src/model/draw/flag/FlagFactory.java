@@ -1,7 +1,7 @@
 package model.draw.flag;
 
 import dto.color.BaseColor;
-import dto.color.ColorImpl;
+import dto.color.ColorCache;
 import enums.FlagEnum;
 import model.draw.drawable.Drawable;
 import model.draw.drawable.Rectangle;
@@ -37,9 +37,9 @@ class FlagFactory {
   private static FlagDetails createFlagOfFrance() {
     FlagDetails flag = new FlagDetailsImpl(100, 1.5);
 
-    BaseColor blue = new ColorImpl(new int[]{0, 85, 164, 255});
-    BaseColor white = new ColorImpl(new int[]{255, 255, 255, 255});
-    BaseColor red = new ColorImpl(new int[]{239, 65, 53, 255});
+    BaseColor blue = ColorCache.getColor(new int[]{0, 85, 164, 255});
+    BaseColor white = ColorCache.getColor(new int[]{255, 255, 255, 255});
+    BaseColor red = ColorCache.getColor(new int[]{239, 65, 53, 255});
 
     flag.addDrawable(createRectangle(0, 0, 30, flag.getBaseHeight(), blue));
     flag.addDrawable(createRectangle(30, 0, 33, flag.getBaseHeight(), white));
@@ -55,8 +55,8 @@ class FlagFactory {
    */
   private static FlagDetails createFlagOfGreece() {
     FlagDetails flag = new FlagDetailsImpl(27, 1.5);
-    BaseColor blue = new ColorImpl(new int[]{0, 91, 174, 255});
-    BaseColor white = new ColorImpl(new int[]{255, 255, 255, 255});
+    BaseColor blue = ColorCache.getColor(new int[]{0, 91, 174, 255});
+    BaseColor white = ColorCache.getColor(new int[]{255, 255, 255, 255});
 
     for (int i = 0; i < 9; i++) {
       if (i % 2 == 0) {
@@ -85,8 +85,8 @@ class FlagFactory {
    */
   private static FlagDetailsImpl createFlagOfSwitzerland() {
     FlagDetailsImpl flag = new FlagDetailsImpl(32, 1);
-    BaseColor red = new ColorImpl(new int[]{255, 0, 0, 255});
-    BaseColor white = new ColorImpl(new int[]{255, 255, 255, 255});
+    BaseColor red = ColorCache.getColor(new int[]{255, 0, 0, 255});
+    BaseColor white = ColorCache.getColor(new int[]{255, 255, 255, 255});
 
     flag.addDrawable(createRectangle(0, 0, 32, flag.getBaseHeight(), red));
 
@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import dto.color.BaseColor;
-import dto.color.ColorImpl;
+import dto.color.ColorCache;
 import dto.image.Canvas;
 import dto.image.Image;
 import dto.image.Image2D;
@@ -43,10 +43,10 @@ public class CheckerBoard implements Pattern {
     this.checkerboard = new Image2D(new Canvas(outerSquareSize, outerSquareSize), 3, "png");
 
     int[] blackColor = {0, 0, 0, 255};
-    this.checkerBoardColor = new ColorImpl(blackColor);
+    this.checkerBoardColor = ColorCache.getColor(blackColor);
 
     int[] whiteColor = {255, 255, 255, 255};
-    this.boardColor = new ColorImpl(whiteColor);
+    this.boardColor = ColorCache.getColor(whiteColor);
   }
 
   @Override
@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import dto.color.BaseColor;
-import dto.color.ColorImpl;
+import dto.color.ColorCache;
 import dto.image.Canvas;
 import dto.image.Image;
 import dto.image.Image2D;
@@ -60,7 +60,7 @@ public class Rainbow implements Pattern {
     this.orientation = orientation;
     this.repeat = repeat;
     this.rainbow = new Image2D(new Canvas(height, width), 3, "png");
-    this.emptySpace = new ColorImpl(new int[]{255, 255, 255, 255});
+    this.emptySpace = ColorCache.getColor(new int[]{255, 255, 255, 255});
     this.colorMap = RainbowColors.getRainbowMap();
   }
 
@@ -0,0 +1,104 @@
+package model.image;
+
+import enums.BorderEnum;
+
+/**
+ * Maps positions outside of an image to the pixels standing in for them, according to a
+ * {@link BorderEnum}, and pads row buffers accordingly.
+ *
+ * <p>The filters read every source row into a buffer which is padded on both sides, so the loops
+ * computing the filtered pixels never check bounds. Only the padding, and rows above or below the
+ * image, go through {@link #map(BorderEnum, int, int)}.</p>
+ */
+final class Borders {
+
+  private Borders() {
+  }
+
+  /**
+   * Maps a position along one dimension of an image to the position of the pixel standing in
+   * for it.
+   *
+   * @param border border mode.
+   * @param index position, may be outside of the image.
+   * @param length size of the image along the dimension.
+   * @return position inside of the image, or -1 if the position stands for a zero pixel.
+   */
+  static int map(BorderEnum border, int index, int length) {
+    if (index >= 0 && index < length) {
+      return index;
+    }
+
+    switch (border) {
+      case CLAMP:
+        return index < 0 ? 0 : length - 1;
+      case MIRROR:
+        int period = Math.floorMod(index, 2 * length);
+        return period < length ? period : 2 * length - 1 - period;
+      case WRAP:
+        return Math.floorMod(index, length);
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Fills the padding on both sides of a row held in a buffer.
+   *
+   * @param buffer row buffer.
+   * @param offset index in the buffer of the first pixel of the row.
+   * @param length number of pixels of the row.
+   * @param border border mode.
+   * @param zero value of a zero pixel.
+   */
+  static void pad(int[] buffer, int offset, int length, BorderEnum border, int zero) {
+    for (int i = 0; i < offset; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+    for (int i = offset + length; i < buffer.length; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+  }
+
+  /**
+   * Fills the padding on both sides of a row held in a buffer.
+   *
+   * @param buffer row buffer.
+   * @param offset index in the buffer of the first sample of the row.
+   * @param length number of samples of the row.
+   * @param border border mode.
+   * @param zero value of a zero sample.
+   */
+  static void pad(float[] buffer, int offset, int length, BorderEnum border, float zero) {
+    for (int i = 0; i < offset; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+    for (int i = offset + length; i < buffer.length; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+  }
+
+  /**
+   * Fills the padding on both sides of a row held in a buffer.
+   *
+   * @param buffer row buffer.
+   * @param offset index in the buffer of the first sample of the row.
+   * @param length number of samples of the row.
+   * @param border border mode.
+   * @param zero value of a zero sample.
+   */
+  static void pad(double[] buffer, int offset, int length, BorderEnum border, double zero) {
+    for (int i = 0; i < offset; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+    for (int i = offset + length; i < buffer.length; i++) {
+      int source = map(border, i - offset, length);
+      buffer[i] = source < 0 ? zero : buffer[offset + source];
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package model.image;
+
+import dto.image.Canvas;
+
+/**
+ * Box blur which replaces every color channel with the mean of the same channel over a square
+ * window of {@code 2 * radius + 1} pixels on each side. The blur is applied as a horizontal
+ * pass followed by a vertical pass, each keeping a running sum which is updated by one pixel
+ * entering and one pixel leaving the window, so the cost per pixel does not depend on the
+ * radius.
+ *
+ * <p>Windows reaching outside of the image only average over the pixels inside of it, so the
+ * edges do not darken. The alpha of every pixel is kept as it is.</p>
+ *
+ * <p>Repeating the blur makes the weights of the window approach a Gaussian bell. Three passes
+ * with radius r already come close to a Gaussian blur with a standard deviation of
+ * {@code sqrt(3 * ((2r + 1)^2 - 1) / 12)}.</p>
+ *
+ * <p>The image is streamed instead of being held in float planes, so images outside of the heap
+ * can be blurred in any size. The horizontal pass reads bands of rows into an intermediate
+ * canvas of the same kind as the image, and the vertical pass walks strips of columns of it
+ * down the image, keeping a running sum per column of the strip. The sums are computed in
+ * floating point, and the results of every pass are stored like the image itself, so they are
+ * rounded unless the image has high precision.</p>
+ */
+class BoxBlur {
+
+  private BoxBlur() {
+  }
+
+  /**
+   * Blurs the color channels of an image.
+   *
+   * @param canvas image data, which is not modified.
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   * @param executor executor running the passes.
+   * @return canvas of the same kind as the input holding the blurred image.
+   */
+  static Canvas apply(Canvas canvas, int radius, int passes, RowBandExecutor executor) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    Canvas rows = canvas.createCompatibleCanvas(height, width);
+    Canvas output = canvas.createCompatibleCanvas(height, width);
+
+    Canvas source = canvas;
+    for (int pass = 0; pass < passes; pass++) {
+      Canvas input = source;
+      executor.forEachBand(height, width, (rowStart, rowEnd) ->
+              blurRows(canvas, input, rows, radius, rowStart, rowEnd));
+      executor.forEachBand(width, height, (columnStart, columnEnd) ->
+              blurColumns(canvas, rows, output, radius, columnStart, columnEnd));
+      source = output;
+    }
+
+    rows.release();
+    return output;
+  }
+
+  /**
+   * Helper method to compute the horizontal means of a band of rows.
+   *
+   * @param canvas input image data, providing the alpha.
+   * @param source image data to be blurred.
+   * @param target canvas receiving the means.
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void blurRows(Canvas canvas, Canvas source, Canvas target, int radius,
+                               int rowStart, int rowEnd) {
+    int width = canvas.getWidth();
+    int initial = Math.min(radius, width - 1) + 1;
+    int[] row = new int[width];
+    float[][] channels = new float[3][width];
+    float[][] means = new float[3][width];
+
+    for (int y = rowStart; y < rowEnd; y++) {
+      ColorPlanes.readSpan(source, y, 0, width, channels, 0, row);
+      for (int channel = 0; channel < 3; channel++) {
+        float[] values = channels[channel];
+        float[] result = means[channel];
+        double sum = 0;
+        for (int x = 0; x < initial; x++) {
+          sum += values[x];
+        }
+
+        int count = initial;
+        for (int x = 0; x < width; x++) {
+          result[x] = (float) (sum / count);
+          if (x + radius + 1 < width) {
+            sum += values[x + radius + 1];
+            count++;
+          }
+          if (x - radius >= 0) {
+            sum -= values[x - radius];
+            count--;
+          }
+        }
+      }
+      ColorPlanes.writeSpan(canvas, target, y, 0, width, means, 0, row);
+    }
+  }
+
+  /**
+   * Helper method to compute the vertical means of a strip of columns. The strip is walked down
+   * the image with a running sum per column, reading the row entering and the row leaving the
+   * window of every output row.
+   *
+   * @param canvas input image data, providing the alpha.
+   * @param source image data to be blurred.
+   * @param target canvas receiving the means.
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param columnStart first column of the strip, inclusive.
+   * @param columnEnd last column of the strip, exclusive.
+   */
+  private static void blurColumns(Canvas canvas, Canvas source, Canvas target, int radius,
+                                  int columnStart, int columnEnd) {
+    int height = canvas.getHeight();
+    int columns = columnEnd - columnStart;
+    int initial = Math.min(radius, height - 1) + 1;
+    int[] row = new int[columns];
+    float[][] channels = new float[3][columns];
+    float[][] means = new float[3][columns];
+    double[][] sums = new double[3][columns];
+
+    for (int y = 0; y < initial; y++) {
+      addRow(source, y, columnStart, columnEnd, channels, row, sums, 1);
+    }
+
+    int count = initial;
+    for (int y = 0; y < height; y++) {
+      for (int channel = 0; channel < 3; channel++) {
+        for (int x = 0; x < columns; x++) {
+          means[channel][x] = (float) (sums[channel][x] / count);
+        }
+      }
+      ColorPlanes.writeSpan(canvas, target, y, columnStart, columnEnd, means, 0, row);
+
+      if (y + radius + 1 < height) {
+        addRow(source, y + radius + 1, columnStart, columnEnd, channels, row, sums, 1);
+        count++;
+      }
+      if (y - radius >= 0) {
+        addRow(source, y - radius, columnStart, columnEnd, channels, row, sums, -1);
+        count--;
+      }
+    }
+  }
+
+  /**
+   * Helper method to add or subtract a span of a row to the running sums.
+   *
+   * @param source image data to be blurred.
+   * @param y row of the span.
+   * @param columnStart first column of the span, inclusive.
+   * @param columnEnd last column of the span, exclusive.
+   * @param channels scratch buffers for the color channels of the span.
+   * @param row scratch buffer for the packed pixels of the span.
+   * @param sums running sums, one per channel and column of the span.
+   * @param sign 1 to add the span, -1 to subtract it.
+   */
+  private static void addRow(Canvas source, int y, int columnStart, int columnEnd,
+                             float[][] channels, int[] row, double[][] sums, int sign) {
+    ColorPlanes.readSpan(source, y, columnStart, columnEnd, channels, 0, row);
+    for (int channel = 0; channel < 3; channel++) {
+      float[] values = channels[channel];
+      double[] channelSums = sums[channel];
+      for (int x = 0; x < values.length; x++) {
+        channelSums[x] += sign * values[x];
+      }
+    }
+  }
+}
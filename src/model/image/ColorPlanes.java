@@ -0,0 +1,90 @@
+package model.image;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+
+/**
+ * Converts the color channels of any kind of canvas to float buffers and back, for the blurs
+ * which work on float channels, see {@link BoxBlur} and {@link RecursiveGaussian}. The alpha
+ * channel is not converted, it is copied from the input when the result is written.
+ *
+ * <p>Only a part of a row is converted at a time, so that images of any size, including those
+ * outside of the heap, can be streamed through small buffers.</p>
+ */
+final class ColorPlanes {
+
+  private ColorPlanes() {
+  }
+
+  /**
+   * Reads the color channels of the columns {@code [x0, x1)} of a row into float buffers. High
+   * precision canvases provide their channels as they are, all other canvases their 8-bit
+   * values.
+   *
+   * @param canvas image data.
+   * @param y row to be read.
+   * @param x0 first column, inclusive.
+   * @param x1 last column, exclusive.
+   * @param channels red, green and blue buffers receiving the span.
+   * @param offset index in the buffers of the first pixel of the span.
+   * @param row scratch buffer holding at least {@code x1 - x0} packed pixels.
+   */
+  static void readSpan(Canvas canvas, int y, int x0, int x1, float[][] channels, int offset,
+                       int[] row) {
+    if (canvas instanceof FloatCanvas) {
+      int index = y * canvas.getWidth() + x0;
+      for (int channel = 0; channel < 3; channel++) {
+        System.arraycopy(((FloatCanvas) canvas).getPlane(channel), index, channels[channel],
+                offset, x1 - x0);
+      }
+      return;
+    }
+
+    canvas.readSpan(y, x0, x1, row, 0);
+    for (int x = 0; x < x1 - x0; x++) {
+      for (int channel = 0; channel < 3; channel++) {
+        channels[channel][offset + x] = PackedColor.channel(row[x], channel);
+      }
+    }
+  }
+
+  /**
+   * Writes processed color channels to the columns {@code [x0, x1)} of a row, along with the
+   * alpha of the same pixels of the input. High precision canvases receive the values clamped to
+   * [0, 255], all other canvases the values rounded to the nearest integer and clamped.
+   *
+   * @param canvas input image data, providing the alpha.
+   * @param output canvas receiving the span, of the same kind as the input.
+   * @param y row to be written.
+   * @param x0 first column, inclusive.
+   * @param x1 last column, exclusive.
+   * @param channels processed red, green and blue values.
+   * @param offset index in the buffers of the first pixel of the span.
+   * @param row scratch buffer holding at least {@code x1 - x0} packed pixels.
+   */
+  static void writeSpan(Canvas canvas, Canvas output, int y, int x0, int x1, float[][] channels,
+                        int offset, int[] row) {
+    if (output instanceof FloatCanvas) {
+      int index = y * output.getWidth() + x0;
+      for (int channel = 0; channel < 3; channel++) {
+        float[] plane = ((FloatCanvas) output).getPlane(channel);
+        float[] values = channels[channel];
+        for (int x = 0; x < x1 - x0; x++) {
+          plane[index + x] = Math.min(255, Math.max(0, values[offset + x]));
+        }
+      }
+      System.arraycopy(((FloatCanvas) canvas).getPlane(3), index,
+              ((FloatCanvas) output).getPlane(3), index, x1 - x0);
+      return;
+    }
+
+    canvas.readSpan(y, x0, x1, row, 0);
+    for (int x = 0; x < x1 - x0; x++) {
+      row[x] = PackedColor.packClamped(Math.round(channels[0][offset + x]),
+              Math.round(channels[1][offset + x]), Math.round(channels[2][offset + x]),
+              PackedColor.alpha(row[x]));
+    }
+    output.writeSpan(y, x0, x1, row, 0);
+  }
+}
@@ -16,6 +16,36 @@ import model.image.transform.FloatingTransform2D;
  */
 public class ExtendedImageModelImpl extends ImageModelImpl implements ExtendedImageModel {
 
+  /**
+   * Instantiates a new image model which uses all available processors.
+   */
+  public ExtendedImageModelImpl() {
+    super();
+  }
+
+  /**
+   * Instantiates a new image model which uses the given number of threads.
+   *
+   * @param parallelism maximum number of threads used by an operation.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ExtendedImageModelImpl(int parallelism) throws IllegalArgumentException {
+    super(parallelism);
+  }
+
+  /**
+   * Instantiates a new image model which uses the given number of threads, and optionally
+   * applies filters and color transforms to 8-bit images in fixed point.
+   *
+   * @param parallelism maximum number of threads used by an operation.
+   * @param fixedPoint true to use scaled integer arithmetic for 8-bit images.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ExtendedImageModelImpl(int parallelism, boolean fixedPoint)
+          throws IllegalArgumentException {
+    super(parallelism, fixedPoint);
+  }
+
   @Override
   public Canvas applyDither(Dither dither, Canvas canvas) {
     if (dither == null) {
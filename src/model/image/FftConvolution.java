@@ -0,0 +1,207 @@
+package model.image;
+
+/**
+ * Applies the weights of a large filter to square tiles of an image in frequency space. A tile
+ * of {@link #getSize()} x {@link #getSize()} source samples is transformed with a radix-2 fast
+ * Fourier transform, multiplied with the precomputed spectrum of the weights and transformed
+ * back. The result is the circular correlation of the tile with the weights, whose first
+ * {@link #getTileSize()} rows and columns are exactly the filter results for the pixels
+ * {@code weights.length / 2} rows and columns below and right of the top left sample.
+ *
+ * <p>The weights are real, so two real channels can be correlated at once by passing one as the
+ * real and the other as the imaginary part of the tile.</p>
+ *
+ * <p>Instances only hold the spectrum and the tables of the transform, and can be shared between
+ * threads.</p>
+ */
+class FftConvolution {
+
+  /**
+   * Largest transform size considered for the tiles. Larger tiles barely lower the cost per
+   * pixel, but need a lot more memory.
+   */
+  private static final int MAX_SIZE = 256;
+
+  private final int size;
+  private final int tileSize;
+  private final int[] reversed;
+  private final double[] cosines;
+  private final double[] sines;
+  private final double[] spectrumRe;
+  private final double[] spectrumIm;
+
+  /**
+   * Prepares the correlation with the given square weights, picking the transform size with the
+   * smallest cost per filtered pixel of an image of the given dimensions.
+   *
+   * @param weights square filter weights.
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   */
+  FftConvolution(float[][] weights, int height, int width) {
+    int kernelSize = weights.length;
+    this.size = chooseSize(kernelSize, Math.max(height, width));
+    this.tileSize = size - kernelSize + 1;
+
+    int bits = Integer.numberOfTrailingZeros(size);
+    this.reversed = new int[size];
+    for (int i = 0; i < size; i++) {
+      reversed[i] = Integer.reverse(i) >>> (Integer.SIZE - bits);
+    }
+
+    this.cosines = new double[size / 2];
+    this.sines = new double[size / 2];
+    for (int i = 0; i < size / 2; i++) {
+      double angle = -2 * Math.PI * i / size;
+      cosines[i] = Math.cos(angle);
+      sines[i] = Math.sin(angle);
+    }
+
+    // correlating with the weights is multiplying with the conjugate of their spectrum.
+    this.spectrumRe = new double[size * size];
+    this.spectrumIm = new double[size * size];
+    for (int i = 0; i < kernelSize; i++) {
+      for (int j = 0; j < kernelSize; j++) {
+        spectrumRe[i * size + j] = weights[i][j];
+      }
+    }
+    transform(spectrumRe, spectrumIm, false);
+    for (int i = 0; i < spectrumIm.length; i++) {
+      spectrumIm[i] = -spectrumIm[i];
+    }
+  }
+
+  /**
+   * Provides the number of rows and columns of a source tile.
+   *
+   * @return size of the transform.
+   */
+  int getSize() {
+    return size;
+  }
+
+  /**
+   * Provides the number of rows and columns of filter results obtained from a source tile.
+   *
+   * @return number of valid results per dimension.
+   */
+  int getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Correlates a source tile with the weights, in place. Both arrays hold the tile in row-major
+   * order and must have {@code getSize() * getSize()} entries.
+   *
+   * @param re real part of the tile, i.e. the first channel.
+   * @param im imaginary part of the tile, i.e. the second channel, or zeros.
+   */
+  void correlate(double[] re, double[] im) {
+    transform(re, im, false);
+    for (int i = 0; i < re.length; i++) {
+      double real = re[i] * spectrumRe[i] - im[i] * spectrumIm[i];
+      im[i] = re[i] * spectrumIm[i] + im[i] * spectrumRe[i];
+      re[i] = real;
+    }
+    transform(re, im, true);
+  }
+
+  /**
+   * Helper method to transform a tile along its rows and then along its columns. The inverse
+   * transform is scaled, so that it undoes the forward transform.
+   *
+   * @param re real part of the tile.
+   * @param im imaginary part of the tile.
+   * @param inverse true for the inverse transform.
+   */
+  private void transform(double[] re, double[] im, boolean inverse) {
+    for (int row = 0; row < size; row++) {
+      transform(re, im, row * size, 1, inverse);
+    }
+
+    for (int column = 0; column < size; column++) {
+      transform(re, im, column, size, inverse);
+    }
+
+    if (inverse) {
+      double scale = 1.0 / ((double) size * size);
+      for (int i = 0; i < re.length; i++) {
+        re[i] *= scale;
+        im[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Helper method to run an iterative radix-2 transform over one row or column of a tile.
+   *
+   * @param re real part of the tile.
+   * @param im imaginary part of the tile.
+   * @param offset index of the first sample.
+   * @param stride distance between two samples.
+   * @param inverse true for the inverse transform, which is not scaled here.
+   */
+  private void transform(double[] re, double[] im, int offset, int stride, boolean inverse) {
+    for (int i = 0; i < size; i++) {
+      int j = reversed[i];
+      if (i < j) {
+        int a = offset + i * stride;
+        int b = offset + j * stride;
+        double swap = re[a];
+        re[a] = re[b];
+        re[b] = swap;
+        swap = im[a];
+        im[a] = im[b];
+        im[b] = swap;
+      }
+    }
+
+    double sign = inverse ? -1 : 1;
+    for (int length = 2; length <= size; length <<= 1) {
+      int half = length >> 1;
+      int step = size / length;
+      for (int start = 0; start < size; start += length) {
+        for (int k = 0; k < half; k++) {
+          double cos = cosines[k * step];
+          double sin = sign * sines[k * step];
+          int a = offset + (start + k) * stride;
+          int b = a + half * stride;
+          double real = re[b] * cos - im[b] * sin;
+          double imaginary = re[b] * sin + im[b] * cos;
+          re[b] = re[a] - real;
+          im[b] = im[a] - imaginary;
+          re[a] += real;
+          im[a] += imaginary;
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to pick the transform size for a kernel size. Transforming a tile of N x N
+   * samples costs about N * N * log(N) operations and yields (N - K + 1) ^ 2 results, so the
+   * power of two with the lowest ratio is used. Tiles are never larger than needed to cover the
+   * whole image at once.
+   *
+   * @param kernelSize number of rows and columns of the weights.
+   * @param imageSize larger dimension of the image.
+   * @return size of the transform.
+   */
+  private static int chooseSize(int kernelSize, int imageSize) {
+    int best = Integer.highestOneBit(kernelSize) << 1;
+    int largest = Math.max(best, Math.min(MAX_SIZE,
+            Integer.highestOneBit(imageSize + kernelSize - 2) << 1));
+    double bestCost = Double.MAX_VALUE;
+    for (int size = best; size <= largest; size <<= 1) {
+      double results = size - kernelSize + 1;
+      double cost = (double) size * size * Integer.numberOfTrailingZeros(size)
+              / (results * results);
+      if (cost < bestCost) {
+        bestCost = cost;
+        best = size;
+      }
+    }
+
+    return best;
+  }
+}
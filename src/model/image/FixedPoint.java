@@ -0,0 +1,90 @@
+package model.image;
+
+/**
+ * Scaled integer arithmetic for filters and color transforms on 8-bit images. Coefficients are
+ * quantized to Q15, i.e. to integers in units of 2^-15, samples are multiplied with them and
+ * summed as ints, and the sums are shifted back to channel values. Integer sums do not depend on
+ * the order in which they are computed, so the results are the same on every JVM and with every
+ * degree of parallelism.
+ *
+ * <p>Rounding a coefficient to Q15 changes it by at most 2^-16, so a result differs from the
+ * exact one by at most {@code 255 * n * 2^-16} for n coefficients, e.g. less than 0.04 for a
+ * 3 x 3 filter. Only results lying that close to a rounding step can end up one step apart from
+ * the floating point ones.</p>
+ *
+ * <p>Filters large enough to be applied in frequency space, see
+ * {@link ImageModelImpl#FFT_KERNEL_SIZE}, are applied there in fixed point mode as well, since
+ * their cost would otherwise grow with the square of their size. Their results are computed in
+ * floating point and therefore do not carry the guarantees above.</p>
+ */
+final class FixedPoint {
+
+  /**
+   * Number of fractional bits of a quantized coefficient.
+   */
+  static final int FRACTION_BITS = 15;
+
+  /**
+   * Added to a sum before it is shifted back to round it to the nearest channel value.
+   */
+  static final int HALF = 1 << (FRACTION_BITS - 1);
+
+  private static final int MAX_SAMPLE = 255;
+
+  private FixedPoint() {
+  }
+
+  /**
+   * Quantizes coefficients to Q15. Sums of the quantized coefficients times 8-bit samples must
+   * fit into an int, including the rounding offset, so coefficients whose magnitudes add up to
+   * about 257 or more are not quantized.
+   *
+   * @param coefficients weights of a filter or matrix of a color transform.
+   * @return quantized coefficients, or null if their sums could overflow.
+   */
+  static int[][] quantize(float[][] coefficients) {
+    int[][] quantized = new int[coefficients.length][];
+    double magnitude = 0;
+    for (int i = 0; i < coefficients.length; i++) {
+      quantized[i] = new int[coefficients[i].length];
+      for (int j = 0; j < coefficients[i].length; j++) {
+        double scaled = Math.rint((double) coefficients[i][j] * (1 << FRACTION_BITS));
+        magnitude += Math.abs(scaled);
+        if (!(magnitude * MAX_SAMPLE + HALF <= Integer.MAX_VALUE)) {
+          return null;
+        }
+        quantized[i][j] = (int) scaled;
+      }
+    }
+
+    return quantized;
+  }
+
+  /**
+   * Adds a weighted run of samples to a run of sums, i.e.
+   * {@code sum[x] += weight * source[x + shift]} for every x from start to end.
+   *
+   * @param source samples.
+   * @param shift offset of the sample of sum x from x.
+   * @param weight quantized weight of the samples.
+   * @param sum sums.
+   * @param start first sum, inclusive.
+   * @param end last sum, exclusive.
+   */
+  static void multiplyAdd(int[] source, int shift, int weight, int[] sum, int start, int end) {
+    for (int x = start; x < end; x++) {
+      sum[x] += weight * source[x + shift];
+    }
+  }
+
+  /**
+   * Converts a sum back to a channel value, clamped to [0, 255].
+   *
+   * @param sum sum of quantized coefficients times samples.
+   * @param rounding 0 to truncate the value, {@link #HALF} to round it to the nearest integer.
+   * @return channel value.
+   */
+  static int toChannel(int sum, int rounding) {
+    return Math.min(MAX_SAMPLE, Math.max(0, (sum + rounding) >> FRACTION_BITS));
+  }
+}
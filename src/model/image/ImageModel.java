@@ -1,7 +1,9 @@
 package model.image;
 
 import dto.image.Canvas;
+import enums.BorderEnum;
 import model.image.filter.ConvolutionalFilter2D;
+import model.image.filter.NonLinearFilter2D;
 import model.image.transform.ColorTransform;
 
 /**
@@ -26,6 +28,17 @@ public interface ImageModel {
    */
   Canvas applyFilter(ConvolutionalFilter2D filter2D, Canvas canvas);
 
+  /**
+   * This method applies filter operations on an input image, taking the pixels outside of the
+   * image that the filter reaches at the borders according to the given border mode.
+   *
+   * @param filter2D to apply
+   * @param canvas to apply on
+   * @param border how pixels outside of the image are taken
+   * @return resultant image
+   */
+  Canvas applyFilter(ConvolutionalFilter2D filter2D, Canvas canvas, BorderEnum border);
+
   /**
    * This method applies color transformations on an input image. This method applies the
    * transformation on the pixel channels.
@@ -35,4 +48,46 @@ public interface ImageModel {
    * @return Image
    */
   Canvas applyTransformer(ColorTransform colorTransformer, Canvas canvas);
+
+  /**
+   * This method applies color transformations on an input image in place, overwriting its
+   * pixels instead of allocating a new image.
+   *
+   * @param colorTransformer to be applied
+   * @param canvas input, which is overwritten
+   * @return the input canvas
+   */
+  Canvas applyTransformerInPlace(ColorTransform colorTransformer, Canvas canvas);
+
+  /**
+   * This method blurs an input image with a box blur, i.e. every color channel becomes the mean
+   * of the same channel over a square window around the pixel. The cost per pixel does not
+   * depend on the radius. Repeating the blur approximates a Gaussian blur.
+   *
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   * @param canvas input
+   * @return blurred image
+   */
+  Canvas applyBoxBlur(int radius, int passes, Canvas canvas);
+
+  /**
+   * This method blurs an input image with a Gaussian blur of the given standard deviation. The
+   * cost per pixel does not depend on sigma.
+   *
+   * @param sigma standard deviation of the Gaussian in pixels
+   * @param canvas input
+   * @return blurred image
+   */
+  Canvas applyGaussianBlur(float sigma, Canvas canvas);
+
+  /**
+   * This method applies a non-linear filter, e.g. a median filter, on an input image. The filter
+   * is applied to every color channel, and the alpha channel is kept.
+   *
+   * @param filter to apply
+   * @param canvas to apply on
+   * @return resultant image
+   */
+  Canvas applyNonLinearFilter(NonLinearFilter2D filter, Canvas canvas);
 }
@@ -1,29 +1,166 @@
 package model.image;
 
-import dto.color.BaseColor;
-import dto.color.ColorImpl;
+import java.util.Arrays;
+
+import dto.color.PackedColor;
 import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
 import model.image.filter.ConvolutionalFilter2D;
+import model.image.filter.NonLinearFilter2D;
+import model.image.filter.RowKernel;
+import model.image.transform.ColorLookupTable;
 import model.image.transform.ColorTransform;
 
 /**
  * Concrete implementation of {@link ImageModel} interface. This class provides stateless
  * operations on the input image, as defined by the {@link ImageModel} interface.
+ *
+ * <p>Filters are applied on several threads for large images. The number of threads is set
+ * when the model is created, and defaults to the number of available processors.</p>
+ *
+ * <p>Models created in fixed point mode apply filters and color transforms to 8-bit images with
+ * scaled integer arithmetic, see {@link FixedPoint}, which is faster and gives the same results
+ * on every JVM. High precision images are always processed in floating point.</p>
  */
 public class ImageModelImpl implements ImageModel {
 
+  /**
+   * Number of pixels from which filters are applied on several threads.
+   */
+  public static final long PARALLEL_THRESHOLD = RowBandExecutor.PARALLEL_THRESHOLD;
+
+  /**
+   * Size from which filters which are not separable are applied in frequency space.
+   */
+  public static final int FFT_KERNEL_SIZE = 9;
+
+  /**
+   * Largest distance from an integer at which a sum computed in frequency space is taken as that
+   * integer. The rounding errors of the transforms are several orders of magnitude smaller.
+   */
+  private static final double FFT_TOLERANCE = 1e-6;
+
+  /**
+   * Number of pixels of the chunks of rows in which images which are not planar are read into
+   * planes for non-linear filters.
+   */
+  private static final int NON_LINEAR_CHUNK_PIXELS = 1 << 20;
+
+  private final RowBandExecutor executor;
+  private final PointwiseExecutor pointwise;
+  private final boolean fixedPoint;
+
+  /**
+   * Instantiates a new image model which uses all available processors.
+   */
+  public ImageModelImpl() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates a new image model which uses the given number of threads. A parallelism of 1
+   * applies every operation on the calling thread.
+   *
+   * @param parallelism maximum number of threads used by an operation.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ImageModelImpl(int parallelism) throws IllegalArgumentException {
+    this(parallelism, false);
+  }
+
+  /**
+   * Instantiates a new image model which uses the given number of threads, and optionally
+   * applies filters and color transforms to 8-bit images in fixed point.
+   *
+   * @param parallelism maximum number of threads used by an operation.
+   * @param fixedPoint true to use scaled integer arithmetic for 8-bit images.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public ImageModelImpl(int parallelism, boolean fixedPoint) throws IllegalArgumentException {
+    this.executor = new RowBandExecutor(parallelism);
+    this.pointwise = new PointwiseExecutor(executor);
+    this.fixedPoint = fixedPoint;
+  }
+
+  /**
+   * Checks whether this model applies filters and color transforms to 8-bit images in fixed
+   * point.
+   *
+   * @return true in fixed point mode, false otherwise.
+   */
+  public boolean isFixedPoint() {
+    return fixedPoint;
+  }
+
+  /**
+   * Provides the maximum number of threads used by an operation.
+   *
+   * @return parallelism of the model.
+   */
+  public int getParallelism() {
+    return executor.getParallelism();
+  }
+
+  /**
+   * This method applies an {@link ConvolutionalFilter2D} on an image, see
+   * {@link #applyFilter(ConvolutionalFilter2D, Canvas, BorderEnum)}. Pixels outside of the image
+   * count as opaque black, as for {@link BorderEnum#ZERO}.
+   *
+   * @param filter2D to apply.
+   * @param canvas data to apply the filter onto.
+   * @return canvas containing filtered data.
+   */
+  @Override
+  public Canvas applyFilter(ConvolutionalFilter2D filter2D, Canvas canvas) {
+    return applyFilter(filter2D, canvas, BorderEnum.ZERO);
+  }
+
   /**
    * This method applies an {@link ConvolutionalFilter2D} on an image. It iterates over the
    * entire image pixel by pixel. For each pixel it finds all the values of pixels surrounding
    * it based upon the size of the filter. Then it uses that to calculate the new value of each
    * of the channels of the pixel.
    *
+   * <p>The rows covered by the filter are read in bulk into padded row buffers, and a
+   * {@link RowKernel} created for the filter computes each output row from them, so no objects
+   * are created while iterating over the image. If the image is
+   * stored in planes and the filter exposes its weights, the filter is instead applied to one
+   * channel plane at a time. Separable filters are applied as a horizontal pass followed by a
+   * vertical pass instead, on any kind of image. High precision images ({@link FloatCanvas}) are
+   * filtered the same way, but the results are only clamped, not truncated.</p>
+   *
+   * <p>Filters of at least {@link #FFT_KERNEL_SIZE} x {@link #FFT_KERNEL_SIZE} weights which are
+   * not separable are applied with fast Fourier transforms of image tiles, whose cost hardly
+   * grows with the size of the filter. The transforms leave rounding errors in every sum, which
+   * would often put sums lying exactly on an integer just below it, so sums within 1e-6 of an
+   * integer are taken as that integer before they are truncated. Results only differ from the
+   * direct ones by a step if their exact sum lies that close to an integer without being on it.</p>
+   *
+   * <p>Images with at least {@link #PARALLEL_THRESHOLD} pixels are split into bands of rows which
+   * are filtered concurrently. Every band reads the rows around it that its filter covers, and
+   * every pixel is computed exactly as in the serial case, so the result does not depend on the
+   * parallelism. Filters must therefore be safe to use from several threads.</p>
+   *
+   * <p>Pixels outside of the image are taken according to the border mode. Every source row is
+   * read into a buffer padded with these pixels once, and rows outside of the image are mapped
+   * to the rows standing in for them, so the loops over the interior of the image do not check
+   * any bounds. The alpha of a filtered pixel is that of the top left pixel of its neighbourhood,
+   * or opaque if that pixel is a zero pixel.</p>
+   *
+   * <p>In fixed point mode, filters given by their weights are applied to 8-bit images with
+   * weights quantized to Q15 and integer sums, unless they are large enough for the frequency
+   * space. The results are truncated like the floating point ones, and differ from them by at
+   * most one step.</p>
+   *
    * @param filter2D to apply.
    * @param canvas data to apply the filter onto.
+   * @param border how pixels outside of the image are taken.
    * @return canvas containing filtered data.
    */
   @Override
-  public Canvas applyFilter(ConvolutionalFilter2D filter2D, Canvas canvas) {
+  public Canvas applyFilter(ConvolutionalFilter2D filter2D, Canvas canvas, BorderEnum border) {
     if (filter2D == null) {
       throw new IllegalArgumentException("Filter cannot be null");
     }
@@ -32,31 +169,41 @@ public class ImageModelImpl implements ImageModel {
       throw new IllegalArgumentException("Image data cannot be null");
     }
 
-    int filterWidth = filter2D.getWidth();
-    int filterHeight = filter2D.getHeight();
-    int filterCenter = filterHeight / 2;
-    Canvas filteredImageData = new Canvas(canvas.getHeight(), canvas.getWidth());
-    int[] zeroColor = new int[]{0, 0, 0, 255};
-
-    for (int imageRow = 0; imageRow < canvas.getHeight(); imageRow++) {
-      for (int imageColumn = 0; imageColumn < canvas.getWidth(); imageColumn++) {
-        BaseColor[][] pixelData = new BaseColor[filterHeight][filterWidth];
-        for (int filterRow = 0; filterRow < filterHeight; filterRow++) {
-          for (int filterColumn = 0; filterColumn < filterWidth; filterColumn++) {
+    if (border == null) {
+      throw new IllegalArgumentException("Border mode cannot be null");
+    }
 
-            int indexY = imageRow + filterRow - filterCenter;
-            int indexX = imageColumn + filterColumn - filterCenter;
-            if (filteredImageData.isWithinBounds(indexY, indexX)) {
-              pixelData[filterRow][filterColumn] = canvas.getPixel(indexY, indexX);
-            } else {
-              pixelData[filterRow][filterColumn] = new ColorImpl(zeroColor);
-            }
-          }
-        }
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    Canvas filteredImageData = canvas.createCompatibleCanvas(height, width);
+    float[][] separableWeights = filter2D.getSeparableWeights();
+    float[][] weights = filter2D.getWeights();
+    int[][] fixedWeights = fixedPoint && weights != null && !(canvas instanceof FloatCanvas)
+            ? FixedPoint.quantize(weights) : null;
 
-        BaseColor filteredColor = filter2D.getValue(pixelData);
-        filteredImageData.setPixel(imageRow, imageColumn, filteredColor);
-      }
+    if (separableWeights == null && weights != null && weights.length >= FFT_KERNEL_SIZE
+            && weights.length == weights[0].length) {
+      FftConvolution convolution = new FftConvolution(weights, height, width);
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applyFftFilter(convolution,
+              weights.length, canvas, filteredImageData, border, rowStart, rowEnd));
+    } else if (fixedWeights != null) {
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applyFixedPointFilter(
+              fixedWeights, canvas, filteredImageData, border, rowStart, rowEnd));
+    } else if (separableWeights != null) {
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applySeparableFilter(
+              separableWeights[0], separableWeights[1], canvas, filteredImageData, border,
+              rowStart, rowEnd));
+    } else if (weights != null && canvas instanceof PlanarCanvas) {
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applyPlanarFilter(weights,
+              (PlanarCanvas) canvas, (PlanarCanvas) filteredImageData, border, rowStart,
+              rowEnd));
+    } else if (weights != null && canvas instanceof FloatCanvas) {
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applyFloatFilter(weights,
+              (FloatCanvas) canvas, (FloatCanvas) filteredImageData, border, rowStart,
+              rowEnd));
+    } else {
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> applyPixelFilter(filter2D,
+              canvas, filteredImageData, border, rowStart, rowEnd));
     }
 
     return filteredImageData;
@@ -68,6 +215,20 @@ public class ImageModelImpl implements ImageModel {
    * components in the color transforms must be less than equal to the number of channels (color)
    * in the image.
    *
+   * <p>If the image is stored in planes and the transform exposes its matrix, the three color
+   * planes are streamed through together instead of unpacking every pixel. The results for high
+   * precision images ({@link FloatCanvas}) are only clamped, not rounded.</p>
+   *
+   * <p>In fixed point mode, transforms given by their matrix are applied to 8-bit images with the
+   * matrix quantized to Q15 and integer sums, rounded to the nearest integer like the floating
+   * point ones.</p>
+   *
+   * <p>A {@link ColorLookupTable} is applied with a single lookup per pixel, reading the color
+   * planes directly for planar images.</p>
+   *
+   * <p>Every path runs on the {@link PointwiseExecutor} of the model, so the pixels of large
+   * images are transformed in bands of rows on several threads.</p>
+   *
    * @param colorTransformer to be applied.
    * @param canvas input data.
    * @return canvas containing transformed data.
@@ -82,16 +243,1201 @@ public class ImageModelImpl implements ImageModel {
       throw new IllegalArgumentException("Image data cannot be null");
     }
 
-    Canvas newImageData = new Canvas(canvas.getHeight(), canvas.getWidth());
+    return applyTransformer(colorTransformer, canvas,
+            canvas.createCompatibleCanvas(canvas.getHeight(), canvas.getWidth()));
+  }
+
+  /**
+   * This method applies the color transform on an image in place, the same way as
+   * {@link #applyTransformer(ColorTransform, Canvas)}. If the canvas shares its pixels with a
+   * duplicate, it is given its own copy of them first, so the duplicate keeps the original
+   * pixels.
+   *
+   * @param colorTransformer to be applied.
+   * @param canvas data to be transformed, which is overwritten.
+   * @return the same canvas, now holding the transformed data.
+   */
+  @Override
+  public Canvas applyTransformerInPlace(ColorTransform colorTransformer, Canvas canvas) {
+    if (colorTransformer == null) {
+      throw new IllegalArgumentException("Color transformer cannot be null");
+    }
+
+    if (canvas == null) {
+      throw new IllegalArgumentException("Image data cannot be null");
+    }
+
+    // the bands write concurrently, so any copy of shared pixels has to be made up front.
+    canvas.unshare();
+    return applyTransformer(colorTransformer, canvas, canvas);
+  }
+
+  /**
+   * Helper method to pick the path for a color transform and apply it. The target may be the
+   * input canvas itself, since every pixel is read before its result is written.
+   *
+   * @param colorTransformer to be applied.
+   * @param canvas input data.
+   * @param target canvas of the same kind and size as the input receiving the transformed data.
+   * @return the target canvas.
+   */
+  private Canvas applyTransformer(ColorTransform colorTransformer, Canvas canvas,
+                                  Canvas target) {
+    float[][] matrix = colorTransformer.getMatrix();
+    int[][] fixedMatrix = fixedPoint && matrix != null && !(canvas instanceof FloatCanvas)
+            ? FixedPoint.quantize(matrix) : null;
+    if (fixedMatrix != null) {
+      applyFixedPointTransform(fixedMatrix, canvas, target);
+    } else if (matrix != null && canvas instanceof PlanarCanvas) {
+      applyPlanarTransform(matrix, (PlanarCanvas) canvas, (PlanarCanvas) target);
+    } else if (matrix != null && canvas instanceof FloatCanvas) {
+      applyFloatTransform(matrix, (FloatCanvas) canvas, (FloatCanvas) target);
+    } else if (colorTransformer instanceof ColorLookupTable && canvas instanceof PlanarCanvas) {
+      applyPlanarLookup((ColorLookupTable) colorTransformer, (PlanarCanvas) canvas,
+              (PlanarCanvas) target);
+    } else {
+      pointwise.map(canvas, target, colorTransformer::transformArgb);
+    }
+
+    return target;
+  }
+
+  /**
+   * This method blurs an image with running sums over the rows and then over the columns, see
+   * {@link BoxBlur}. Windows reaching outside of the image average over the pixels inside of
+   * it, and the alpha of every pixel is kept.
+   *
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   * @param canvas input data.
+   * @return canvas containing the blurred data.
+   */
+  @Override
+  public Canvas applyBoxBlur(int radius, int passes, Canvas canvas) {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Radius cannot be negative");
+    }
+
+    if (passes < 1) {
+      throw new IllegalArgumentException("Number of passes must be positive");
+    }
+
+    if (canvas == null) {
+      throw new IllegalArgumentException("Image data cannot be null");
+    }
+
+    return BoxBlur.apply(canvas, radius, passes, executor);
+  }
+
+  /**
+   * This method blurs an image with a recursive approximation of a Gaussian, see
+   * {@link RecursiveGaussian}. The rows are blurred in parallel bands, then the columns. Beyond
+   * the edges the image continues with its edge pixels, and the alpha of every pixel is kept.
+   *
+   * @param sigma standard deviation of the Gaussian in pixels.
+   * @param canvas input data.
+   * @return canvas containing the blurred data.
+   */
+  @Override
+  public Canvas applyGaussianBlur(float sigma, Canvas canvas) {
+    if (!(sigma > 0)) {
+      throw new IllegalArgumentException("Sigma must be positive");
+    }
+
+    if (canvas == null) {
+      throw new IllegalArgumentException("Image data cannot be null");
+    }
+
+    return RecursiveGaussian.apply(canvas, sigma, executor);
+  }
+
+  /**
+   * This method applies a non-linear filter on the color planes of an image, in bands of rows
+   * which are filtered concurrently for large images. Images which are not planar are read into
+   * planes a chunk of rows at a time, along with the rows the neighbourhoods reach into, so
+   * images of any size are filtered in little memory. High precision images are filtered on
+   * their channels rounded to integers.
+   *
+   * @param filter to apply.
+   * @param canvas data to apply the filter onto.
+   * @return canvas containing filtered data.
+   */
+  @Override
+  public Canvas applyNonLinearFilter(NonLinearFilter2D filter, Canvas canvas) {
+    if (filter == null) {
+      throw new IllegalArgumentException("Filter cannot be null");
+    }
+
+    if (canvas == null) {
+      throw new IllegalArgumentException("Image data cannot be null");
+    }
+
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    if (!(canvas instanceof PlanarCanvas)) {
+      Canvas filtered = canvas.createCompatibleCanvas(height, width);
+      int chunkRows = Math.max(2 * filter.getRadius() + 1, NON_LINEAR_CHUNK_PIXELS / width);
+      executor.forEachBand(height, width, (rowStart, rowEnd) -> {
+        for (int chunkStart = rowStart; chunkStart < rowEnd; chunkStart += chunkRows) {
+          applyNonLinearChunk(filter, canvas, filtered, chunkStart,
+                  Math.min(rowEnd, chunkStart + chunkRows));
+        }
+      });
+      return filtered;
+    }
+
+    PlanarCanvas source = (PlanarCanvas) canvas;
+    PlanarCanvas filtered = (PlanarCanvas) source.createCompatibleCanvas(height, width);
+    byte[][] sourcePlanes = new byte[3][];
+    byte[][] targetPlanes = new byte[3][];
+    for (int channel = 0; channel < 3; channel++) {
+      sourcePlanes[channel] = source.getPlane(channel);
+      targetPlanes[channel] = filtered.getWritablePlane(channel);
+    }
+
+    executor.forEachBand(height, width, (rowStart, rowEnd) ->
+            filter.filterPlanes(sourcePlanes, targetPlanes, height, width, rowStart, rowEnd));
+    System.arraycopy(source.getPlane(3), 0, filtered.getWritablePlane(3), 0, height * width);
+    return filtered;
+  }
+
+  /**
+   * Helper method to apply a non-linear filter onto a chunk of rows of an image which is not
+   * planar. The rows of the chunk and the rows its neighbourhoods reach into are read into
+   * planes, which the filter sees as a whole image. Neighbourhoods of the chunk never reach past
+   * the rows read, except at the edges of the image, so the result is the same as for the
+   * whole image.
+   *
+   * @param filter filter to apply.
+   * @param canvas image data.
+   * @param filtered canvas receiving the filtered rows.
+   * @param rowStart first row of the chunk, inclusive.
+   * @param rowEnd last row of the chunk, exclusive.
+   */
+  private static void applyNonLinearChunk(NonLinearFilter2D filter, Canvas canvas,
+                                          Canvas filtered, int rowStart, int rowEnd) {
+    int width = canvas.getWidth();
+    int top = Math.max(0, rowStart - filter.getRadius());
+    int bottom = Math.min(canvas.getHeight(), rowEnd + filter.getRadius());
+    byte[][] sourcePlanes = new byte[3][(bottom - top) * width];
+    byte[][] targetPlanes = new byte[3][(bottom - top) * width];
+    int[] row = new int[width];
+
+    for (int y = top; y < bottom; y++) {
+      canvas.readRow(y, row);
+      int rowOffset = (y - top) * width;
+      for (int x = 0; x < width; x++) {
+        for (int channel = 0; channel < 3; channel++) {
+          sourcePlanes[channel][rowOffset + x] = (byte) PackedColor.channel(row[x], channel);
+        }
+      }
+    }
+
+    filter.filterPlanes(sourcePlanes, targetPlanes, bottom - top, width, rowStart - top,
+            rowEnd - top);
+
+    for (int y = rowStart; y < rowEnd; y++) {
+      canvas.readRow(y, row);
+      int rowOffset = (y - top) * width;
+      for (int x = 0; x < width; x++) {
+        row[x] = PackedColor.pack(targetPlanes[0][rowOffset + x] & 0xFF,
+                targetPlanes[1][rowOffset + x] & 0xFF, targetPlanes[2][rowOffset + x] & 0xFF,
+                PackedColor.alpha(row[x]));
+      }
+      filtered.writeRow(y, row);
+    }
+  }
+
+  /**
+   * Helper method to apply any filter onto a band of rows of an image, one row at a time, see
+   * {@link RowKernel}. The rows covered by the kernel are kept in a ring of row buffers which
+   * are padded on both sides according to the border mode, so that the pixels outside of the
+   * image need no bounds checks, and every source row is read only once per band.
+   *
+   * @param filter2D filter to apply.
+   * @param canvas image data.
+   * @param filteredImageData canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applyPixelFilter(ConvolutionalFilter2D filter2D, Canvas canvas,
+                                       Canvas filteredImageData, BorderEnum border,
+                                       int rowStart, int rowEnd) {
+    RowKernel kernel = RowKernel.of(filter2D);
+    int kernelHeight = kernel.getHeight();
+    int rowCenter = kernelHeight / 2;
+    int columnCenter = kernel.getWidth() / 2;
+    int width = canvas.getWidth();
+    int[][] ring = new int[kernelHeight][width + kernel.getWidth() - 1];
+    int[][] window = new int[kernelHeight][];
+    int[] filteredRow = new int[width];
+
+    for (int sourceRow = rowStart - rowCenter; sourceRow < rowStart + rowCenter; sourceRow++) {
+      readPaddedRow(canvas, sourceRow, ring[Math.floorMod(sourceRow, kernelHeight)],
+              columnCenter, border);
+    }
+
+    for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+      int lastRow = imageRow + kernelHeight - 1 - rowCenter;
+      readPaddedRow(canvas, lastRow, ring[Math.floorMod(lastRow, kernelHeight)], columnCenter,
+              border);
+      for (int filterRow = 0; filterRow < kernelHeight; filterRow++) {
+        window[filterRow] = ring[Math.floorMod(imageRow + filterRow - rowCenter, kernelHeight)];
+      }
+
+      kernel.filterRow(window, imageRow - rowCenter, filteredRow, width);
+      filteredImageData.writeRow(imageRow, filteredRow);
+    }
+  }
+
+  /**
+   * Helper method to read a row of an image into a row buffer, leaving the given number of
+   * pixels before it. Pixels of the buffer outside of the image are taken according to the
+   * border mode, zero pixels are opaque black.
+   *
+   * @param canvas image data.
+   * @param y row to be read, may be outside of the image.
+   * @param buffer row buffer.
+   * @param offset index in the buffer of the first pixel of the row.
+   * @param border how pixels outside of the image are taken.
+   */
+  private static void readPaddedRow(Canvas canvas, int y, int[] buffer, int offset,
+                                    BorderEnum border) {
+    int sourceRow = Borders.map(border, y, canvas.getHeight());
+    if (sourceRow < 0) {
+      Arrays.fill(buffer, PackedColor.OPAQUE_BLACK);
+      return;
+    }
+
+    canvas.readSpan(sourceRow, 0, canvas.getWidth(), buffer, offset);
+    Borders.pad(buffer, offset, canvas.getWidth(), border, PackedColor.OPAQUE_BLACK);
+  }
+
+  /**
+   * Helper method to apply a filter given by its weights onto a band of rows of a planar image.
+   * Every color plane is processed separately: each source row is widened to floats and padded
+   * once, and for each output row, every weight of the filter is multiplied with a contiguous run
+   * of the source row it covers and added to a row of accumulators, see {@link PlaneKernels}.
+   * The accumulation order per pixel is the same as for the pixel by pixel filter, so the results
+   * are identical.
+   *
+   * @param weights weights of the filter.
+   * @param canvas planar image data.
+   * @param filteredImageData planar canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applyPlanarFilter(float[][] weights, PlanarCanvas canvas,
+                                        PlanarCanvas filteredImageData, BorderEnum border,
+                                        int rowStart, int rowEnd) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    int filterSize = weights.length;
+    int filterCenter = filterSize / 2;
+    double[] accumulator = new double[width];
+    // padded source rows widened to floats, row r is kept in slot r % filterSize.
+    float[][] ring = new float[filterSize][width + filterSize - 1];
+
+    for (int channel = 0; channel < 3; channel++) {
+      byte[] source = canvas.getPlane(channel);
+      byte[] target = filteredImageData.getWritablePlane(channel);
+
+      for (int sourceRow = rowStart - filterCenter; sourceRow < rowStart + filterCenter;
+           sourceRow++) {
+        widenPaddedRow(source, height, width, sourceRow, ring, filterCenter, border);
+      }
+
+      for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+        widenPaddedRow(source, height, width, imageRow + filterCenter, ring, filterCenter,
+                border);
+        Arrays.fill(accumulator, 0);
+
+        for (int filterRow = 0; filterRow < filterSize; filterRow++) {
+          int sourceRow = imageRow + filterRow - filterCenter;
+          if (Borders.map(border, sourceRow, height) < 0) {
+            continue;
+          }
+
+          float[] row = ring[Math.floorMod(sourceRow, filterSize)];
+          for (int filterColumn = 0; filterColumn < filterSize; filterColumn++) {
+            PlaneKernels.multiplyAdd(row, filterColumn, weights[filterRow][filterColumn],
+                    accumulator, 0, width);
+          }
+        }
+
+        PlaneKernels.storeTruncated(accumulator, target, imageRow * width, width);
+      }
+    }
+
+    byte[] sourceAlpha = canvas.getPlane(3);
+    byte[] targetAlpha = filteredImageData.getWritablePlane(3);
+    for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+      int targetOffset = imageRow * width;
+      int alphaRow = Borders.map(border, imageRow - filterCenter, height);
+      if (alphaRow < 0) {
+        Arrays.fill(targetAlpha, targetOffset, targetOffset + width, (byte) 255);
+        continue;
+      }
 
-    for (int i = 0; i < canvas.getHeight(); i++) {
-      for (int j = 0; j < canvas.getWidth(); j++) {
-        BaseColor pixel = canvas.getPixel(i, j);
-        BaseColor newPixel = colorTransformer.transform(pixel);
-        newImageData.setPixel(i, j, newPixel);
+      // the alpha of a filtered pixel is that of the top left pixel of its neighbourhood.
+      int interior = Math.max(0, width - filterCenter);
+      System.arraycopy(sourceAlpha, alphaRow * width, targetAlpha, targetOffset + width - interior,
+              interior);
+      for (int x = 0; x < width - interior; x++) {
+        int alphaColumn = Borders.map(border, x - filterCenter, width);
+        targetAlpha[targetOffset + x] = alphaColumn < 0 ? (byte) 255
+                : sourceAlpha[alphaRow * width + alphaColumn];
       }
     }
+  }
+
+  /**
+   * Helper method to widen a row of an 8-bit plane to floats and pad it on both sides according
+   * to the border mode. The row is stored in its slot of a ring of row buffers. Rows standing for
+   * zero pixels are not stored, since they do not contribute to any sum.
+   *
+   * @param plane 8-bit plane.
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   * @param y row to be read, may be outside of the image.
+   * @param ring row buffers.
+   * @param offset index in a row buffer of the first sample of the row.
+   * @param border how pixels outside of the image are taken.
+   */
+  private static void widenPaddedRow(byte[] plane, int height, int width, int y, float[][] ring,
+                                     int offset, BorderEnum border) {
+    int sourceRow = Borders.map(border, y, height);
+    if (sourceRow < 0) {
+      return;
+    }
 
-    return newImageData;
+    float[] row = ring[Math.floorMod(y, ring.length)];
+    PlaneKernels.widen(plane, sourceRow * width, row, offset, width);
+    Borders.pad(row, offset, width, border, 0);
+  }
+
+  /**
+   * Helper method to apply a filter given by its quantized weights onto a band of rows of an
+   * 8-bit image. The channels of each source row are read and padded once into a ring of int
+   * rows, and every weight is multiplied with the run of a row it covers and added to a row of
+   * int sums, see {@link FixedPoint}.
+   *
+   * @param weights weights of the filter in Q15.
+   * @param canvas 8-bit image data.
+   * @param filteredImageData canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applyFixedPointFilter(int[][] weights, Canvas canvas,
+                                            Canvas filteredImageData, BorderEnum border,
+                                            int rowStart, int rowEnd) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    int filterSize = weights.length;
+    int filterCenter = filterSize / 2;
+    // padded channels of the source rows, row r is kept in slot r % filterSize.
+    int[][][] ring = new int[filterSize][4][width + filterSize - 1];
+    int[][] sums = new int[3][width];
+    int[] packedRow = new int[width];
+
+    for (int sourceRow = rowStart - filterCenter; sourceRow < rowStart + filterCenter;
+         sourceRow++) {
+      readFixedPointRow(canvas, sourceRow, ring, filterCenter, border, packedRow);
+    }
+
+    for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+      readFixedPointRow(canvas, imageRow + filterCenter, ring, filterCenter, border, packedRow);
+
+      for (int channel = 0; channel < 3; channel++) {
+        Arrays.fill(sums[channel], 0);
+        for (int filterRow = 0; filterRow < filterSize; filterRow++) {
+          int sourceRow = imageRow + filterRow - filterCenter;
+          if (Borders.map(border, sourceRow, height) < 0) {
+            continue;
+          }
+
+          int[] row = ring[Math.floorMod(sourceRow, filterSize)][channel];
+          for (int filterColumn = 0; filterColumn < filterSize; filterColumn++) {
+            FixedPoint.multiplyAdd(row, filterColumn, weights[filterRow][filterColumn],
+                    sums[channel], 0, width);
+          }
+        }
+      }
+
+      // the alpha of a filtered pixel is that of the top left pixel of its neighbourhood, at the
+      // index of the pixel in the padded row.
+      int alphaRow = imageRow - filterCenter;
+      int[] alpha = Borders.map(border, alphaRow, height) < 0 ? null
+              : ring[Math.floorMod(alphaRow, filterSize)][3];
+      writeFixedPointRow(filteredImageData, imageRow, sums, alpha, packedRow);
+    }
+  }
+
+  /**
+   * Helper method to read the channels of a row of an 8-bit image into its slot of a ring of
+   * padded int rows. Planar canvases are read straight from their planes. The padding is filled
+   * according to the border mode, zero pixels are opaque black. Rows standing for zero pixels are
+   * not stored, since they do not contribute to any sum.
+   *
+   * @param canvas 8-bit image data.
+   * @param y row to be read, may be outside of the image.
+   * @param ring padded channels of the rows, per slot.
+   * @param offset index in a row buffer of the first pixel of the row.
+   * @param border how pixels outside of the image are taken.
+   * @param packedRow buffer receiving the packed pixels of the row.
+   */
+  private static void readFixedPointRow(Canvas canvas, int y, int[][][] ring, int offset,
+                                        BorderEnum border, int[] packedRow) {
+    int sourceRow = Borders.map(border, y, canvas.getHeight());
+    if (sourceRow < 0) {
+      return;
+    }
+
+    int width = canvas.getWidth();
+    int[][] channels = ring[Math.floorMod(y, ring.length)];
+    if (canvas instanceof PlanarCanvas) {
+      for (int channel = 0; channel < channels.length; channel++) {
+        byte[] plane = ((PlanarCanvas) canvas).getPlane(channel);
+        int[] row = channels[channel];
+        for (int x = 0; x < width; x++) {
+          row[offset + x] = plane[sourceRow * width + x] & 0xFF;
+        }
+      }
+    } else {
+      canvas.readRow(sourceRow, packedRow);
+      for (int x = 0; x < width; x++) {
+        for (int channel = 0; channel < channels.length; channel++) {
+          channels[channel][offset + x] = PackedColor.channel(packedRow[x], channel);
+        }
+      }
+    }
+
+    for (int channel = 0; channel < channels.length; channel++) {
+      Borders.pad(channels[channel], offset, width, border, channel == 3 ? 255 : 0);
+    }
+  }
+
+  /**
+   * Helper method to write a row of fixed point filter results to an 8-bit image, truncated to
+   * integers and clamped.
+   *
+   * @param canvas 8-bit canvas receiving the row.
+   * @param y row to be written.
+   * @param sums filter sums per color channel, in Q15.
+   * @param alpha alpha of every pixel of the row, or null if all pixels are opaque.
+   * @param packedRow buffer for the packed pixels of the row.
+   */
+  private static void writeFixedPointRow(Canvas canvas, int y, int[][] sums, int[] alpha,
+                                         int[] packedRow) {
+    int width = canvas.getWidth();
+
+    if (canvas instanceof PlanarCanvas) {
+      int rowOffset = y * width;
+      for (int channel = 0; channel < 3; channel++) {
+        byte[] plane = ((PlanarCanvas) canvas).getWritablePlane(channel);
+        for (int x = 0; x < width; x++) {
+          plane[rowOffset + x] = (byte) FixedPoint.toChannel(sums[channel][x], 0);
+        }
+      }
+
+      byte[] alphaPlane = ((PlanarCanvas) canvas).getWritablePlane(3);
+      for (int x = 0; x < width; x++) {
+        alphaPlane[rowOffset + x] = (byte) (alpha != null ? alpha[x] : 255);
+      }
+      return;
+    }
+
+    for (int x = 0; x < width; x++) {
+      packedRow[x] = PackedColor.pack(FixedPoint.toChannel(sums[0][x], 0),
+              FixedPoint.toChannel(sums[1][x], 0), FixedPoint.toChannel(sums[2][x], 0),
+              alpha != null ? alpha[x] : 255);
+    }
+    canvas.writeRow(y, packedRow);
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its quantized matrix onto an 8-bit
+   * image. Planar images are streamed through plane by plane, all other images row by row. The
+   * alpha channel is kept.
+   *
+   * @param matrix 3x3 matrix of the transform in Q15.
+   * @param canvas 8-bit image data.
+   * @param newImageData canvas of the same kind receiving the transformed data.
+   */
+  private void applyFixedPointTransform(int[][] matrix, Canvas canvas, Canvas newImageData) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+
+    if (canvas instanceof PlanarCanvas) {
+      byte[][] newPlanes = getWritablePlanes((PlanarCanvas) newImageData);
+      byte[][] planes = getPlanes((PlanarCanvas) canvas);
+      pointwise.forEachBand(height, width, (rowStart, rowEnd) -> applyFixedPointTransform(
+              matrix, planes, newPlanes, rowStart * width, rowEnd * width));
+      return;
+    }
+
+    pointwise.forEachBand(height, width, (rowStart, rowEnd) -> {
+      int half = FixedPoint.HALF;
+      int[] row = new int[width];
+      for (int y = rowStart; y < rowEnd; y++) {
+        canvas.readRow(y, row);
+        for (int x = 0; x < width; x++) {
+          int r = PackedColor.red(row[x]);
+          int g = PackedColor.green(row[x]);
+          int b = PackedColor.blue(row[x]);
+          row[x] = PackedColor.pack(
+                  FixedPoint.toChannel(matrix[0][0] * r + matrix[0][1] * g + matrix[0][2] * b,
+                          half),
+                  FixedPoint.toChannel(matrix[1][0] * r + matrix[1][1] * g + matrix[1][2] * b,
+                          half),
+                  FixedPoint.toChannel(matrix[2][0] * r + matrix[2][1] * g + matrix[2][2] * b,
+                          half),
+                  PackedColor.alpha(row[x]));
+        }
+        newImageData.writeRow(y, row);
+      }
+    });
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its quantized matrix onto a range
+   * of pixels of the planes of an 8-bit image. The alpha plane is copied over unchanged.
+   *
+   * @param matrix 3x3 matrix of the transform in Q15.
+   * @param planes red, green, blue and alpha planes of the image.
+   * @param newPlanes red, green, blue and alpha planes receiving the transformed data.
+   * @param start index of the first pixel, inclusive.
+   * @param end index of the last pixel, exclusive.
+   */
+  private static void applyFixedPointTransform(int[][] matrix, byte[][] planes,
+                                               byte[][] newPlanes, int start, int end) {
+    byte[] red = planes[0];
+    byte[] green = planes[1];
+    byte[] blue = planes[2];
+    byte[] newRed = newPlanes[0];
+    byte[] newGreen = newPlanes[1];
+    byte[] newBlue = newPlanes[2];
+    int half = FixedPoint.HALF;
+
+    for (int i = start; i < end; i++) {
+      int r = red[i] & 0xFF;
+      int g = green[i] & 0xFF;
+      int b = blue[i] & 0xFF;
+      newRed[i] = (byte) FixedPoint.toChannel(
+              matrix[0][0] * r + matrix[0][1] * g + matrix[0][2] * b, half);
+      newGreen[i] = (byte) FixedPoint.toChannel(
+              matrix[1][0] * r + matrix[1][1] * g + matrix[1][2] * b, half);
+      newBlue[i] = (byte) FixedPoint.toChannel(
+              matrix[2][0] * r + matrix[2][1] * g + matrix[2][2] * b, half);
+    }
+
+    copyAlpha(planes, newPlanes, start, end);
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its matrix onto a planar image. The
+   * alpha plane is copied over unchanged.
+   *
+   * @param matrix 3x3 matrix of the transform.
+   * @param canvas planar image data.
+   * @param newImageData planar canvas receiving the transformed data.
+   */
+  private void applyPlanarTransform(float[][] matrix, PlanarCanvas canvas,
+                                    PlanarCanvas newImageData) {
+    int width = canvas.getWidth();
+    byte[][] newPlanes = getWritablePlanes(newImageData);
+    byte[][] planes = getPlanes(canvas);
+    pointwise.forEachBand(canvas.getHeight(), width, (rowStart, rowEnd) -> applyPlanarTransform(
+            matrix, planes, newPlanes, rowStart * width, rowEnd * width));
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its matrix onto a range of pixels
+   * of the planes of an image. The alpha plane is copied over unchanged.
+   *
+   * @param matrix 3x3 matrix of the transform.
+   * @param planes red, green, blue and alpha planes of the image.
+   * @param newPlanes red, green, blue and alpha planes receiving the transformed data.
+   * @param start index of the first pixel, inclusive.
+   * @param end index of the last pixel, exclusive.
+   */
+  private static void applyPlanarTransform(float[][] matrix, byte[][] planes, byte[][] newPlanes,
+                                           int start, int end) {
+    byte[] red = planes[0];
+    byte[] green = planes[1];
+    byte[] blue = planes[2];
+    byte[] newRed = newPlanes[0];
+    byte[] newGreen = newPlanes[1];
+    byte[] newBlue = newPlanes[2];
+
+    float rr = matrix[0][0];
+    float rg = matrix[0][1];
+    float rb = matrix[0][2];
+    float gr = matrix[1][0];
+    float gg = matrix[1][1];
+    float gb = matrix[1][2];
+    float br = matrix[2][0];
+    float bg = matrix[2][1];
+    float bb = matrix[2][2];
+
+    for (int i = start; i < end; i++) {
+      float r = red[i] & 0xFF;
+      float g = green[i] & 0xFF;
+      float b = blue[i] & 0xFF;
+      newRed[i] = (byte) PackedColor.clamp(Math.round(rr * r + rg * g + rb * b));
+      newGreen[i] = (byte) PackedColor.clamp(Math.round(gr * r + gg * g + gb * b));
+      newBlue[i] = (byte) PackedColor.clamp(Math.round(br * r + bg * g + bb * b));
+    }
+
+    copyAlpha(planes, newPlanes, start, end);
+  }
+
+  /**
+   * Helper method to apply a color lookup table onto a planar image. The alpha plane is copied
+   * over unchanged.
+   *
+   * @param table color lookup table.
+   * @param canvas planar image data.
+   * @param newImageData planar canvas receiving the transformed data.
+   */
+  private void applyPlanarLookup(ColorLookupTable table, PlanarCanvas canvas,
+                                 PlanarCanvas newImageData) {
+    int width = canvas.getWidth();
+    byte[][] newPlanes = getWritablePlanes(newImageData);
+    byte[][] planes = getPlanes(canvas);
+    pointwise.forEachBand(canvas.getHeight(), width, (rowStart, rowEnd) -> applyPlanarLookup(
+            table, planes, newPlanes, rowStart * width, rowEnd * width));
+  }
+
+  /**
+   * Helper method to apply a color lookup table onto a range of pixels of the planes of an
+   * image. The alpha plane is copied over unchanged.
+   *
+   * @param table color lookup table.
+   * @param planes red, green, blue and alpha planes of the image.
+   * @param newPlanes red, green, blue and alpha planes receiving the transformed data.
+   * @param start index of the first pixel, inclusive.
+   * @param end index of the last pixel, exclusive.
+   */
+  private static void applyPlanarLookup(ColorLookupTable table, byte[][] planes,
+                                        byte[][] newPlanes, int start, int end) {
+    byte[] red = planes[0];
+    byte[] green = planes[1];
+    byte[] blue = planes[2];
+    byte[] newRed = newPlanes[0];
+    byte[] newGreen = newPlanes[1];
+    byte[] newBlue = newPlanes[2];
+
+    for (int i = start; i < end; i++) {
+      int rgb = table.transformRgb(red[i] & 0xFF, green[i] & 0xFF, blue[i] & 0xFF);
+      newRed[i] = (byte) (rgb >> 16);
+      newGreen[i] = (byte) (rgb >> 8);
+      newBlue[i] = (byte) rgb;
+    }
+
+    copyAlpha(planes, newPlanes, start, end);
+  }
+
+  /**
+   * Helper method to provide the planes of a planar image for reading.
+   *
+   * @param canvas planar image data.
+   * @return red, green, blue and alpha planes.
+   */
+  private static byte[][] getPlanes(PlanarCanvas canvas) {
+    byte[][] planes = new byte[4][];
+    for (int channel = 0; channel < 4; channel++) {
+      planes[channel] = canvas.getPlane(channel);
+    }
+
+    return planes;
+  }
+
+  /**
+   * Helper method to provide the planes of a planar image for writing. Shared planes are copied
+   * here, before any band runs.
+   *
+   * @param canvas planar image data.
+   * @return red, green, blue and alpha planes.
+   */
+  private static byte[][] getWritablePlanes(PlanarCanvas canvas) {
+    byte[][] planes = new byte[4][];
+    for (int channel = 0; channel < 4; channel++) {
+      planes[channel] = canvas.getWritablePlane(channel);
+    }
+
+    return planes;
+  }
+
+  /**
+   * Helper method to copy a range of the alpha plane of an image over to the transformed image,
+   * unless the image is transformed in place.
+   *
+   * @param planes red, green, blue and alpha planes of the image.
+   * @param newPlanes red, green, blue and alpha planes receiving the transformed data.
+   * @param start index of the first pixel, inclusive.
+   * @param end index of the last pixel, exclusive.
+   */
+  private static void copyAlpha(byte[][] planes, byte[][] newPlanes, int start, int end) {
+    if (planes[3] != newPlanes[3]) {
+      System.arraycopy(planes[3], start, newPlanes[3], start, end - start);
+    }
+  }
+
+  /**
+   * Helper method to apply a filter given by its weights onto a band of rows of a high precision
+   * image. Works like the planar filter, except that the results keep their fractional part.
+   *
+   * @param weights weights of the filter.
+   * @param canvas high precision image data.
+   * @param filteredImageData high precision canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applyFloatFilter(float[][] weights, FloatCanvas canvas,
+                                       FloatCanvas filteredImageData, BorderEnum border,
+                                       int rowStart, int rowEnd) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    int filterSize = weights.length;
+    int filterCenter = filterSize / 2;
+    double[] accumulator = new double[width];
+    // padded source rows, row r is kept in slot r % filterSize.
+    float[][] ring = new float[filterSize][width + filterSize - 1];
+
+    for (int channel = 0; channel < 3; channel++) {
+      float[] source = canvas.getPlane(channel);
+      float[] target = filteredImageData.getPlane(channel);
+
+      for (int sourceRow = rowStart - filterCenter; sourceRow < rowStart + filterCenter;
+           sourceRow++) {
+        copyPaddedRow(source, height, width, sourceRow, ring, filterCenter, border);
+      }
+
+      for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+        copyPaddedRow(source, height, width, imageRow + filterCenter, ring, filterCenter,
+                border);
+        Arrays.fill(accumulator, 0);
+
+        for (int filterRow = 0; filterRow < filterSize; filterRow++) {
+          int sourceRow = imageRow + filterRow - filterCenter;
+          if (Borders.map(border, sourceRow, height) < 0) {
+            continue;
+          }
+
+          float[] row = ring[Math.floorMod(sourceRow, filterSize)];
+          for (int filterColumn = 0; filterColumn < filterSize; filterColumn++) {
+            PlaneKernels.multiplyAdd(row, filterColumn, weights[filterRow][filterColumn],
+                    accumulator, 0, width);
+          }
+        }
+
+        int targetOffset = imageRow * width;
+        for (int x = 0; x < width; x++) {
+          target[targetOffset + x] = clampChannel(accumulator[x]);
+        }
+      }
+    }
+
+    float[] sourceAlpha = canvas.getPlane(3);
+    float[] targetAlpha = filteredImageData.getPlane(3);
+    for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+      int targetOffset = imageRow * width;
+      int alphaRow = Borders.map(border, imageRow - filterCenter, height);
+      if (alphaRow < 0) {
+        Arrays.fill(targetAlpha, targetOffset, targetOffset + width, 255);
+        continue;
+      }
+
+      // the alpha of a filtered pixel is that of the top left pixel of its neighbourhood.
+      int interior = Math.max(0, width - filterCenter);
+      System.arraycopy(sourceAlpha, alphaRow * width, targetAlpha, targetOffset + width - interior,
+              interior);
+      for (int x = 0; x < width - interior; x++) {
+        int alphaColumn = Borders.map(border, x - filterCenter, width);
+        targetAlpha[targetOffset + x] = alphaColumn < 0 ? 255
+                : sourceAlpha[alphaRow * width + alphaColumn];
+      }
+    }
+  }
+
+  /**
+   * Helper method to copy a row of a high precision plane and pad it on both sides according to
+   * the border mode. The row is stored in its slot of a ring of row buffers. Rows standing for
+   * zero pixels are not stored, since they do not contribute to any sum.
+   *
+   * @param plane high precision plane.
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   * @param y row to be read, may be outside of the image.
+   * @param ring row buffers.
+   * @param offset index in a row buffer of the first sample of the row.
+   * @param border how pixels outside of the image are taken.
+   */
+  private static void copyPaddedRow(float[] plane, int height, int width, int y, float[][] ring,
+                                    int offset, BorderEnum border) {
+    int sourceRow = Borders.map(border, y, height);
+    if (sourceRow < 0) {
+      return;
+    }
+
+    float[] row = ring[Math.floorMod(y, ring.length)];
+    System.arraycopy(plane, sourceRow * width, row, offset, width);
+    Borders.pad(row, offset, width, border, 0);
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its matrix onto a high precision
+   * image. The results keep their fractional part, and the alpha plane is copied over unchanged.
+   *
+   * @param matrix 3x3 matrix of the transform.
+   * @param canvas high precision image data.
+   * @param newImageData high precision canvas receiving the transformed data.
+   */
+  private void applyFloatTransform(float[][] matrix, FloatCanvas canvas,
+                                   FloatCanvas newImageData) {
+    int width = canvas.getWidth();
+    pointwise.forEachBand(canvas.getHeight(), width, (rowStart, rowEnd) -> applyFloatTransform(
+            matrix, canvas, newImageData, rowStart * width, rowEnd * width));
+  }
+
+  /**
+   * Helper method to apply a linear color transform given by its matrix onto a range of pixels
+   * of a high precision image. The alpha plane is copied over unchanged.
+   *
+   * @param matrix 3x3 matrix of the transform.
+   * @param canvas high precision image data.
+   * @param newImageData high precision canvas receiving the transformed data.
+   * @param start index of the first pixel, inclusive.
+   * @param end index of the last pixel, exclusive.
+   */
+  private static void applyFloatTransform(float[][] matrix, FloatCanvas canvas,
+                                          FloatCanvas newImageData, int start, int end) {
+    float[] red = canvas.getPlane(0);
+    float[] green = canvas.getPlane(1);
+    float[] blue = canvas.getPlane(2);
+    float[] newRed = newImageData.getPlane(0);
+    float[] newGreen = newImageData.getPlane(1);
+    float[] newBlue = newImageData.getPlane(2);
+
+    for (int i = start; i < end; i++) {
+      float r = red[i];
+      float g = green[i];
+      float b = blue[i];
+      newRed[i] = clampChannel(matrix[0][0] * r + matrix[0][1] * g + matrix[0][2] * b);
+      newGreen[i] = clampChannel(matrix[1][0] * r + matrix[1][1] * g + matrix[1][2] * b);
+      newBlue[i] = clampChannel(matrix[2][0] * r + matrix[2][1] * g + matrix[2][2] * b);
+    }
+
+    if (canvas != newImageData) {
+      System.arraycopy(canvas.getPlane(3), start, newImageData.getPlane(3), start, end - start);
+    }
+  }
+
+  /**
+   * Helper method to clamp a high precision channel value to the range [0, 255].
+   *
+   * @param value channel value.
+   * @return clamped value.
+   */
+  private static float clampChannel(double value) {
+    return (float) Math.min(255, Math.max(0, value));
+  }
+
+  /**
+   * Helper method to apply a filter in frequency space onto a band of rows of an image. The band
+   * is processed in strips of as many rows as a tile yields. The source rows covered by a strip
+   * are read and padded once, then each tile of the strip is correlated with the weights, the red
+   * and green channels together and the blue channel on its own. Pixels outside of the image are
+   * taken according to the border mode, and the alpha of a filtered pixel is that of the top left
+   * pixel of its neighbourhood, same as for the other filter paths.
+   *
+   * @param convolution correlation with the filter weights.
+   * @param filterSize number of rows and columns of the filter.
+   * @param canvas image data.
+   * @param filteredImageData canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applyFftFilter(FftConvolution convolution, int filterSize, Canvas canvas,
+                                     Canvas filteredImageData, BorderEnum border, int rowStart,
+                                     int rowEnd) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    int filterCenter = filterSize / 2;
+    int size = convolution.getSize();
+    int tileSize = convolution.getTileSize();
+
+    // padded source rows, the last tile of a row may reach past the padding of the filter.
+    double[][][] strip = new double[size][4][width + size];
+    boolean[] zeroRows = new boolean[size];
+    double[][][] results = new double[tileSize][3][width];
+    double[] re = new double[size * size];
+    double[] im = new double[size * size];
+    int[] packedRow = new int[width];
+
+    for (int stripStart = rowStart; stripStart < rowEnd; stripStart += tileSize) {
+      int rows = Math.min(tileSize, rowEnd - stripStart);
+      for (int i = 0; i < size; i++) {
+        int sourceRow = Borders.map(border, stripStart - filterCenter + i, height);
+        zeroRows[i] = sourceRow < 0;
+        if (zeroRows[i]) {
+          for (double[] channel : strip[i]) {
+            Arrays.fill(channel, 0);
+          }
+        } else {
+          readPaddedChannels(canvas, sourceRow, strip[i], filterCenter, border, packedRow);
+        }
+      }
+
+      for (int tileStart = 0; tileStart < width; tileStart += tileSize) {
+        int columns = Math.min(tileSize, width - tileStart);
+        for (int channel = 0; channel < 3; channel += 2) {
+          for (int i = 0; i < size; i++) {
+            System.arraycopy(strip[i][channel], tileStart, re, i * size, size);
+            if (channel == 0) {
+              System.arraycopy(strip[i][1], tileStart, im, i * size, size);
+            } else {
+              Arrays.fill(im, i * size, (i + 1) * size, 0);
+            }
+          }
+
+          convolution.correlate(re, im);
+          for (int i = 0; i < rows; i++) {
+            System.arraycopy(re, i * size, results[i][channel], tileStart, columns);
+            if (channel == 0) {
+              System.arraycopy(im, i * size, results[i][1], tileStart, columns);
+            }
+          }
+        }
+      }
+
+      for (int i = 0; i < rows; i++) {
+        // the alpha of a filtered pixel is that of the top left pixel of its neighbourhood,
+        // which is in row i of the strip, at the index of the pixel in the padded row.
+        double[] alpha = zeroRows[i] ? null : strip[i][3];
+        snapToIntegers(results[i]);
+        writeFilteredRow(filteredImageData, stripStart + i, results[i], alpha, packedRow);
+      }
+    }
+  }
+
+  /**
+   * Helper method to remove the rounding errors of the transforms from sums computed in
+   * frequency space which lie on an integer, so that they are not truncated to the integer
+   * below. Sums within {@link #FFT_TOLERANCE} of an integer are replaced by the integer.
+   *
+   * @param results sums per color channel.
+   */
+  private static void snapToIntegers(double[][] results) {
+    for (double[] channel : results) {
+      for (int x = 0; x < channel.length; x++) {
+        double nearest = Math.rint(channel[x]);
+        if (Math.abs(channel[x] - nearest) <= FFT_TOLERANCE) {
+          channel[x] = nearest;
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to apply a separable filter onto a band of rows of an image. The filter is
+   * given as the column and the row whose outer product are its weights. Each source row is first
+   * padded and convolved horizontally with the row vector, once, and the results of the rows
+   * covered by the filter are kept in a ring of row buffers. Every output row is then the
+   * weighted sum of these buffers with the column vector. Pixels outside of the image are taken
+   * according to the border mode, and the alpha of a filtered pixel is that of the top left pixel
+   * of its neighbourhood, same as for the other filter paths.
+   *
+   * @param column vertical weights of the filter.
+   * @param row horizontal weights of the filter.
+   * @param canvas image data.
+   * @param filteredImageData canvas receiving the filtered data.
+   * @param border how pixels outside of the image are taken.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void applySeparableFilter(float[] column, float[] row, Canvas canvas,
+                                           Canvas filteredImageData, BorderEnum border,
+                                           int rowStart, int rowEnd) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    int size = column.length;
+    int filterCenter = size / 2;
+
+    // horizontal pass results per color channel, and the padded alpha channel, of the rows
+    // covered by the filter. Row r is kept in slot r % size.
+    double[][][] ring = new double[4][size][];
+    for (int slot = 0; slot < size; slot++) {
+      for (int channel = 0; channel < 3; channel++) {
+        ring[channel][slot] = new double[width];
+      }
+      ring[3][slot] = new double[width + size - 1];
+    }
+    double[][] channels = new double[4][width + size - 1];
+    double[][] accumulator = new double[3][width];
+    int[] packedRow = new int[width];
+
+    for (int sourceRow = rowStart - filterCenter; sourceRow < rowStart + filterCenter;
+         sourceRow++) {
+      applyHorizontalPass(canvas, sourceRow, row, border, channels, packedRow, ring);
+    }
+
+    for (int imageRow = rowStart; imageRow < rowEnd; imageRow++) {
+      applyHorizontalPass(canvas, imageRow + filterCenter, row, border, channels, packedRow,
+              ring);
+
+      for (int channel = 0; channel < 3; channel++) {
+        double[] sum = accumulator[channel];
+        Arrays.fill(sum, 0);
+        for (int filterRow = 0; filterRow < size; filterRow++) {
+          int sourceRow = imageRow + filterRow - filterCenter;
+          if (Borders.map(border, sourceRow, height) < 0) {
+            continue;
+          }
+
+          double weight = column[filterRow];
+          double[] horizontal = ring[channel][Math.floorMod(sourceRow, size)];
+          for (int x = 0; x < width; x++) {
+            sum[x] += weight * horizontal[x];
+          }
+        }
+      }
+
+      // the alpha of a filtered pixel is that of the top left pixel of its neighbourhood, at the
+      // index of the pixel in the padded row.
+      int alphaRow = imageRow - filterCenter;
+      double[] alpha = Borders.map(border, alphaRow, height) < 0 ? null
+              : ring[3][Math.floorMod(alphaRow, size)];
+      writeFilteredRow(filteredImageData, imageRow, accumulator, alpha, packedRow);
+    }
+  }
+
+  /**
+   * Helper method to convolve a source row with the horizontal weights of a separable filter.
+   * The results are stored in the ring slot of the row, together with its padded alpha channel.
+   * Rows standing for zero pixels are not stored, since they do not contribute to any sum.
+   *
+   * @param canvas image data.
+   * @param y row to be convolved, may be outside of the image.
+   * @param row horizontal weights of the filter.
+   * @param border how pixels outside of the image are taken.
+   * @param channels buffer receiving the padded channels of the row.
+   * @param packedRow buffer receiving the packed pixels of the row.
+   * @param ring row buffers of the filter.
+   */
+  private static void applyHorizontalPass(Canvas canvas, int y, float[] row, BorderEnum border,
+                                          double[][] channels, int[] packedRow,
+                                          double[][][] ring) {
+    int sourceRow = Borders.map(border, y, canvas.getHeight());
+    if (sourceRow < 0) {
+      return;
+    }
+
+    int width = canvas.getWidth();
+    int slot = Math.floorMod(y, ring[0].length);
+    readPaddedChannels(canvas, sourceRow, channels, row.length / 2, border, packedRow);
+
+    for (int channel = 0; channel < 3; channel++) {
+      double[] source = channels[channel];
+      double[] target = ring[channel][slot];
+      Arrays.fill(target, 0);
+      for (int filterColumn = 0; filterColumn < row.length; filterColumn++) {
+        double weight = row[filterColumn];
+        for (int x = 0; x < width; x++) {
+          target[x] += weight * source[x + filterColumn];
+        }
+      }
+    }
+
+    System.arraycopy(channels[3], 0, ring[3][slot], 0, ring[3][slot].length);
+  }
+
+  /**
+   * Helper method to read the channels of a row of any kind of canvas into padded buffers.
+   * Planar and high precision canvases are read straight from their planes. The padding is
+   * filled according to the border mode, zero pixels are opaque black.
+   *
+   * @param canvas image data.
+   * @param y row to be read.
+   * @param channels buffers receiving the channels of the row in RGBA order.
+   * @param offset index in the buffers of the first pixel of the row.
+   * @param border how pixels outside of the image are taken.
+   * @param packedRow buffer receiving the packed pixels of the row.
+   */
+  private static void readPaddedChannels(Canvas canvas, int y, double[][] channels, int offset,
+                                         BorderEnum border, int[] packedRow) {
+    int width = canvas.getWidth();
+    int rowOffset = y * width;
+
+    if (canvas instanceof FloatCanvas) {
+      for (int channel = 0; channel < channels.length; channel++) {
+        float[] plane = ((FloatCanvas) canvas).getPlane(channel);
+        for (int x = 0; x < width; x++) {
+          channels[channel][offset + x] = plane[rowOffset + x];
+        }
+      }
+    } else if (canvas instanceof PlanarCanvas) {
+      for (int channel = 0; channel < channels.length; channel++) {
+        byte[] plane = ((PlanarCanvas) canvas).getPlane(channel);
+        for (int x = 0; x < width; x++) {
+          channels[channel][offset + x] = plane[rowOffset + x] & 0xFF;
+        }
+      }
+    } else {
+      canvas.readRow(y, packedRow);
+      for (int x = 0; x < width; x++) {
+        for (int channel = 0; channel < channels.length; channel++) {
+          channels[channel][offset + x] = PackedColor.channel(packedRow[x], channel);
+        }
+      }
+    }
+
+    for (int channel = 0; channel < channels.length; channel++) {
+      Borders.pad(channels[channel], offset, width, border, channel == 3 ? 255 : 0);
+    }
+  }
+
+  /**
+   * Helper method to write a row of filter results. High precision canvases receive the clamped
+   * results, all other canvases the results truncated to integers and clamped.
+   *
+   * @param canvas canvas receiving the row.
+   * @param y row to be written.
+   * @param results filter results per color channel.
+   * @param alpha alpha of every pixel of the row, or null if all pixels are opaque.
+   * @param packedRow buffer for the packed pixels of the row.
+   */
+  private static void writeFilteredRow(Canvas canvas, int y, double[][] results, double[] alpha,
+                                       int[] packedRow) {
+    int width = canvas.getWidth();
+
+    if (canvas instanceof FloatCanvas) {
+      int rowOffset = y * width;
+      for (int channel = 0; channel < 3; channel++) {
+        float[] plane = ((FloatCanvas) canvas).getPlane(channel);
+        for (int x = 0; x < width; x++) {
+          plane[rowOffset + x] = clampChannel(results[channel][x]);
+        }
+      }
+
+      float[] alphaPlane = ((FloatCanvas) canvas).getPlane(3);
+      for (int x = 0; x < width; x++) {
+        alphaPlane[rowOffset + x] = alpha != null ? (float) alpha[x] : 255;
+      }
+      return;
+    }
+
+    for (int x = 0; x < width; x++) {
+      int pixelAlpha = alpha != null ? (int) alpha[x] : 255;
+      packedRow[x] = PackedColor.packClamped((int) results[0][x], (int) results[1][x],
+              (int) results[2][x], pixelAlpha);
+    }
+    canvas.writeRow(y, packedRow);
   }
 }
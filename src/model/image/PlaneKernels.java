@@ -0,0 +1,66 @@
+package model.image;
+
+/**
+ * Inner loops of the operations working on channel planes. Every loop is a plain counted loop
+ * over primitive arrays with a single type of operation in its body and no branches, which is
+ * the shape the JIT compiler turns into SIMD instructions, processing as many pixels at once as
+ * the vector registers of the host hold.
+ *
+ * <p>8-bit planes are widened to floats before they are multiplied, instead of converting every
+ * sample inside the multiply-add loop; the conversion would otherwise keep the loop scalar. The
+ * results are the same as for the scalar loops they replace.</p>
+ */
+final class PlaneKernels {
+
+  private PlaneKernels() {
+  }
+
+  /**
+   * Converts a run of an 8-bit plane to floats.
+   *
+   * @param plane 8-bit plane.
+   * @param offset index of the first sample of the run.
+   * @param row buffer receiving the samples.
+   * @param rowOffset index in the buffer receiving the first sample.
+   * @param length number of samples.
+   */
+  static void widen(byte[] plane, int offset, float[] row, int rowOffset, int length) {
+    for (int x = 0; x < length; x++) {
+      row[rowOffset + x] = plane[offset + x] & 0xFF;
+    }
+  }
+
+  /**
+   * Adds a weighted run of samples to a run of accumulators, i.e.
+   * {@code accumulator[x] += weight * source[x + shift]} for every x from start to end. The
+   * products are computed as floats and summed as doubles.
+   *
+   * @param source samples.
+   * @param shift offset of the sample of accumulator x from x.
+   * @param weight weight of the samples.
+   * @param accumulator accumulators.
+   * @param start first accumulator, inclusive.
+   * @param end last accumulator, exclusive.
+   */
+  static void multiplyAdd(float[] source, int shift, float weight, double[] accumulator,
+                          int start, int end) {
+    for (int x = start; x < end; x++) {
+      accumulator[x] += weight * source[x + shift];
+    }
+  }
+
+  /**
+   * Stores a run of accumulators in an 8-bit plane, truncated to integers and clamped to
+   * [0, 255].
+   *
+   * @param accumulator accumulators.
+   * @param plane 8-bit plane.
+   * @param offset index of the first sample of the run in the plane.
+   * @param length number of samples.
+   */
+  static void storeTruncated(double[] accumulator, byte[] plane, int offset, int length) {
+    for (int x = 0; x < length; x++) {
+      plane[offset + x] = (byte) Math.min(255, Math.max(0, (int) accumulator[x]));
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package model.image;
+
+import java.util.function.IntUnaryOperator;
+
+import dto.image.Canvas;
+
+/**
+ * Runs pointwise operations, i.e. operations computing every pixel from the same pixel of the
+ * input alone, over an image. The rows are split into bands which are processed concurrently,
+ * see {@link RowBandExecutor}, so small images are still processed on the calling thread.
+ *
+ * <p>Operations either map packed ARGB pixels with a primitive function, see
+ * {@link #map(Canvas, Canvas, IntUnaryOperator)}, or loop over a band of rows themselves, see
+ * {@link #forEachBand(int, int, Band)}, e.g. to stream through the planes of a canvas.</p>
+ */
+public class PointwiseExecutor {
+
+  private static PointwiseExecutor common;
+
+  private final RowBandExecutor executor;
+
+  /**
+   * Instantiates an executor which uses at most the given number of threads.
+   *
+   * @param parallelism maximum number of threads.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public PointwiseExecutor(int parallelism) throws IllegalArgumentException {
+    this(new RowBandExecutor(parallelism));
+  }
+
+  /**
+   * Instantiates an executor which runs its bands on the given executor, sharing its threads.
+   *
+   * @param executor executor running the bands.
+   */
+  PointwiseExecutor(RowBandExecutor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Provides an executor shared by callers which do not hold one themselves. It uses all
+   * available processors unless the application has set a limit, see
+   * {@link #setCommonParallelism(int)}, and is only created when it is first needed.
+   *
+   * @return shared executor.
+   */
+  public static synchronized PointwiseExecutor getCommon() {
+    if (common == null) {
+      common = new PointwiseExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    return common;
+  }
+
+  /**
+   * Limits the number of threads of the shared executor, so that work done outside of a model
+   * honors the same limit as the model itself. The shared executor is replaced if its
+   * parallelism differs; callers which already hold it keep using the previous one.
+   *
+   * @param parallelism maximum number of threads.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public static synchronized void setCommonParallelism(int parallelism)
+          throws IllegalArgumentException {
+    if (common == null || common.getParallelism() != parallelism) {
+      common = new PointwiseExecutor(parallelism);
+    }
+  }
+
+  /**
+   * Provides the maximum number of threads used by this executor.
+   *
+   * @return parallelism of the executor.
+   */
+  public int getParallelism() {
+    return executor.getParallelism();
+  }
+
+  /**
+   * Applies a function to every pixel of an image, and writes the results to the same pixels of
+   * another image of the same dimensions, which may be the input itself. The function receives
+   * and returns packed ARGB values, and may be called from several threads at once.
+   *
+   * @param source image data to be read.
+   * @param target image data receiving the results.
+   * @param operation function computing a pixel of the result.
+   * @throws IllegalArgumentException if an argument is null or the images differ in size.
+   */
+  public void map(Canvas source, Canvas target, IntUnaryOperator operation)
+          throws IllegalArgumentException {
+    if (source == null || target == null || operation == null) {
+      throw new IllegalArgumentException("Image data and operation cannot be null");
+    }
+
+    if (source.getHeight() != target.getHeight() || source.getWidth() != target.getWidth()) {
+      throw new IllegalArgumentException("Images need to be of the same size");
+    }
+
+    int width = source.getWidth();
+    executor.forEachBand(source.getHeight(), width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      for (int y = rowStart; y < rowEnd; y++) {
+        source.readRow(y, row);
+        for (int x = 0; x < width; x++) {
+          row[x] = operation.applyAsInt(row[x]);
+        }
+        target.writeRow(y, row);
+      }
+    });
+  }
+
+  /**
+   * Applies an operation to every row of an image of the given dimensions, and returns once all
+   * rows are done. Every row is covered by exactly one band, and the bands may be processed on
+   * several threads at once. If the operation fails on any band, the exception is rethrown on
+   * the calling thread.
+   *
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   * @param band operation to apply to a band of rows.
+   */
+  public void forEachBand(int height, int width, Band band) {
+    executor.forEachBand(height, width, band::apply);
+  }
+
+  /**
+   * Pointwise operation applied to a band of rows of an image.
+   */
+  public interface Band {
+
+    /**
+     * Processes the pixels of the rows of a band.
+     *
+     * @param rowStart first row of the band, inclusive.
+     * @param rowEnd last row of the band, exclusive.
+     */
+    void apply(int rowStart, int rowEnd);
+  }
+}
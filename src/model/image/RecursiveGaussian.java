@@ -0,0 +1,436 @@
+package model.image;
+
+import java.util.Arrays;
+
+import dto.image.Canvas;
+import enums.BorderEnum;
+
+/**
+ * Gaussian blur computed with the recursive filter of Young and van Vliet. Every row, and then
+ * every column, is run through a third order recursion forwards and then backwards, which
+ * together approximate a convolution with a Gaussian of the given standard deviation. The
+ * recursion needs the same few multiplications per pixel for any sigma, so wide blurs cost no
+ * more than narrow ones.
+ *
+ * <p>Beyond the edges, the image is taken to continue with its edge pixels, so the edges do not
+ * darken. The backward recursion starts from the exact state for such a continuation, following
+ * Triggs and Sdika, "Boundary conditions for Young - van Vliet recursive filtering", 2006, so the
+ * results at the end of a row or column are as accurate as at its start. The alpha of every pixel
+ * is kept as it is.</p>
+ *
+ * <p>The recursion approximates narrow Gaussians poorly, so blurs with a sigma below
+ * {@link #RECURSIVE_SIGMA} are computed as a convolution with the sampled Gaussian instead, whose
+ * few weights are cheap to apply.</p>
+ *
+ * <p>The image is streamed instead of being held in float planes, so images outside of the heap
+ * can be blurred in any size. The rows are blurred in bands into an intermediate canvas of the
+ * same kind as the image, and the columns in strips of it. The recursion runs down and back up a
+ * whole column, so the strips are cut into pieces of at most {@link #STRIP_PIXELS} pixels which
+ * are held in float buffers. The results of both passes are stored like the image itself, so
+ * they are rounded unless the image has high precision.</p>
+ */
+class RecursiveGaussian {
+
+  /**
+   * Smallest standard deviation from which the recursion is used.
+   */
+  static final float RECURSIVE_SIGMA = 3.0f;
+
+  /**
+   * Longest continuation over which the boundary state of the recursion is computed.
+   */
+  private static final int MAX_BOUNDARY_LENGTH = 1 << 16;
+
+  /**
+   * Largest number of pixels of a piece of a strip of columns held in float buffers.
+   */
+  private static final int STRIP_PIXELS = 1 << 18;
+
+  private RecursiveGaussian() {
+  }
+
+  /**
+   * Blurs the color channels of an image.
+   *
+   * @param canvas image data, which is not modified.
+   * @param sigma standard deviation of the Gaussian, in pixels.
+   * @param executor executor running the passes.
+   * @return canvas of the same kind as the input holding the blurred image.
+   */
+  static Canvas apply(Canvas canvas, float sigma, RowBandExecutor executor) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    Canvas rows = canvas.createCompatibleCanvas(height, width);
+    Canvas output = canvas.createCompatibleCanvas(height, width);
+
+    if (sigma < RECURSIVE_SIGMA) {
+      float[] weights = sampleGaussian(sigma);
+      executor.forEachBand(height, width, (rowStart, rowEnd) ->
+              convolveRows(canvas, rows, weights, rowStart, rowEnd));
+      executor.forEachBand(width, height, (columnStart, columnEnd) ->
+              convolveColumns(canvas, rows, output, weights, columnStart, columnEnd));
+    } else {
+      double[] coefficients = computeCoefficients(sigma);
+      double[][] boundary = computeBoundary(coefficients, sigma);
+      executor.forEachBand(height, width, (rowStart, rowEnd) ->
+              blurRows(canvas, rows, coefficients, boundary, rowStart, rowEnd));
+      executor.forEachBand(width, height, (columnStart, columnEnd) ->
+              blurColumns(canvas, rows, output, coefficients, boundary, columnStart,
+                      columnEnd));
+    }
+
+    rows.release();
+    return output;
+  }
+
+  /**
+   * Helper method to compute the coefficients of the recursion, following Young and van Vliet,
+   * "Recursive implementation of the Gaussian filter", 1995.
+   *
+   * @param sigma standard deviation of the Gaussian.
+   * @return gain of the input sample, followed by the weights of the three previous outputs.
+   */
+  private static double[] computeCoefficients(double sigma) {
+    double q = sigma >= 2.5 ? 0.98711 * sigma - 0.96330
+            : 3.97156 - 4.14554 * Math.sqrt(1 - 0.26891 * sigma);
+    double q2 = q * q;
+    double q3 = q2 * q;
+    double b0 = 1.57825 + 2.44413 * q + 1.4281 * q2 + 0.422205 * q3;
+    double b1 = (2.44413 * q + 2.85619 * q2 + 1.26661 * q3) / b0;
+    double b2 = -(1.4281 * q2 + 1.26661 * q3) / b0;
+    double b3 = 0.422205 * q3 / b0;
+    return new double[]{1 - (b1 + b2 + b3), b1, b2, b3};
+  }
+
+  /**
+   * Helper method to compute how the backward recursion starts at the end of a signal which
+   * continues with its last sample. Relative to that sample, the first three outputs of the
+   * backward recursion beyond the end depend linearly on the last three outputs of the forward
+   * recursion, and the matrix of that dependency is computed here by running both recursions
+   * over the continuation for each unit state, until the state has decayed.
+   *
+   * @param coefficients gain and weights of the recursion.
+   * @param sigma standard deviation of the Gaussian.
+   * @return matrix mapping the last forward outputs, most recent first, to the first backward
+   *         states, most recent first.
+   */
+  private static double[][] computeBoundary(double[] coefficients, double sigma) {
+    int length = (int) Math.min(MAX_BOUNDARY_LENGTH, 64 + Math.ceil(40 * sigma));
+    double[][] boundary = new double[3][3];
+    double[] forward = new double[length + 3];
+
+    for (int k = 0; k < 3; k++) {
+      // forward[i + 3] is the forward output i samples past the end, without the last sample.
+      Arrays.fill(forward, 0);
+      forward[2 - k] = 1;
+      for (int i = 3; i < forward.length; i++) {
+        forward[i] = coefficients[1] * forward[i - 1] + coefficients[2] * forward[i - 2]
+                + coefficients[3] * forward[i - 3];
+      }
+
+      double previous1 = 0;
+      double previous2 = 0;
+      double previous3 = 0;
+      for (int i = forward.length - 1; i >= 3; i--) {
+        double value = coefficients[0] * forward[i] + coefficients[1] * previous1
+                + coefficients[2] * previous2 + coefficients[3] * previous3;
+        previous3 = previous2;
+        previous2 = previous1;
+        previous1 = value;
+      }
+
+      boundary[0][k] = previous1;
+      boundary[1][k] = previous2;
+      boundary[2][k] = previous3;
+    }
+
+    return boundary;
+  }
+
+  /**
+   * Helper method to run the recursion along a band of rows.
+   *
+   * @param canvas image data.
+   * @param target canvas receiving the blurred rows.
+   * @param coefficients gain and weights of the recursion.
+   * @param boundary start of the backward recursion, see
+   *                 {@link #computeBoundary(double[], double)}.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void blurRows(Canvas canvas, Canvas target, double[] coefficients,
+                               double[][] boundary, int rowStart, int rowEnd) {
+    int width = canvas.getWidth();
+    int[] row = new int[width];
+    float[][] channels = new float[3][width];
+
+    for (int y = rowStart; y < rowEnd; y++) {
+      ColorPlanes.readSpan(canvas, y, 0, width, channels, 0, row);
+      for (float[] values : channels) {
+        blurLine(values, width, coefficients, boundary);
+      }
+      ColorPlanes.writeSpan(canvas, target, y, 0, width, channels, 0, row);
+    }
+  }
+
+  /**
+   * Helper method to run the recursion forwards and backwards along a line of values, in place.
+   *
+   * @param values values of the line.
+   * @param length number of values of the line.
+   * @param coefficients gain and weights of the recursion.
+   * @param boundary start of the backward recursion, see
+   *                 {@link #computeBoundary(double[], double)}.
+   */
+  private static void blurLine(float[] values, int length, double[] coefficients,
+                               double[][] boundary) {
+    double gain = coefficients[0];
+    double b1 = coefficients[1];
+    double b2 = coefficients[2];
+    double b3 = coefficients[3];
+    double end = values[length - 1];
+
+    // a constant signal is a fixed point of the recursion, so starting with the edge pixel
+    // continues the image with it.
+    double previous1 = values[0];
+    double previous2 = previous1;
+    double previous3 = previous1;
+    for (int i = 0; i < length; i++) {
+      double value = gain * values[i] + b1 * previous1 + b2 * previous2 + b3 * previous3;
+      values[i] = (float) value;
+      previous3 = previous2;
+      previous2 = previous1;
+      previous1 = value;
+    }
+
+    double offset1 = previous1 - end;
+    double offset2 = previous2 - end;
+    double offset3 = previous3 - end;
+    previous1 = end + boundary[0][0] * offset1 + boundary[0][1] * offset2
+            + boundary[0][2] * offset3;
+    previous2 = end + boundary[1][0] * offset1 + boundary[1][1] * offset2
+            + boundary[1][2] * offset3;
+    previous3 = end + boundary[2][0] * offset1 + boundary[2][1] * offset2
+            + boundary[2][2] * offset3;
+    for (int i = length - 1; i >= 0; i--) {
+      double value = gain * values[i] + b1 * previous1 + b2 * previous2 + b3 * previous3;
+      values[i] = (float) value;
+      previous3 = previous2;
+      previous2 = previous1;
+      previous1 = value;
+    }
+  }
+
+  /**
+   * Helper method to run the recursion along a band of columns. The band is cut into pieces of
+   * at most {@link #STRIP_PIXELS} pixels, each of which is read into float buffers, blurred and
+   * written back.
+   *
+   * @param canvas input image data, providing the alpha.
+   * @param source canvas holding the blurred rows.
+   * @param target canvas receiving the blurred columns.
+   * @param coefficients gain and weights of the recursion.
+   * @param boundary start of the backward recursion, see
+   *                 {@link #computeBoundary(double[], double)}.
+   * @param columnStart first column of the band, inclusive.
+   * @param columnEnd last column of the band, exclusive.
+   */
+  private static void blurColumns(Canvas canvas, Canvas source, Canvas target,
+                                  double[] coefficients, double[][] boundary, int columnStart,
+                                  int columnEnd) {
+    int height = canvas.getHeight();
+    int stripWidth = Math.max(1, Math.min(columnEnd - columnStart, STRIP_PIXELS / height));
+    int[] row = new int[stripWidth];
+    float[][] strip = new float[3][height * stripWidth];
+
+    for (int x0 = columnStart; x0 < columnEnd; x0 += stripWidth) {
+      int x1 = Math.min(columnEnd, x0 + stripWidth);
+      int columns = x1 - x0;
+      for (int y = 0; y < height; y++) {
+        ColorPlanes.readSpan(source, y, x0, x1, strip, y * columns, row);
+      }
+
+      for (float[] plane : strip) {
+        blurStrip(plane, height, columns, coefficients, boundary);
+      }
+
+      for (int y = 0; y < height; y++) {
+        ColorPlanes.writeSpan(canvas, target, y, x0, x1, strip, y * columns, row);
+      }
+    }
+  }
+
+  /**
+   * Helper method to run the recursion along the columns of a strip, in place. The strip is
+   * still walked row by row, with the state of the recursion kept per column.
+   *
+   * @param plane values of a channel of the strip, row by row.
+   * @param height number of rows of the strip.
+   * @param columns number of columns of the strip.
+   * @param coefficients gain and weights of the recursion.
+   * @param boundary start of the backward recursion, see
+   *                 {@link #computeBoundary(double[], double)}.
+   */
+  private static void blurStrip(float[] plane, int height, int columns, double[] coefficients,
+                                double[][] boundary) {
+    int lastRow = (height - 1) * columns;
+    double[][] previous = new double[3][columns];
+    double[] end = new double[columns];
+
+    for (int x = 0; x < columns; x++) {
+      end[x] = plane[lastRow + x];
+      previous[0][x] = plane[x];
+      previous[1][x] = previous[0][x];
+      previous[2][x] = previous[0][x];
+    }
+    for (int y = 0; y < height; y++) {
+      stepColumns(plane, y * columns, coefficients, previous);
+    }
+
+    for (int x = 0; x < columns; x++) {
+      double offset1 = previous[0][x] - end[x];
+      double offset2 = previous[1][x] - end[x];
+      double offset3 = previous[2][x] - end[x];
+      for (int state = 0; state < 3; state++) {
+        previous[state][x] = end[x] + boundary[state][0] * offset1
+                + boundary[state][1] * offset2 + boundary[state][2] * offset3;
+      }
+    }
+    for (int y = height - 1; y >= 0; y--) {
+      stepColumns(plane, y * columns, coefficients, previous);
+    }
+  }
+
+  /**
+   * Helper method to advance the recursion along a run of columns by one row, in place.
+   *
+   * @param plane color plane.
+   * @param offset index of the first pixel of the run in the current row.
+   * @param coefficients gain and weights of the recursion.
+   * @param previous previous outputs of the recursion per column, most recent first.
+   */
+  private static void stepColumns(float[] plane, int offset, double[] coefficients,
+                                  double[][] previous) {
+    double gain = coefficients[0];
+    double b1 = coefficients[1];
+    double b2 = coefficients[2];
+    double b3 = coefficients[3];
+    double[] previous1 = previous[0];
+    double[] previous2 = previous[1];
+    double[] previous3 = previous[2];
+
+    for (int x = 0; x < previous1.length; x++) {
+      double value = gain * plane[offset + x] + b1 * previous1[x] + b2 * previous2[x]
+              + b3 * previous3[x];
+      plane[offset + x] = (float) value;
+      previous3[x] = previous2[x];
+      previous2[x] = previous1[x];
+      previous1[x] = value;
+    }
+  }
+
+  /**
+   * Helper method to sample a Gaussian over three standard deviations on each side of its
+   * center, normalized to a sum of 1.
+   *
+   * @param sigma standard deviation of the Gaussian.
+   * @return weights of the samples.
+   */
+  private static float[] sampleGaussian(float sigma) {
+    int radius = (int) Math.ceil(3 * sigma);
+    double[] samples = new double[2 * radius + 1];
+    double sum = 0;
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = Math.exp(-(i - radius) * (i - radius) / (2.0 * sigma * sigma));
+      sum += samples[i];
+    }
+
+    float[] weights = new float[samples.length];
+    for (int i = 0; i < samples.length; i++) {
+      weights[i] = (float) (samples[i] / sum);
+    }
+
+    return weights;
+  }
+
+  /**
+   * Helper method to convolve a band of rows with sampled weights. Every row is read into a
+   * buffer padded with its edge pixels first.
+   *
+   * @param canvas image data.
+   * @param target canvas receiving the blurred rows.
+   * @param weights weights of the samples.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   */
+  private static void convolveRows(Canvas canvas, Canvas target, float[] weights, int rowStart,
+                                   int rowEnd) {
+    int width = canvas.getWidth();
+    int radius = weights.length / 2;
+    int[] row = new int[width];
+    float[][] padded = new float[3][width + 2 * radius];
+    float[][] results = new float[3][width];
+    double[] sums = new double[width];
+
+    for (int y = rowStart; y < rowEnd; y++) {
+      ColorPlanes.readSpan(canvas, y, 0, width, padded, radius, row);
+      for (int channel = 0; channel < 3; channel++) {
+        Borders.pad(padded[channel], radius, width, BorderEnum.CLAMP, 0);
+        Arrays.fill(sums, 0);
+        for (int j = 0; j < weights.length; j++) {
+          PlaneKernels.multiplyAdd(padded[channel], j, weights[j], sums, 0, width);
+        }
+        for (int x = 0; x < width; x++) {
+          results[channel][x] = (float) sums[x];
+        }
+      }
+      ColorPlanes.writeSpan(canvas, target, y, 0, width, results, 0, row);
+    }
+  }
+
+  /**
+   * Helper method to convolve a band of columns with sampled weights. The band is walked down
+   * the image, keeping the rows covered by the weights in a ring of buffers, with rows beyond the
+   * edges taken from the edge rows.
+   *
+   * @param canvas input image data, providing the alpha.
+   * @param source canvas holding the blurred rows.
+   * @param target canvas receiving the blurred columns.
+   * @param weights weights of the samples.
+   * @param columnStart first column of the band, inclusive.
+   * @param columnEnd last column of the band, exclusive.
+   */
+  private static void convolveColumns(Canvas canvas, Canvas source, Canvas target,
+                                      float[] weights, int columnStart, int columnEnd) {
+    int height = canvas.getHeight();
+    int size = weights.length;
+    int radius = size / 2;
+    int columns = columnEnd - columnStart;
+    int[] row = new int[columns];
+    float[][] ring = new float[3][size * columns];
+    float[][] results = new float[3][columns];
+    double[] sums = new double[columns];
+
+    for (int sourceRow = -radius; sourceRow < radius; sourceRow++) {
+      ColorPlanes.readSpan(source, Borders.map(BorderEnum.CLAMP, sourceRow, height),
+              columnStart, columnEnd, ring, Math.floorMod(sourceRow, size) * columns, row);
+    }
+
+    for (int y = 0; y < height; y++) {
+      int entering = y + radius;
+      ColorPlanes.readSpan(source, Borders.map(BorderEnum.CLAMP, entering, height),
+              columnStart, columnEnd, ring, Math.floorMod(entering, size) * columns, row);
+      for (int channel = 0; channel < 3; channel++) {
+        Arrays.fill(sums, 0);
+        for (int j = 0; j < size; j++) {
+          int slot = Math.floorMod(y + j - radius, size);
+          PlaneKernels.multiplyAdd(ring[channel], slot * columns, weights[j], sums, 0, columns);
+        }
+        for (int x = 0; x < columns; x++) {
+          results[channel][x] = (float) sums[x];
+        }
+      }
+      ColorPlanes.writeSpan(canvas, target, y, columnStart, columnEnd, results, 0, row);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package model.image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs an operation over the rows of an image, split into bands of consecutive rows which are
+ * processed on a {@link ForkJoinPool}. Small images, and executors with a parallelism of 1, are
+ * processed on the calling thread as a single band.
+ *
+ * <p>The pool is only created when it is first needed. Its workers are daemon threads, so an
+ * executor which is no longer used never keeps the application alive, and idle workers are
+ * retired by the pool after a while.</p>
+ */
+class RowBandExecutor {
+
+  /**
+   * Number of pixels from which an image is split into bands.
+   */
+  static final long PARALLEL_THRESHOLD = 1L << 18;
+
+  /**
+   * Number of bands per thread, so that threads which finish early can pick up remaining work.
+   */
+  private static final int BANDS_PER_THREAD = 4;
+
+  private final int parallelism;
+  private ForkJoinPool pool;
+
+  /**
+   * Instantiates an executor which uses at most the given number of threads.
+   *
+   * @param parallelism maximum number of threads.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  RowBandExecutor(int parallelism) throws IllegalArgumentException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive!");
+    }
+
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Provides the maximum number of threads used by this executor.
+   *
+   * @return parallelism of the executor.
+   */
+  int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Applies the operation to every row of an image of the given dimensions, and returns once all
+   * rows are done. Every row is covered by exactly one band. If the operation fails on any band,
+   * the exception is rethrown on the calling thread.
+   *
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   * @param band operation to apply to a band of rows.
+   */
+  void forEachBand(int height, int width, RowBand band) {
+    int bands = Math.min(height, parallelism * BANDS_PER_THREAD);
+    if (parallelism == 1 || bands <= 1 || (long) height * width < PARALLEL_THRESHOLD) {
+      band.apply(0, height);
+      return;
+    }
+
+    ForkJoinPool executor = getPool();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+    for (int i = 0; i < bands; i++) {
+      int rowStart = (int) ((long) height * i / bands);
+      int rowEnd = (int) ((long) height * (i + 1) / bands);
+      tasks.add(executor.submit(() -> band.apply(rowStart, rowEnd)));
+    }
+
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+  /**
+   * Helper method to create the pool on first use.
+   *
+   * @return pool running the bands.
+   */
+  private synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+
+    return pool;
+  }
+
+  /**
+   * Operation applied to a band of rows of an image.
+   */
+  interface RowBand {
+
+    /**
+     * Processes the rows of a band.
+     *
+     * @param rowStart first row of the band, inclusive.
+     * @param rowEnd last row of the band, exclusive.
+     */
+    void apply(int rowStart, int rowEnd);
+  }
+}
@@ -1,6 +1,6 @@
 package model.image.dither;
 
-import dto.color.BaseColor;
+import dto.color.PackedColor;
 import dto.image.Canvas;
 
 /**
@@ -23,11 +23,8 @@ public class DitherImpl implements Dither {
     this.ditherKernel = ditherKernel;
   }
 
-  private int findClosestPaletteColor(int[] colorComponent) {
-    int color = 0;
-    for (int i = 0; i < 3; i++) {
-      color = colorComponent[i] + color;
-    }
+  private int findClosestPaletteColor(int argb) {
+    int color = PackedColor.red(argb) + PackedColor.green(argb) + PackedColor.blue(argb);
     color = color / 3;
 
     if (color < 128) {
@@ -48,17 +45,13 @@ public class DitherImpl implements Dither {
    */
   @Override
   public Canvas applyDither(Canvas input, int row, int column) {
-    BaseColor color = input.getPixel(row, column);
-    int[] colorComponents = color.getComponents();
-    int newColor = findClosestPaletteColor(colorComponents);
-    int[] newColorComponent = new int[]{newColor, newColor, newColor, 255};
-    int[] errorColorComponent = new int[color.getNumComponents()];
-
-    for (int i = 0; i < color.getNumComponents(); i++) {
-      errorColorComponent[i] = colorComponents[i] - newColor;
-    }
+    int color = input.getArgb(row, column);
+    int newColor = findClosestPaletteColor(color);
+    int errorRed = PackedColor.red(color) - newColor;
+    int errorGreen = PackedColor.green(color) - newColor;
+    int errorBlue = PackedColor.blue(color) - newColor;
 
-    input.setPixel(row, column, color.createColor(newColorComponent));
+    input.setArgb(row, column, PackedColor.pack(newColor, newColor, newColor, 255));
 
     boolean ditherStart = false;
     int ditherStartRow = 0;
@@ -83,17 +76,13 @@ public class DitherImpl implements Dither {
           continue;
         }
 
-        BaseColor pixel = input.getPixel(imageRow, imageColumn);
-        int[] pixelComponentWithError = new int[pixel.getNumComponents()];
-        int[] pixelColor = pixel.getComponents();
-
-        for (int k = 0; k < pixel.getNumComponents(); k++) {
-          pixelComponentWithError[k] =
-                  Math.round(ditherKernel[i][j] * errorColorComponent[k]) + pixelColor[k];
-
-        }
-        input.setPixel(imageRow, imageColumn,
-                pixel.createColorWithoutAlpha(pixelComponentWithError));
+        int pixel = input.getArgb(imageRow, imageColumn);
+        float weight = ditherKernel[i][j];
+        input.setArgb(imageRow, imageColumn, PackedColor.packClamped(
+                Math.round(weight * errorRed) + PackedColor.red(pixel),
+                Math.round(weight * errorGreen) + PackedColor.green(pixel),
+                Math.round(weight * errorBlue) + PackedColor.blue(pixel),
+                PackedColor.alpha(pixel)));
       }
     }
 
@@ -1,6 +1,7 @@
 package model.image.filter;
 
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 
 /**
  * Interface representing a convolutional 2D filter. A convolutional filter is one that utilizes
@@ -31,4 +32,55 @@ public interface ConvolutionalFilter2D {
    * @return the value of the new pixel.
    */
   BaseColor getValue(BaseColor[][] data);
+
+  /**
+   * Returns the weights of the filter if the new value of every channel is simply the weighted
+   * sum of the same channel in the neighbourhood, truncated to an integer. Operations can use the
+   * weights to process one channel at a time. Filters that cannot be expressed this way return
+   * null, which is also the default.
+   *
+   * @return copy of the filter weights, or null.
+   */
+  default float[][] getWeights() {
+    return null;
+  }
+
+  /**
+   * Returns the weights of a separable filter as two vectors, a column and a row, whose outer
+   * product gives the weights returned by {@link #getWeights()}, i.e.
+   * {@code weights[i][j] == column[i] * row[j]}. Operations can then apply the filter as a
+   * horizontal pass with the row followed by a vertical pass with the column, which costs 2K
+   * instead of K * K multiplications per pixel for a K x K filter. Filters that are not
+   * separable return null, which is also the default.
+   *
+   * @return array holding the column and the row, in this order, or null.
+   */
+  default float[][] getSeparableWeights() {
+    return null;
+  }
+
+  /**
+   * Performs convolution over the given packed ARGB data and returns the new pixel value in the
+   * same packed form. The default implementation converts the data to color objects and
+   * delegates to {@link #getValue(BaseColor[][])}; implementations should override it to avoid
+   * creating objects for every pixel.
+   *
+   * @param data packed ARGB data over which the convolution is to be performed.
+   * @return the packed value of the new pixel.
+   */
+  default int getArgbValue(int[][] data) {
+    if (data == null) {
+      throw new IllegalArgumentException("data cannot be null");
+    }
+
+    BaseColor[][] colors = new BaseColor[data.length][];
+    for (int i = 0; i < data.length; i++) {
+      colors[i] = new BaseColor[data[i].length];
+      for (int j = 0; j < data[i].length; j++) {
+        colors[i][j] = PackedColor.toColor(data[i][j]);
+      }
+    }
+
+    return PackedColor.fromColor(getValue(colors));
+  }
 }
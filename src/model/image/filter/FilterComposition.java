@@ -0,0 +1,133 @@
+package model.image.filter;
+
+/**
+ * Composition of linear filters. Applying a filter of size K1 and then a filter of size K2 is
+ * the same as applying a single filter of size K1 + K2 - 1, whose weights are the convolution of
+ * the two weight matrices. Chains of filters can therefore be applied in a single pass over the
+ * image.
+ *
+ * <p>The composed filter differs from the chain in two ways. The chain truncates and clamps its
+ * intermediate results, the composed filter does not. Near the borders, the chain treats the
+ * pixels outside of the intermediate image as black, whereas the composed filter only treats the
+ * pixels outside of the input image as black. Both only affect the pixels within the radius of
+ * the composed filter from the border, or pixels whose intermediate values were out of range;
+ * {@link #keepsRange(float[][])} tells whether a filter can produce such values.</p>
+ */
+public final class FilterComposition {
+
+  /**
+   * Cost of a pass over the image, i.e. reading every pixel and writing the result, in
+   * multiplications per pixel and channel.
+   */
+  public static final int PASS_COST = 8;
+
+  /**
+   * Tolerance of the sum of the weights of a filter which keeps the range, so that filters whose
+   * weights are meant to add up to 1 pass despite rounding.
+   */
+  private static final double RANGE_TOLERANCE = 1e-6;
+
+  private FilterComposition() {
+  }
+
+  /**
+   * Provides the number of rows of the filter composed of the given filters.
+   *
+   * @param first filter applied first.
+   * @param second filter applied second.
+   * @return size of the composed filter.
+   */
+  public static int composedSize(float[][] first, float[][] second) {
+    checkFilter(first);
+    checkFilter(second);
+    return first.length + second.length - 1;
+  }
+
+  /**
+   * Checks whether the results of a filter always stay within the range of a channel, i.e. its
+   * weights are non-negative and add up to at most 1. The chain never clamps the results of such
+   * a filter, so composing it with the next filter only drops the truncation in between.
+   *
+   * @param filter filter weights.
+   * @return true if the results of the filter never need to be clamped.
+   */
+  public static boolean keepsRange(float[][] filter) {
+    checkFilter(filter);
+    double sum = 0;
+    for (float[] row : filter) {
+      for (float weight : row) {
+        if (weight < 0) {
+          return false;
+        }
+        sum += weight;
+      }
+    }
+
+    return sum <= 1 + RANGE_TOLERANCE;
+  }
+
+  /**
+   * Estimates the cost of applying a filter, as the number of multiplications per pixel and
+   * channel plus {@link #PASS_COST} for the pass over the image. Separable filters take two
+   * multiplications per row of weights, all others one per weight.
+   *
+   * @param filter filter weights.
+   * @return estimated cost of applying the filter.
+   */
+  public static int cost(float[][] filter) {
+    SimpleProductFilter2D filter2D = new SimpleProductFilter2D(filter);
+    int multiplications = filter2D.getSeparableWeights() != null
+            ? 2 * filter.length : filter.length * filter.length;
+    return multiplications + PASS_COST;
+  }
+
+  /**
+   * Composes two filters into one which has the same effect as applying the first filter and
+   * then the second one. The weights are computed with double precision and rounded once.
+   *
+   * @param first filter applied first.
+   * @param second filter applied second.
+   * @return weights of the composed filter.
+   * @throws IllegalArgumentException if any of the filters is not square.
+   */
+  public static float[][] compose(float[][] first, float[][] second)
+          throws IllegalArgumentException {
+    int size = composedSize(first, second);
+    double[][] weights = new double[size][size];
+    for (int i = 0; i < first.length; i++) {
+      for (int j = 0; j < first.length; j++) {
+        for (int k = 0; k < second.length; k++) {
+          for (int l = 0; l < second.length; l++) {
+            weights[i + k][j + l] += (double) first[i][j] * second[k][l];
+          }
+        }
+      }
+    }
+
+    float[][] composed = new float[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        composed[i][j] = (float) weights[i][j];
+      }
+    }
+
+    return composed;
+  }
+
+  /**
+   * Helper method to check that a filter is a non empty square matrix.
+   *
+   * @param filter filter weights.
+   */
+  private static void checkFilter(float[][] filter) {
+    if (filter == null || filter.length == 0) {
+      throw new IllegalArgumentException("Filter cannot be null/empty");
+    }
+
+    for (float[] row : filter) {
+      if (row == null || row.length != filter.length) {
+        throw new IllegalArgumentException("Filter needs to be a square");
+      }
+    }
+  }
+}
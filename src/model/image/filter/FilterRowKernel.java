@@ -0,0 +1,48 @@
+package model.image.filter;
+
+/**
+ * Adapter which applies a {@link ConvolutionalFilter2D} as a {@link RowKernel}. The window of
+ * every output pixel is copied into a single neighbourhood array which is reused for the whole
+ * image, and handed to {@link ConvolutionalFilter2D#getArgbValue(int[][])}. The kernel itself
+ * allocates nothing per pixel; whether the filter does is up to its implementation.
+ */
+public class FilterRowKernel implements RowKernel {
+  private final ConvolutionalFilter2D filter;
+  private final int[][] window;
+
+  /**
+   * Creates a kernel applying the given filter.
+   *
+   * @param filter filter to be adapted.
+   */
+  public FilterRowKernel(ConvolutionalFilter2D filter) {
+    if (filter == null) {
+      throw new IllegalArgumentException("Filter cannot be null");
+    }
+
+    this.filter = filter;
+    this.window = new int[filter.getHeight()][filter.getWidth()];
+  }
+
+  @Override
+  public int getWidth() {
+    return filter.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return filter.getHeight();
+  }
+
+  @Override
+  public void filterRow(int[][] rows, int[] output, int width) {
+    int filterWidth = window[0].length;
+    for (int x = 0; x < width; x++) {
+      for (int i = 0; i < window.length; i++) {
+        System.arraycopy(rows[i], x, window[i], 0, filterWidth);
+      }
+
+      output[x] = filter.getArgbValue(window);
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package model.image.filter;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of {@link NonLinearFilter2D} which replaces every channel with its median over
+ * a square neighbourhood of {@code 2 * radius + 1} pixels on each side. Pixels outside of the
+ * image repeat the nearest edge pixel.
+ *
+ * <p>The medians are computed with the running histograms of Perreault and Hebert, "Median
+ * filtering in constant time", 2007. A histogram of the column of the neighbourhood is kept for
+ * every column of the image and moved down by one row per output row, by removing one sample
+ * and adding another. Each histogram has a coarse level of 16 bins over the fine level of 256
+ * bins. The coarse histogram of the neighbourhood is moved right by one pixel by adding the
+ * column histogram entering it and removing the one leaving it, while its fine bins are only
+ * brought up to date for the coarse bin holding the median. The median is then found by
+ * scanning at most 16 coarse and 16 fine bins. None of these steps depend on the radius.</p>
+ */
+public class MedianFilter2D implements NonLinearFilter2D {
+
+  private static final int BINS = 256;
+  private static final int COARSE_BINS = 16;
+  private static final int COARSE_SHIFT = 4;
+
+  private final int radius;
+
+  /**
+   * Instantiates a median filter.
+   *
+   * @param radius number of pixels the neighbourhood reaches on each side of its center.
+   * @throws IllegalArgumentException if the radius is negative.
+   */
+  public MedianFilter2D(int radius) throws IllegalArgumentException {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Radius cannot be negative");
+    }
+
+    this.radius = radius;
+  }
+
+  @Override
+  public int getRadius() {
+    return radius;
+  }
+
+  @Override
+  public void filterPlanes(byte[][] sources, byte[][] targets, int height, int width,
+                           int rowStart, int rowEnd) throws IllegalArgumentException {
+    if (sources == null || targets == null || sources.length != targets.length) {
+      throw new IllegalArgumentException("Need a target plane for every source plane");
+    }
+
+    // fine and coarse histograms of the columns of the neighbourhoods of the current row.
+    int[] columnFine = new int[width * BINS];
+    int[] columnCoarse = new int[width * COARSE_BINS];
+    for (int plane = 0; plane < sources.length; plane++) {
+      if (plane > 0) {
+        Arrays.fill(columnFine, 0);
+        Arrays.fill(columnCoarse, 0);
+      }
+      filterPlane(sources[plane], targets[plane], height, width, rowStart, rowEnd, columnFine,
+              columnCoarse);
+    }
+  }
+
+  /**
+   * Helper method to filter a band of rows of a single channel.
+   *
+   * @param source plane of the channel.
+   * @param target plane receiving the filtered rows of the band.
+   * @param height number of rows of the plane.
+   * @param width number of columns of the plane.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   * @param columnFine cleared fine column histograms.
+   * @param columnCoarse cleared coarse column histograms.
+   */
+  private void filterPlane(byte[] source, byte[] target, int height, int width, int rowStart,
+                           int rowEnd, int[] columnFine, int[] columnCoarse) {
+    int[] fine = new int[BINS];
+    int[] coarse = new int[COARSE_BINS];
+    int[] updated = new int[COARSE_BINS];
+    int rank = (2 * radius + 1) * (2 * radius + 1) / 2;
+
+    for (int i = -radius; i <= radius; i++) {
+      updateColumns(source, clamp(rowStart - 1 + i, height), width, columnFine, columnCoarse, 1);
+    }
+
+    for (int y = rowStart; y < rowEnd; y++) {
+      updateColumns(source, clamp(y - radius - 1, height), width, columnFine, columnCoarse, -1);
+      updateColumns(source, clamp(y + radius, height), width, columnFine, columnCoarse, 1);
+
+      Arrays.fill(coarse, 0);
+      for (int j = -radius; j <= radius; j++) {
+        int columnOffset = clamp(j, width) * COARSE_BINS;
+        for (int bin = 0; bin < COARSE_BINS; bin++) {
+          coarse[bin] += columnCoarse[columnOffset + bin];
+        }
+      }
+      Arrays.fill(updated, Integer.MIN_VALUE);
+
+      int rowOffset = y * width;
+      for (int x = 0; x < width; x++) {
+        int count = 0;
+        int coarseBin = 0;
+        while (count + coarse[coarseBin] <= rank) {
+          count += coarse[coarseBin];
+          coarseBin++;
+        }
+
+        updateSegment(coarseBin, x, updated, width, columnFine, fine);
+        int value = coarseBin << COARSE_SHIFT;
+        while (count + fine[value] <= rank) {
+          count += fine[value];
+          value++;
+        }
+        target[rowOffset + x] = (byte) value;
+
+        if (x + 1 < width) {
+          int entering = clamp(x + radius + 1, width) * COARSE_BINS;
+          int leaving = clamp(x - radius, width) * COARSE_BINS;
+          for (int bin = 0; bin < COARSE_BINS; bin++) {
+            coarse[bin] += columnCoarse[entering + bin] - columnCoarse[leaving + bin];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to add the samples of a row to, or remove them from, the column histograms.
+   *
+   * @param source plane of the channel.
+   * @param y row of the samples.
+   * @param width number of columns of the image.
+   * @param columnFine fine column histograms.
+   * @param columnCoarse coarse column histograms.
+   * @param sign 1 to add the samples, -1 to remove them.
+   */
+  private static void updateColumns(byte[] source, int y, int width, int[] columnFine,
+                                    int[] columnCoarse, int sign) {
+    int rowOffset = y * width;
+    for (int x = 0; x < width; x++) {
+      int value = source[rowOffset + x] & 0xFF;
+      columnFine[x * BINS + value] += sign;
+      columnCoarse[x * COARSE_BINS + (value >> COARSE_SHIFT)] += sign;
+    }
+  }
+
+  /**
+   * Helper method to bring the fine bins below a coarse bin up to date with the neighbourhood of
+   * a column. Fine bins are only moved along with the neighbourhood when the median falls into
+   * them, catching up on the columns passed since, or summed anew when the neighbourhood has
+   * moved on completely.
+   *
+   * @param coarseBin coarse bin whose fine bins are needed.
+   * @param x column of the neighbourhood.
+   * @param updated column each segment of fine bins is up to date with.
+   * @param width number of columns of the image.
+   * @param columnFine fine column histograms.
+   * @param fine fine histogram of the neighbourhood.
+   */
+  private void updateSegment(int coarseBin, int x, int[] updated, int width, int[] columnFine,
+                             int[] fine) {
+    int segment = coarseBin << COARSE_SHIFT;
+    int last = updated[coarseBin];
+    if (last == x) {
+      return;
+    }
+
+    if (last == Integer.MIN_VALUE || x - last > 2 * radius + 1) {
+      Arrays.fill(fine, segment, segment + COARSE_BINS, 0);
+      for (int j = -radius; j <= radius; j++) {
+        int column = clamp(x + j, width) * BINS + segment;
+        for (int bin = 0; bin < COARSE_BINS; bin++) {
+          fine[segment + bin] += columnFine[column + bin];
+        }
+      }
+    } else {
+      for (int step = last + 1; step <= x; step++) {
+        int entering = clamp(step + radius, width) * BINS + segment;
+        int leaving = clamp(step - radius - 1, width) * BINS + segment;
+        for (int bin = 0; bin < COARSE_BINS; bin++) {
+          fine[segment + bin] += columnFine[entering + bin] - columnFine[leaving + bin];
+        }
+      }
+    }
+
+    updated[coarseBin] = x;
+  }
+
+  /**
+   * Helper method to map a position to the nearest position inside of the image.
+   *
+   * @param index position, may be outside of the image.
+   * @param length size of the image along the dimension.
+   * @return position inside of the image.
+   */
+  private static int clamp(int index, int length) {
+    return Math.min(length - 1, Math.max(0, index));
+  }
+}
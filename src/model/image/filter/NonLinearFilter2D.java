@@ -0,0 +1,40 @@
+package model.image.filter;
+
+/**
+ * Interface representing a non-linear 2D filter, e.g. a median filter. Unlike a
+ * {@link ConvolutionalFilter2D}, the new value of a channel is not a weighted sum over the
+ * neighbourhood, but depends on the distribution of the values in it. Efficient algorithms for
+ * such filters keep state, e.g. histograms, which is updated as the neighbourhood slides over
+ * the image, so the filter is applied to whole bands of rows of a channel at a time rather than
+ * to one neighbourhood at a time.
+ *
+ * <p>Channels are given as planes of 8-bit samples in row-major order. Implementations must be
+ * safe to use from several threads, each filtering a different band of the same planes.</p>
+ */
+public interface NonLinearFilter2D {
+
+  /**
+   * Return the radius of the filter, i.e. the number of pixels its square neighbourhood reaches
+   * on each side of its center.
+   *
+   * @return the filter radius.
+   */
+  int getRadius();
+
+  /**
+   * Filters a band of rows of every given channel, each on its own. The neighbourhoods may reach
+   * outside of the band, and are read from the whole source planes. Scratch state is set up
+   * once per call and shared by the channels, so all channels of a band should be filtered in
+   * a single call.
+   *
+   * @param sources planes of the channels, which are not modified.
+   * @param targets planes receiving the filtered rows of the band, one per source plane.
+   * @param height number of rows of the planes.
+   * @param width number of columns of the planes.
+   * @param rowStart first row of the band, inclusive.
+   * @param rowEnd last row of the band, exclusive.
+   * @throws IllegalArgumentException if the number of source and target planes differ.
+   */
+  void filterPlanes(byte[][] sources, byte[][] targets, int height, int width, int rowStart,
+                    int rowEnd) throws IllegalArgumentException;
+}
@@ -0,0 +1,79 @@
+package model.image.filter;
+
+/**
+ * Interface representing a convolution kernel which computes a whole row of output pixels at a
+ * time from primitive row buffers. The kernel slides its window along the rows of the
+ * neighbourhood instead of receiving a separate neighbourhood for every pixel, so implementations
+ * can filter an image without allocating anything per pixel.
+ *
+ * <p>Kernels may keep scratch buffers between calls, so an instance must only be used by one
+ * thread at a time. {@link #of(ConvolutionalFilter2D)} creates a kernel for any existing filter.
+ * </p>
+ */
+public interface RowKernel {
+
+  /**
+   * Return the width of the kernel. This corresponds to the number of columns it covers.
+   *
+   * @return the kernel width.
+   */
+  int getWidth();
+
+  /**
+   * Return the height of the kernel. This corresponds to the number of rows it covers.
+   *
+   * @return the kernel height.
+   */
+  int getHeight();
+
+  /**
+   * Computes a row of output pixels. The input holds one row buffer per row of the kernel, with
+   * packed ARGB values, already padded on both sides: the window of output pixel {@code x} covers
+   * the entries {@code x} to {@code x + getWidth() - 1} of every buffer, so each buffer holds at
+   * least {@code width + getWidth() - 1} values.
+   *
+   * @param rows padded rows covered by the kernel, from top to bottom.
+   * @param output buffer receiving the packed ARGB values of the output row.
+   * @param width number of output pixels to compute.
+   */
+  void filterRow(int[][] rows, int[] output, int width);
+
+  /**
+   * Computes a row of output pixels like {@link #filterRow(int[][], int[], int)}, and tells the
+   * kernel which source row the first buffer holds. Filtering consecutive rows passes mostly the
+   * same source rows again, so kernels may keep the work done on a source row for the following
+   * calls. The caller has to make sure that the buffer of a source row holds the same pixels
+   * every time the row is passed, i.e. all calls filter the same image. By default the source
+   * row is ignored.
+   *
+   * @param rows padded rows covered by the kernel, from top to bottom.
+   * @param firstRow source row held by the first buffer, may be outside of the image.
+   * @param output buffer receiving the packed ARGB values of the output row.
+   * @param width number of output pixels to compute.
+   */
+  default void filterRow(int[][] rows, int firstRow, int[] output, int width) {
+    filterRow(rows, output, width);
+  }
+
+  /**
+   * Creates a kernel which computes the same values as the given filter. Filters described by
+   * their weights get a kernel which works directly on the channels of the rows; any other
+   * filter is adapted by handing every window to
+   * {@link ConvolutionalFilter2D#getArgbValue(int[][])}.
+   *
+   * @param filter2D filter to be applied.
+   * @return kernel computing the filter.
+   */
+  static RowKernel of(ConvolutionalFilter2D filter2D) {
+    if (filter2D == null) {
+      throw new IllegalArgumentException("Filter cannot be null");
+    }
+
+    float[][] weights = filter2D.getWeights();
+    if (weights != null) {
+      return new WeightedRowKernel(weights);
+    }
+
+    return new FilterRowKernel(filter2D);
+  }
+}
@@ -1,6 +1,7 @@
 package model.image.filter;
 
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 
 /**
  * Class representing a simple square filter of odd size, which can be applied to an image using
@@ -11,10 +12,21 @@ import dto.color.BaseColor;
  * <p>The filter is applied to each of the channels present in the original image. So, if the
  * image has 3 color channels, the entire filter will be applied thrice to create three
  * new values.</p>
+ *
+ * <p>The filter checks whether its matrix has rank 1, i.e. whether it is the outer product of a
+ * column and a row vector, like the blur filter which is the outer product of [1, 2, 1] / 4 with
+ * itself. Such filters are reported through {@link #getSeparableWeights()}, so that they can be
+ * applied in two one-dimensional passes.</p>
  */
 public class SimpleProductFilter2D implements ConvolutionalFilter2D {
 
+  /**
+   * Tolerance of the rank test, relative to the largest weight of the filter.
+   */
+  private static final double SEPARABLE_TOLERANCE = 1e-6;
+
   private float[][] filter;
+  private float[][] separableWeights;
   private int width;
   private int height;
 
@@ -48,7 +60,11 @@ public class SimpleProductFilter2D implements ConvolutionalFilter2D {
 
     this.width = temp;
     this.height = filter.length;
-    this.filter = filter;
+    this.filter = new float[height][];
+    for (int i = 0; i < height; i++) {
+      this.filter[i] = filter[i].clone();
+    }
+    this.separableWeights = factorize(this.filter);
   }
 
   @Override
@@ -61,6 +77,25 @@ public class SimpleProductFilter2D implements ConvolutionalFilter2D {
     return this.height;
   }
 
+  @Override
+  public float[][] getWeights() {
+    float[][] weights = new float[height][];
+    for (int i = 0; i < height; i++) {
+      weights[i] = filter[i].clone();
+    }
+
+    return weights;
+  }
+
+  @Override
+  public float[][] getSeparableWeights() {
+    if (separableWeights == null) {
+      return null;
+    }
+
+    return new float[][]{separableWeights[0].clone(), separableWeights[1].clone()};
+  }
+
   @Override
   public BaseColor getValue(BaseColor[][] data) throws ArrayIndexOutOfBoundsException {
     // delayed fail implementation. For the sake of efficiency, we do not perform bounds checking,
@@ -87,4 +122,70 @@ public class SimpleProductFilter2D implements ConvolutionalFilter2D {
 
     return sample.createColorWithoutAlpha(newComponents);
   }
+
+  @Override
+  public int getArgbValue(int[][] data) throws ArrayIndexOutOfBoundsException {
+    // same delayed fail approach as getValue, only without creating a color for every tap.
+    if (data == null) {
+      throw new IllegalArgumentException("data cannot be null");
+    }
+
+    double red = 0;
+    double green = 0;
+    double blue = 0;
+    for (int i = 0; i < filter.length; i++) {
+      for (int j = 0; j < filter[i].length; j++) {
+        int argb = data[i][j];
+        red += filter[i][j] * PackedColor.red(argb);
+        green += filter[i][j] * PackedColor.green(argb);
+        blue += filter[i][j] * PackedColor.blue(argb);
+      }
+    }
+
+    return PackedColor.packClamped((int) red, (int) green, (int) blue,
+            PackedColor.alpha(data[0][0]));
+  }
+
+  /**
+   * Helper method to split a filter into a column and a row vector, if it has rank 1. The row
+   * and the column through the largest weight span the matrix in that case: the column is taken
+   * as it is, and the row is divided by the largest weight. Every weight is then checked against
+   * the product of its column and row entries.
+   *
+   * @param filter filter matrix.
+   * @return array holding the column and the row, or null if the filter is not separable.
+   */
+  private static float[][] factorize(float[][] filter) {
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    for (int i = 0; i < filter.length; i++) {
+      for (int j = 0; j < filter[i].length; j++) {
+        if (Math.abs(filter[i][j]) > Math.abs(filter[pivotRow][pivotColumn])) {
+          pivotRow = i;
+          pivotColumn = j;
+        }
+      }
+    }
+
+    double pivot = filter[pivotRow][pivotColumn];
+    float[] column = new float[filter.length];
+    float[] row = new float[filter[0].length];
+    for (int i = 0; i < column.length; i++) {
+      column[i] = filter[i][pivotColumn];
+    }
+    for (int j = 0; j < row.length; j++) {
+      row[j] = pivot == 0 ? 1 : (float) (filter[pivotRow][j] / pivot);
+    }
+
+    double tolerance = SEPARABLE_TOLERANCE * Math.abs(pivot);
+    for (int i = 0; i < column.length; i++) {
+      for (int j = 0; j < row.length; j++) {
+        if (Math.abs((double) column[i] * row[j] - filter[i][j]) > tolerance) {
+          return null;
+        }
+      }
+    }
+
+    return new float[][]{column, row};
+  }
 }
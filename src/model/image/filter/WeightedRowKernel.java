@@ -0,0 +1,161 @@
+package model.image.filter;
+
+import java.util.Arrays;
+
+import dto.color.PackedColor;
+
+/**
+ * Kernel which computes every color channel as the weighted sum of the same channel in the
+ * window, truncated to an integer and clamped, like {@link SimpleProductFilter2D}. The alpha of
+ * an output pixel is that of the top left pixel of its window.
+ *
+ * <p>Each input row is split into its color channels into a ring of scratch buffers, and the
+ * weights then slide over these buffers. When the caller passes the source row of the window,
+ * see {@link RowKernel#filterRow(int[][], int, int[], int)}, the ring is keyed by source row and
+ * only the row entering the window is split, so every row is split once instead of once per row
+ * of the kernel. The sums are accumulated in the same order as
+ * {@link SimpleProductFilter2D#getArgbValue(int[][])}, so both give the same results.</p>
+ */
+public class WeightedRowKernel implements RowKernel {
+  private static final int NO_ROW = Integer.MIN_VALUE;
+
+  private final float[][] weights;
+  private final int width;
+  private final int height;
+  private int[][] red;
+  private int[][] green;
+  private int[][] blue;
+  // source row held by each slot of the scratch buffers, or NO_ROW.
+  private final int[] splitRows;
+  // slot holding each row of the current window.
+  private final int[] slots;
+  private int splitLength;
+
+  /**
+   * Creates a kernel with the given weights.
+   *
+   * @param weights weights of the kernel, a rectangular matrix.
+   */
+  public WeightedRowKernel(float[][] weights) {
+    if (weights == null || weights.length == 0 || weights[0] == null
+            || weights[0].length == 0) {
+      throw new IllegalArgumentException("Weights cannot be null/empty");
+    }
+
+    this.height = weights.length;
+    this.width = weights[0].length;
+    this.weights = new float[height][];
+    for (int i = 0; i < height; i++) {
+      if (weights[i] == null || weights[i].length != width) {
+        throw new IllegalArgumentException("Weights should have uniform dimensions!");
+      }
+
+      this.weights[i] = weights[i].clone();
+    }
+
+    this.red = new int[height][0];
+    this.green = new int[height][0];
+    this.blue = new int[height][0];
+    this.splitRows = new int[height];
+    this.slots = new int[height];
+    Arrays.fill(splitRows, NO_ROW);
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public void filterRow(int[][] rows, int[] output, int outputWidth) {
+    int length = outputWidth + width - 1;
+    for (int i = 0; i < height; i++) {
+      split(rows[i], i, length);
+      splitRows[i] = NO_ROW;
+      slots[i] = i;
+    }
+
+    accumulate(rows[0], output, outputWidth);
+  }
+
+  @Override
+  public void filterRow(int[][] rows, int firstRow, int[] output, int outputWidth) {
+    int length = outputWidth + width - 1;
+    if (length != splitLength) {
+      Arrays.fill(splitRows, NO_ROW);
+      splitLength = length;
+    }
+
+    for (int i = 0; i < height; i++) {
+      int sourceRow = firstRow + i;
+      int slot = Math.floorMod(sourceRow, height);
+      if (splitRows[slot] != sourceRow) {
+        split(rows[i], slot, length);
+        splitRows[slot] = sourceRow;
+      }
+      slots[i] = slot;
+    }
+
+    accumulate(rows[0], output, outputWidth);
+  }
+
+  /**
+   * Helper method to split a padded row into its color channels.
+   *
+   * @param row padded row of packed ARGB values.
+   * @param slot index of the scratch buffers receiving the channels.
+   * @param length number of values to split.
+   */
+  private void split(int[] row, int slot, int length) {
+    if (red[slot].length < length) {
+      red[slot] = new int[length];
+      green[slot] = new int[length];
+      blue[slot] = new int[length];
+    }
+
+    int[] redRow = red[slot];
+    int[] greenRow = green[slot];
+    int[] blueRow = blue[slot];
+    for (int x = 0; x < length; x++) {
+      redRow[x] = PackedColor.red(row[x]);
+      greenRow[x] = PackedColor.green(row[x]);
+      blueRow[x] = PackedColor.blue(row[x]);
+    }
+  }
+
+  /**
+   * Helper method to slide the weights over the split rows of the window, which are found in the
+   * scratch buffers given by {@code slots}.
+   *
+   * @param top padded top row of the window, providing the alpha of the output.
+   * @param output buffer receiving the packed ARGB values of the output row.
+   * @param outputWidth number of output pixels to compute.
+   */
+  private void accumulate(int[] top, int[] output, int outputWidth) {
+    for (int x = 0; x < outputWidth; x++) {
+      double redSum = 0;
+      double greenSum = 0;
+      double blueSum = 0;
+      for (int i = 0; i < height; i++) {
+        float[] weightRow = weights[i];
+        int[] redRow = red[slots[i]];
+        int[] greenRow = green[slots[i]];
+        int[] blueRow = blue[slots[i]];
+        for (int j = 0; j < width; j++) {
+          float weight = weightRow[j];
+          redSum += weight * redRow[x + j];
+          greenSum += weight * greenRow[x + j];
+          blueSum += weight * blueRow[x + j];
+        }
+      }
+
+      output[x] = PackedColor.packClamped((int) redSum, (int) greenSum, (int) blueSum,
+              PackedColor.alpha(top[x]));
+    }
+  }
+}
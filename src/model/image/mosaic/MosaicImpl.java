@@ -1,14 +1,9 @@
 package model.image.mosaic;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 
-import dto.color.BaseColor;
 import dto.image.Canvas;
-
-import static model.utils.Util.duplicateCanvas;
+import model.image.PointwiseExecutor;
 
 /**
  * Concrete implementation of the {@link Mosaic} interface. This class performs the mosaic
@@ -20,13 +15,18 @@ import static model.utils.Util.duplicateCanvas;
  *   <li>Then the color of each pixel in the image is replaced with the average color of its
  *   cluster.</li>
  * </ul>
+ *
+ * <p>Pixels are not materialized as objects: the tiles only keep running sums of the colors
+ * assigned to them, and the seed of every pixel is found again while the output is written, so
+ * the mosaic is held in a canvas of the same kind as the image, also off-heap or mapped.</p>
  */
 public class MosaicImpl implements Mosaic {
   private int imageWidth;
   private int imageHeight;
   private Canvas originalCanvas;
   private int seedCount;
-  private HashMap<MosaicPixel, MosaicTile> centerTileMap;
+  private MosaicPixel[] seeds;
+  private MosaicTile[] tiles;
 
   /**
    * Instantiates a new MosaicImpl object.
@@ -40,15 +40,15 @@ public class MosaicImpl implements Mosaic {
     this.seedCount = seedCount;
     this.imageWidth = canvas.getWidth();
     this.imageHeight = canvas.getHeight();
-    this.centerTileMap = new HashMap<>();
+    this.seeds = new MosaicPixel[seedCount];
+    this.tiles = new MosaicTile[seedCount];
 
     selectRandomSeeds();
   }
 
   /**
-   * Helper method to compute the random seeds in the image, and to compute the map of seed
-   * positions to the grid numbers, which will help speed up the process of finding the closest
-   * cluster for each pixel while performing mosaic transformation.
+   * Helper method to compute the random seeds in the image, and to create an empty tile for each
+   * of them.
    */
   private void selectRandomSeeds() {
     Random random = new Random(100);
@@ -57,107 +57,84 @@ public class MosaicImpl implements Mosaic {
       int x = random.nextInt(imageWidth);
       int y = random.nextInt(imageHeight);
 
-      MosaicPixel center = new MosaicPixel(x, y, originalCanvas.getPixel(y, x));
-      MosaicTile tile = new SimpleMosaicTile();
-      tile.addPixel(center);
-      centerTileMap.put(center, tile);
+      seeds[i] = new MosaicPixel(x, y, originalCanvas.getArgb(y, x));
+      tiles[i] = new SimpleMosaicTile(seeds[i]);
     }
   }
 
   @Override
   public Canvas applyMosaic() {
-    Set<MosaicPixel> seeds = centerTileMap.keySet();
+    int[] row = new int[imageWidth];
     for (int i = 0; i < imageHeight; i++) {
+      originalCanvas.readRow(i, row);
       for (int j = 0; j < imageWidth; j++) {
-        // compute distance from each seed pixel.
-        double minDistance = Double.MAX_VALUE;
-        MosaicPixel assignedSeed = null;
-        for (MosaicPixel seed : seeds) {
-          double distance = computePixelDistance(seed.getX(), seed.getY(), j, i);
-
-          if (distance < minDistance) {
-            minDistance = distance;
-            assignedSeed = seed;
-          }
-        }
-
-        if (assignedSeed == null) {
-          throw new IllegalStateException("Could not find seed for pixel!");
-        } else {
-          centerTileMap.get(assignedSeed).addPixel(new MosaicPixel(j, i,
-                  originalCanvas.getPixel(i, j)));
-        }
+        tiles[findSeed(j, i)].addPixel(row[j]);
       }
     }
 
     // compute average color of each of the clusters.
-    Set<Map.Entry<MosaicPixel, MosaicTile>> entrySet = centerTileMap.entrySet();
-    for (Map.Entry<MosaicPixel, MosaicTile> entry : entrySet) {
-      MosaicTile tile = entry.getValue();
-      MosaicPixel center = entry.getKey();
-      BaseColor centerColor = center.getColor();
-      BaseColor newColor = centerColor.createColorWithoutAlpha(
-              computeAverageColor(tile, centerColor.getNumComponents()));
-      setNewColorForTile(newColor, tile);
+    int[] tileColors = new int[seedCount];
+    for (int seed = 0; seed < seedCount; seed++) {
+      tileColors[seed] = tiles[seed].getTileColor();
     }
 
-    // copy data from all tiles onto a new output canvas.
-    Canvas newCanvas = duplicateCanvas(originalCanvas);
-    for (MosaicTile tile : centerTileMap.values()) {
-      for (MosaicPixel pixel : tile.getPixels()) {
-        newCanvas.setPixel(pixel.getY(), pixel.getX(), pixel.getColor());
+    // the seeds are assigned again band by band instead of being kept for the whole image, so
+    // the mosaic needs no memory beyond the output canvas.
+    Canvas newCanvas = originalCanvas.createCompatibleCanvas(imageHeight, imageWidth);
+    PointwiseExecutor.getCommon().forEachBand(imageHeight, imageWidth, (rowStart, rowEnd) -> {
+      int[] band = new int[imageWidth];
+      for (int i = rowStart; i < rowEnd; i++) {
+        for (int j = 0; j < imageWidth; j++) {
+          band[j] = tileColors[findSeed(j, i)];
+        }
+        newCanvas.writeRow(i, band);
       }
-    }
+    });
 
     return newCanvas;
   }
 
   /**
-   * Helper method to compute euclidean distance between 2 2D points.
-   *
-   * @param x1 x coordinate of point 1.
-   * @param y1 y coordinate of point 1.
-   * @param x2 x coordinate of point 2.
-   * @param y2 y coordinate of point 2.
-   * @return distance between the two points.
-   */
-  private double computePixelDistance(int x1, int y1, int x2, int y2) {
-    return Math.sqrt(Math.pow(x1 - x2, 2) + Math.pow(y1 - y2, 2));
-  }
-
-  /**
-   * Helper method to compute average color of a mosaic tile.
+   * Helper method to find the seed closest to a pixel. Of several seeds at the same distance,
+   * the first one is chosen.
    *
-   * @param tile tile containing clustered pixels.
-   * @param numComponents number of components in the color.
-   * @return new component color array.
+   * @param x column of the pixel.
+   * @param y row of the pixel.
+   * @return index of the closest seed.
+   * @throws IllegalStateException if no seed could be found.
    */
-  private int[] computeAverageColor(MosaicTile tile, int numComponents) {
-    int[] componentSums = new int[numComponents];
-    int pixelCount = tile.getPixelCount();
-
-    tile.getPixels().forEach(pixel -> {
-      int[] pixelComponents = pixel.getColor().getComponents();
-      for (int i = 0; i < numComponents; i++) {
-        componentSums[i] += pixelComponents[i];
+  private int findSeed(int x, int y) throws IllegalStateException {
+    long minDistance = Long.MAX_VALUE;
+    int assignedSeed = -1;
+    for (int seed = 0; seed < seedCount; seed++) {
+      long distance = computePixelDistance(seeds[seed].getX(), seeds[seed].getY(), x, y);
+
+      if (distance < minDistance) {
+        minDistance = distance;
+        assignedSeed = seed;
       }
-    });
+    }
 
-    int[] averageComponentValues = new int[numComponents];
-    for (int i = 0; i < numComponents; i++) {
-      averageComponentValues[i] = Math.round((float) componentSums[i] / pixelCount);
+    if (assignedSeed == -1) {
+      throw new IllegalStateException("Could not find seed for pixel!");
     }
 
-    return averageComponentValues;
+    return assignedSeed;
   }
 
   /**
-   * Iterate through all the pixels in a mosaic tile and set the color of each pixel to new color.
+   * Helper method to compute the squared euclidean distance between 2 2D points. The squared
+   * distance orders points the same way as the distance itself, without the square root.
    *
-   * @param newColor new color of the pixels.
-   * @param tile tile for which the color change is to be performed.
+   * @param x1 x coordinate of point 1.
+   * @param y1 y coordinate of point 1.
+   * @param x2 x coordinate of point 2.
+   * @param y2 y coordinate of point 2.
+   * @return squared distance between the two points.
    */
-  private void setNewColorForTile(BaseColor newColor, MosaicTile tile) {
-    tile.getPixels().forEach(pixel -> pixel.setColor(newColor));
+  private long computePixelDistance(int x1, int y1, int x2, int y2) {
+    long dx = x1 - x2;
+    long dy = y1 - y2;
+    return dx * dx + dy * dy;
   }
 }
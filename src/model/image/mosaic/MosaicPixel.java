@@ -1,27 +1,25 @@
 package model.image.mosaic;
 
-import dto.color.BaseColor;
-
 /**
  * Container class for holding the coordinates for a pixel in the image, as well as the color
- * value for that pixel. This class is used to construct tiles in a Mosaic image.
+ * value for that pixel. This class is used to represent the seeds of a Mosaic image.
  */
 class MosaicPixel {
   private int x;
   private int y;
-  private BaseColor baseColor;
+  private int color;
 
   /**
    * Instantiates a new MosaicPixel with the provided coordinates and color.
    *
    * @param x x coordinate of the pixel.
    * @param y y coordinate of the pixel.
-   * @param baseColor color of the pixel.
+   * @param color packed ARGB color of the pixel.
    */
-  MosaicPixel(int x, int y, BaseColor baseColor) {
+  MosaicPixel(int x, int y, int color) {
     this.x = x;
     this.y = y;
-    this.baseColor = baseColor;
+    this.color = color;
   }
 
   /**
@@ -43,20 +41,11 @@ class MosaicPixel {
   }
 
   /**
-   * Returns the color value of the pixel.
+   * Returns the packed ARGB color value of the pixel.
    *
    * @return the color value of the pixel.
    */
-  BaseColor getColor() {
-    return baseColor;
-  }
-
-  /**
-   * Sets the color of the pixel to the provided value.
-   *
-   * @param baseColor new color value.
-   */
-  public void setColor(BaseColor baseColor) {
-    this.baseColor = baseColor;
+  int getColor() {
+    return color;
   }
 }
@@ -1,7 +1,5 @@
 package model.image.mosaic;
 
-import java.util.List;
-
 /**
  * Interface representing a tile in a mosaic image. A tile is simply a collection of pixels in a
  * Mosaic image that are distinctively linked by some common characteristic (such as pixels
@@ -9,11 +7,11 @@ import java.util.List;
  */
 interface MosaicTile {
   /**
-   * Adds a new pixel to the list of pixels in the tile.
+   * Adds a new pixel to the tile.
    *
-   * @param pixel pixel to be added.
+   * @param color packed ARGB color of the pixel to be added.
    */
-  void addPixel(MosaicPixel pixel);
+  void addPixel(int color);
 
   /**
    * Returns the number of pixels in the tile.
@@ -23,9 +21,9 @@ interface MosaicTile {
   int getPixelCount();
 
   /**
-   * Returns a list of all pixels in the tile.
+   * Returns the color that all pixels of the tile should take in the mosaic image.
    *
-   * @return pixel list.
+   * @return packed ARGB color of the tile.
    */
-  List<MosaicPixel> getPixels();
+  int getTileColor();
 }
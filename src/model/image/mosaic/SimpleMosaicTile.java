@@ -1,34 +1,46 @@
 package model.image.mosaic;
 
-import java.util.ArrayList;
-import java.util.List;
+import dto.color.PackedColor;
 
 /**
- * Simple implementation of a MosaicTile. This class simply stores the pixels as is, in their
- * designated original positions.
+ * Simple implementation of a MosaicTile. This class keeps a running sum of the color channels of
+ * the pixels added to it, and colors the tile with their average. The transparency of the tile
+ * is taken from its seed.
  */
 class SimpleMosaicTile implements MosaicTile {
-  private List<MosaicPixel> pixels;
+  private long redSum;
+  private long greenSum;
+  private long blueSum;
+  private int pixelCount;
+  private int alpha;
 
   /**
-   * Instantiates a new empty mosaic tile object.
+   * Instantiates a new mosaic tile holding only its seed.
+   *
+   * @param seed the seed pixel of the tile.
    */
-  SimpleMosaicTile() {
-    this.pixels = new ArrayList<>();
+  SimpleMosaicTile(MosaicPixel seed) {
+    this.alpha = PackedColor.alpha(seed.getColor());
+    addPixel(seed.getColor());
   }
 
   @Override
-  public void addPixel(MosaicPixel pixel) {
-    this.pixels.add(pixel);
+  public void addPixel(int color) {
+    this.redSum += PackedColor.red(color);
+    this.greenSum += PackedColor.green(color);
+    this.blueSum += PackedColor.blue(color);
+    this.pixelCount++;
   }
 
   @Override
   public int getPixelCount() {
-    return this.pixels.size();
+    return this.pixelCount;
   }
 
   @Override
-  public List<MosaicPixel> getPixels() {
-    return this.pixels;
+  public int getTileColor() {
+    return PackedColor.packClamped(Math.round((float) redSum / pixelCount),
+            Math.round((float) greenSum / pixelCount), Math.round((float) blueSum / pixelCount),
+            alpha);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,288 @@
+package model.image.transform;
+
+import dto.color.BaseColor;
+import dto.color.PackedColor;
+
+/**
+ * Implementation of {@link ColorTransform} which looks up the new color of a pixel in a table
+ * computed ahead of time from one or more color transforms. A table can be compiled once and
+ * applied to any number of images, which pays off for transforms applied over and over, and for
+ * chains of transforms, which are baked into a single table.
+ *
+ * <p>An exact table holds the new color for every one of the 2^24 colors and costs 64 MB. A
+ * lattice table only holds the new colors on a coarse lattice over the color cube and
+ * interpolates between them with tetrahedral interpolation. This is off by at most one step for
+ * linear transforms whose results stay in range, but errors grow where a transform clamps or
+ * bends sharply, e.g. a gamma curve near black, and shrink with a finer lattice. The alpha of
+ * every pixel is kept.</p>
+ */
+public final class ColorLookupTable implements ColorTransform {
+
+  /**
+   * Number of lattice points on each axis of the color cube for lattice tables, which places
+   * them 15 steps apart.
+   */
+  public static final int DEFAULT_LATTICE_SIZE = 18;
+
+  private static final int COLORS = 1 << 24;
+
+  // exact table of packed RGB colors indexed by packed RGB colors, or null.
+  private final int[] colors;
+  // new channels at the lattice points, three per point, or null.
+  private final int[] lattice;
+  private final int latticeSize;
+  // lattice cell and position in the cell, in units of 1 / step, of every channel value.
+  private final int[] cells;
+  private final int[] fractions;
+  private final int step;
+
+  /**
+   * Creates a table, either exact or on a lattice.
+   *
+   * @param colors exact table, or null.
+   * @param lattice lattice values, or null.
+   * @param latticeSize number of lattice points on each axis.
+   */
+  private ColorLookupTable(int[] colors, int[] lattice, int latticeSize) {
+    this.colors = colors;
+    this.lattice = lattice;
+    this.latticeSize = latticeSize;
+    this.step = 255 / (latticeSize - 1);
+    this.cells = new int[256];
+    this.fractions = new int[256];
+    for (int value = 0; value < 256; value++) {
+      cells[value] = Math.min(value / step, latticeSize - 2);
+      fractions[value] = value - cells[value] * step;
+    }
+  }
+
+  /**
+   * Compiles a chain of color transforms into an exact table if there is enough free memory for
+   * it, and into a lattice table of {@link #DEFAULT_LATTICE_SIZE} points per axis otherwise.
+   *
+   * @param transforms color transforms, applied in the given order.
+   * @return table applying the chain.
+   * @throws IllegalArgumentException if no transform is given or any of them is null.
+   */
+  public static ColorLookupTable compile(ColorTransform... transforms)
+          throws IllegalArgumentException {
+    Runtime runtime = Runtime.getRuntime();
+    long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    // keep as much room again for the images the table is applied to.
+    if (free >= 2L * COLORS * Integer.BYTES) {
+      return compileExact(transforms);
+    }
+
+    return compileLattice(DEFAULT_LATTICE_SIZE, transforms);
+  }
+
+  /**
+   * Compiles a chain of color transforms into an exact table of all 2^24 colors.
+   *
+   * @param transforms color transforms, applied in the given order.
+   * @return exact table applying the chain.
+   * @throws IllegalArgumentException if no transform is given or any of them is null.
+   */
+  public static ColorLookupTable compileExact(ColorTransform... transforms)
+          throws IllegalArgumentException {
+    checkTransforms(transforms);
+    int[] colors = new int[COLORS];
+    for (int rgb = 0; rgb < COLORS; rgb++) {
+      colors[rgb] = applyChain(transforms, rgb);
+    }
+
+    return new ColorLookupTable(colors, null, 256);
+  }
+
+  /**
+   * Compiles a chain of color transforms into a lattice table. The lattice points must lie on
+   * whole channel values, so {@code latticeSize - 1} has to divide 255.
+   *
+   * @param latticeSize number of lattice points on each axis, e.g. 4, 6, 16, 18 or 52.
+   * @param transforms color transforms, applied in the given order.
+   * @return lattice table applying the chain.
+   * @throws IllegalArgumentException if the lattice size is not valid, if no transform is given
+   *         or any of them is null.
+   */
+  public static ColorLookupTable compileLattice(int latticeSize, ColorTransform... transforms)
+          throws IllegalArgumentException {
+    if (latticeSize < 2 || latticeSize > 256 || 255 % (latticeSize - 1) != 0) {
+      throw new IllegalArgumentException("Lattice size minus one needs to divide 255");
+    }
+
+    checkTransforms(transforms);
+    int step = 255 / (latticeSize - 1);
+    int[] lattice = new int[latticeSize * latticeSize * latticeSize * 3];
+    int index = 0;
+    for (int i = 0; i < latticeSize; i++) {
+      for (int j = 0; j < latticeSize; j++) {
+        for (int k = 0; k < latticeSize; k++) {
+          int rgb = applyChain(transforms, (i * step << 16) | (j * step << 8) | k * step);
+          lattice[index++] = PackedColor.red(rgb);
+          lattice[index++] = PackedColor.green(rgb);
+          lattice[index++] = PackedColor.blue(rgb);
+        }
+      }
+    }
+
+    return new ColorLookupTable(null, lattice, latticeSize);
+  }
+
+  /**
+   * Tells whether the table holds every color, or interpolates between lattice points.
+   *
+   * @return true for an exact table.
+   */
+  public boolean isExact() {
+    return colors != null;
+  }
+
+  @Override
+  public BaseColor transform(BaseColor input) {
+    if (input == null) {
+      throw new IllegalArgumentException("input cannot be null");
+    }
+
+    if (input.getNumComponents() != 3) {
+      throw new IllegalArgumentException("Size of the transform not the same as the number of "
+              + "channels in the color!");
+    }
+
+    int rgb = transformArgb(PackedColor.fromColor(input));
+    return input.createColorWithoutAlpha(new int[]{PackedColor.red(rgb), PackedColor.green(rgb),
+            PackedColor.blue(rgb)});
+  }
+
+  @Override
+  public int transformArgb(int argb) {
+    return (argb & PackedColor.OPAQUE_BLACK)
+            | transformRgb(PackedColor.red(argb), PackedColor.green(argb), PackedColor.blue(argb));
+  }
+
+  /**
+   * Looks up the new color of a pixel given by its channels.
+   *
+   * @param red red channel of the original color.
+   * @param green green channel of the original color.
+   * @param blue blue channel of the original color.
+   * @return new color packed as RGB, with zero alpha.
+   */
+  public int transformRgb(int red, int green, int blue) {
+    if (colors != null) {
+      return colors[(red << 16) | (green << 8) | blue];
+    }
+
+    return interpolate(red, green, blue);
+  }
+
+  /**
+   * Helper method to interpolate the new color of a pixel inside of its lattice cell. The cell is
+   * split into six tetrahedra along its diagonal, and the color is interpolated between the four
+   * corners of the one holding the pixel, weighted by the sorted positions inside of the cell.
+   *
+   * @param red red channel of the original color.
+   * @param green green channel of the original color.
+   * @param blue blue channel of the original color.
+   * @return new color packed as RGB, with zero alpha.
+   */
+  private int interpolate(int red, int green, int blue) {
+    int fr = fractions[red];
+    int fg = fractions[green];
+    int fb = fractions[blue];
+    int strideRed = latticeSize * latticeSize * 3;
+    int strideGreen = latticeSize * 3;
+    int base = cells[red] * strideRed + cells[green] * strideGreen + cells[blue] * 3;
+
+    // corners of the tetrahedron walking from the base along the largest position first.
+    int first;
+    int second;
+    int large;
+    int middle;
+    int small;
+    if (fr >= fg) {
+      if (fg >= fb) {
+        first = strideRed;
+        second = strideRed + strideGreen;
+        large = fr;
+        middle = fg;
+        small = fb;
+      } else if (fr >= fb) {
+        first = strideRed;
+        second = strideRed + 3;
+        large = fr;
+        middle = fb;
+        small = fg;
+      } else {
+        first = 3;
+        second = strideRed + 3;
+        large = fb;
+        middle = fr;
+        small = fg;
+      }
+    } else if (fb >= fg) {
+      first = 3;
+      second = strideGreen + 3;
+      large = fb;
+      middle = fg;
+      small = fr;
+    } else if (fb >= fr) {
+      first = strideGreen;
+      second = strideGreen + 3;
+      large = fg;
+      middle = fb;
+      small = fr;
+    } else {
+      first = strideGreen;
+      second = strideRed + strideGreen;
+      large = fg;
+      middle = fr;
+      small = fb;
+    }
+    int last = strideRed + strideGreen + 3;
+
+    int rgb = 0;
+    for (int channel = 0; channel < 3; channel++) {
+      int index = base + channel;
+      int sum = (step - large) * lattice[index] + (large - middle) * lattice[index + first]
+              + (middle - small) * lattice[index + second] + small * lattice[index + last];
+      rgb = (rgb << 8) | (sum + step / 2) / step;
+    }
+
+    return rgb;
+  }
+
+  /**
+   * Helper method to check the transforms to be compiled.
+   *
+   * @param transforms color transforms.
+   * @throws IllegalArgumentException if no transform is given or any of them is null.
+   */
+  private static void checkTransforms(ColorTransform[] transforms)
+          throws IllegalArgumentException {
+    if (transforms == null || transforms.length == 0) {
+      throw new IllegalArgumentException("At least one color transform is needed");
+    }
+
+    for (ColorTransform transform : transforms) {
+      if (transform == null) {
+        throw new IllegalArgumentException("Color transform cannot be null");
+      }
+    }
+  }
+
+  /**
+   * Helper method to apply a chain of transforms onto an opaque color.
+   *
+   * @param transforms color transforms, applied in the given order.
+   * @param rgb original color packed as RGB.
+   * @return new color packed as RGB, with zero alpha.
+   */
+  private static int applyChain(ColorTransform[] transforms, int rgb) {
+    int argb = rgb | PackedColor.OPAQUE_BLACK;
+    for (ColorTransform transform : transforms) {
+      argb = transform.transformArgb(argb);
+    }
+
+    return argb & ~PackedColor.OPAQUE_BLACK;
+  }
+}
@@ -1,6 +1,7 @@
 package model.image.transform;
 
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 
 /**
  * Interface representing a simple 2D color transform. A color transformation modifies the color
@@ -16,4 +17,29 @@ public interface ColorTransform {
    * @return new color value for the pixel.
    */
   BaseColor transform(BaseColor input);
+
+  /**
+   * Returns the matrix of the transformation if it is linear, i.e. every new channel is the
+   * weighted sum of the red, green and blue channels of the original color, rounded to the
+   * nearest integer. Transformations that cannot be expressed this way return null, which is
+   * also the default.
+   *
+   * @return copy of the 3x3 transformation matrix, or null.
+   */
+  default float[][] getMatrix() {
+    return null;
+  }
+
+  /**
+   * Performs the color transformation on a pixel packed as an ARGB int. The default
+   * implementation delegates to {@link #transform(BaseColor)}; implementations should override
+   * it to avoid creating objects for every pixel. Large images are transformed on several
+   * threads, so this method may be called concurrently.
+   *
+   * @param argb the original packed color of the pixel being transformed.
+   * @return new packed color value for the pixel.
+   */
+  default int transformArgb(int argb) {
+    return PackedColor.fromColor(transform(PackedColor.toColor(argb)));
+  }
 }
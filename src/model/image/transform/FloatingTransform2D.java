@@ -1,6 +1,7 @@
 package model.image.transform;
 
 import dto.color.BaseColor;
+import dto.color.PackedColor;
 
 /**
  * Implementation of {@link ColorTransform}. Specifically, the class implements a linear color
@@ -54,4 +55,52 @@ public class FloatingTransform2D implements ColorTransform {
 
     return input.createColorWithoutAlpha(newCArray);
   }
+
+  @Override
+  public float[][] getMatrix() {
+    if (transformer.length != 3) {
+      return null;
+    }
+
+    float[][] matrix = new float[3][];
+    for (int i = 0; i < 3; i++) {
+      matrix[i] = transformer[i].clone();
+    }
+
+    return matrix;
+  }
+
+  @Override
+  public int transformArgb(int argb) {
+    if (transformer.length != 3) {
+      throw new IllegalArgumentException("Size of the transform not the same as the number of "
+              + "channels in the color!");
+    }
+
+    float red = PackedColor.red(argb);
+    float green = PackedColor.green(argb);
+    float blue = PackedColor.blue(argb);
+
+    return PackedColor.packClamped(transformChannel(transformer[0], red, green, blue),
+            transformChannel(transformer[1], red, green, blue),
+            transformChannel(transformer[2], red, green, blue),
+            PackedColor.alpha(argb));
+  }
+
+  /**
+   * Helper method to compute a single channel of the transformed color.
+   *
+   * @param row row of the transform corresponding to the channel.
+   * @param red red channel of the original color.
+   * @param green green channel of the original color.
+   * @param blue blue channel of the original color.
+   * @return unclamped value of the new channel.
+   */
+  private static int transformChannel(float[] row, float red, float green, float blue) {
+    float newCValue = 0;
+    newCValue += row[0] * red;
+    newCValue += row[1] * green;
+    newCValue += row[2] * blue;
+    return Math.round(newCValue);
+  }
 }
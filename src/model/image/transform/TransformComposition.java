@@ -0,0 +1,102 @@
+package model.image.transform;
+
+/**
+ * Composition of linear color transforms. Applying a transform with matrix A and then one with
+ * matrix B is the same as applying a single transform with the matrix product B * A, so chains
+ * of transforms can be applied in a single pass over the image.
+ *
+ * <p>The composed transform differs from the chain in that the chain rounds and clamps its
+ * intermediate results, the composed transform does not. Dropping the rounding only moves a
+ * channel by at most one step, but dropping the clamping changes the result of the chain
+ * completely, so a transform should only be composed with the next one if
+ * {@link #keepsRange(float[][])} holds.</p>
+ */
+public final class TransformComposition {
+
+  /**
+   * Tolerance of the sum of a row of a transform which keeps the range, so that rows which are
+   * meant to add up to 1, like those of greyscale, pass despite rounding.
+   */
+  private static final double RANGE_TOLERANCE = 1e-6;
+
+  private TransformComposition() {
+  }
+
+  /**
+   * Checks whether the results of a transform always stay within the range of a channel, i.e.
+   * every row of its matrix is non-negative and adds up to at most 1. The chain never clamps the
+   * results of such a transform, so composing it with the next transform only drops the
+   * rounding in between.
+   *
+   * @param matrix matrix of the transform.
+   * @return true if the results of the transform never need to be clamped.
+   */
+  public static boolean keepsRange(float[][] matrix) {
+    checkMatrix(matrix);
+    for (float[] row : matrix) {
+      double sum = 0;
+      for (float weight : row) {
+        if (weight < 0) {
+          return false;
+        }
+        sum += weight;
+      }
+
+      if (sum > 1 + RANGE_TOLERANCE) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Composes two transforms into one which has the same effect as applying the first transform
+   * and then the second one. The matrix is computed with double precision and rounded once.
+   *
+   * @param first matrix of the transform applied first.
+   * @param second matrix of the transform applied second.
+   * @return matrix of the composed transform.
+   * @throws IllegalArgumentException if any of the matrices is not square, or if they differ in
+   *         size.
+   */
+  public static float[][] compose(float[][] first, float[][] second)
+          throws IllegalArgumentException {
+    checkMatrix(first);
+    checkMatrix(second);
+    if (first.length != second.length) {
+      throw new IllegalArgumentException("Transforms need to be of the same size");
+    }
+
+    int size = first.length;
+    float[][] composed = new float[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        double weight = 0;
+        for (int k = 0; k < size; k++) {
+          weight += (double) second[i][k] * first[k][j];
+        }
+        composed[i][j] = (float) weight;
+      }
+    }
+
+    return composed;
+  }
+
+  /**
+   * Helper method to check that a matrix is a non empty square matrix.
+   *
+   * @param matrix matrix of the transform.
+   */
+  private static void checkMatrix(float[][] matrix) {
+    if (matrix == null || matrix.length == 0) {
+      throw new IllegalArgumentException("Transform cannot be null/empty");
+    }
+
+    for (float[] row : matrix) {
+      if (row == null || row.length != matrix.length) {
+        throw new IllegalArgumentException("Transform needs to be a square");
+      }
+    }
+  }
+}
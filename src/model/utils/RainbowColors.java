@@ -4,10 +4,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 import dto.color.BaseColor;
-import dto.color.ColorImpl;
+import dto.color.ColorCache;
+import dto.color.PackedColor;
 
 /**
  * Class for generating a hash map of rainbow colors in reverse VIBGYOR format from index 0 to 6.
+ * The colors are pinned in the {@link ColorCache}, so every map shares the same instances.
  */
 public class RainbowColors {
 
@@ -19,6 +21,12 @@ public class RainbowColors {
   private final static int[] INDIGO = {46, 43, 95, 255};
   private final static int[] VIOLET = {139, 0, 255, 255};
 
+  static {
+    for (int[] color : new int[][]{RED, ORANGE, YELLOW, GREEN, BLUE, INDIGO, VIOLET}) {
+      ColorCache.pin(PackedColor.pack(color[0], color[1], color[2], color[3]));
+    }
+  }
+
   /**
    * This method creates a Hash Map containing colors in reverse VIBGYOR format.
    *
@@ -27,13 +35,13 @@ public class RainbowColors {
   public static Map<Integer, BaseColor> getRainbowMap() {
     Map<Integer, BaseColor> rainbowHM = new HashMap<>();
 
-    rainbowHM.put(0, new ColorImpl(RED));
-    rainbowHM.put(1, new ColorImpl(ORANGE));
-    rainbowHM.put(2, new ColorImpl(YELLOW));
-    rainbowHM.put(3, new ColorImpl(GREEN));
-    rainbowHM.put(4, new ColorImpl(BLUE));
-    rainbowHM.put(5, new ColorImpl(INDIGO));
-    rainbowHM.put(6, new ColorImpl(VIOLET));
+    rainbowHM.put(0, ColorCache.getColor(RED));
+    rainbowHM.put(1, ColorCache.getColor(ORANGE));
+    rainbowHM.put(2, ColorCache.getColor(YELLOW));
+    rainbowHM.put(3, ColorCache.getColor(GREEN));
+    rainbowHM.put(4, ColorCache.getColor(BLUE));
+    rainbowHM.put(5, ColorCache.getColor(INDIGO));
+    rainbowHM.put(6, ColorCache.getColor(VIOLET));
 
     return rainbowHM;
   }
@@ -1,6 +1,5 @@
 package model.utils;
 
-import dto.color.BaseColor;
 import dto.image.Canvas;
 
 /**
@@ -9,20 +8,13 @@ import dto.image.Canvas;
 public class Util {
 
   /**
-   * This method creates a duplicate of the input canvas.
+   * This method creates a duplicate of the input canvas, using the same pixel storage. The
+   * pixels are only copied once either canvas is written to, see {@link Canvas#duplicate()}.
    *
    * @param input canvas
    * @return duplicate canvas
    */
   public static Canvas duplicateCanvas(Canvas input) {
-    Canvas newCanvas = new Canvas(input.getHeight(), input.getWidth());
-
-    for (int i = 0; i < input.getHeight(); i++) {
-      for (int j = 0; j < input.getWidth(); j++) {
-        BaseColor bColor = input.getPixel(i, j);
-        newCanvas.setPixel(i, j, bColor.createColor(bColor.getComponents()));
-      }
-    }
-    return newCanvas;
+    return input.duplicate();
   }
 }
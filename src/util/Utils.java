@@ -3,7 +3,9 @@ package util;
 import java.awt.image.BufferedImage;
 
 import dto.color.BaseColor;
+import dto.image.BufferedCanvas;
 import dto.image.Canvas;
+import model.image.PointwiseExecutor;
 
 /**
  * Utility class containing operations used in the Image processing application.
@@ -11,22 +13,33 @@ import dto.image.Canvas;
 public class Utils {
 
   /**
-   * Converts a {@link dto.image.Image} to {@link java.awt.Image}.
+   * Converts a {@link dto.image.Image} to {@link java.awt.Image}. Images held in a
+   * {@link BufferedCanvas} are returned as they are, without copying; the returned image then
+   * shares its pixels with the canvas. All other images are copied in bands of rows on the
+   * shared {@link PointwiseExecutor}, which uses as many threads as the application allows, see
+   * {@link PointwiseExecutor#setCommonParallelism(int)}. The copy is held on the heap, so it is
+   * meant for displaying images; {@link io.ImageWriter} writes images without copying them.
    *
    * @param image the custom internal image representation of the application.
    * @return the awt image object.
    */
   public static BufferedImage convertImage(dto.image.Image image) {
+    if (image.getData() instanceof BufferedCanvas) {
+      return ((BufferedCanvas) image.getData()).getBufferedImage();
+    }
+
     BufferedImage bufferedImage = new BufferedImage(image.getWidth(), image.getHeight(),
             image.getBaseImageColorType());
 
     Canvas cvs = image.getData();
-
-    for (int i = 0; i < cvs.getHeight(); i++) {
-      for (int j = 0; j < cvs.getWidth(); j++) {
-        bufferedImage.setRGB(j, i, convertToRGB(cvs.getPixel(i, j)));
+    int width = cvs.getWidth();
+    PointwiseExecutor.getCommon().forEachBand(cvs.getHeight(), width, (rowStart, rowEnd) -> {
+      int[] row = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        cvs.readRow(i, row);
+        bufferedImage.setRGB(0, i, row.length, 1, row, 0, row.length);
       }
-    }
+    });
 
     return bufferedImage;
   }
@@ -0,0 +1,142 @@
+import org.junit.Test;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.filter.SimpleProductFilter2D;
+
+/**
+ * JUNIT test class for the border modes of the filters of {@link ImageModelImpl}. A filter with
+ * a single weight of 1 moves the image, so every filtered pixel is exactly the pixel standing in
+ * for the position it was moved from.
+ */
+public class BorderTest {
+
+  /**
+   * Number of rows and columns of the filters, which reach further beyond the test images than
+   * the images are wide.
+   */
+  private static final int FILTER_SIZE = 13;
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for pixels outside of the image taken as opaque black.
+   */
+  @Test
+  public void testZero() {
+    checkBorder(BorderEnum.ZERO);
+  }
+
+  /**
+   * Test case for pixels outside of the image repeating the nearest edge pixel.
+   */
+  @Test
+  public void testClamp() {
+    checkBorder(BorderEnum.CLAMP);
+  }
+
+  /**
+   * Test case for the image mirrored at its edges, also several times over.
+   */
+  @Test
+  public void testMirror() {
+    checkBorder(BorderEnum.MIRROR);
+  }
+
+  /**
+   * Test case for the image repeating beyond its edges, also several times over.
+   */
+  @Test
+  public void testWrap() {
+    checkBorder(BorderEnum.WRAP);
+  }
+
+  /**
+   * Helper method to move packed, planar and high precision images of several sizes in several
+   * directions and compare every pixel with the one standing in for it. The alpha of a filtered
+   * pixel is that of the top left pixel of its neighbourhood.
+   *
+   * @param border border mode.
+   */
+  private void checkBorder(BorderEnum border) {
+    int[][] sizes = {{3, 2}, {1, 1}, {2, 5}, {8, 9}};
+    int[][] weights = {{0, 0}, {FILTER_SIZE - 1, FILTER_SIZE - 1}, {2, 9}};
+    int center = FILTER_SIZE / 2;
+
+    for (int[] size : sizes) {
+      Canvas canvas = TestImages.createImage(size[0], size[1], size[0] * 17L + size[1]);
+      for (int[] weight : weights) {
+        float[][] filter = new float[FILTER_SIZE][FILTER_SIZE];
+        filter[weight[0]][weight[1]] = 1;
+
+        Canvas expected = new Canvas(size[0], size[1]);
+        for (int y = 0; y < size[0]; y++) {
+          for (int x = 0; x < size[1]; x++) {
+            int color = getPixel(canvas, border, y + weight[0] - center, x + weight[1] - center);
+            int corner = getPixel(canvas, border, y - center, x - center);
+            expected.setArgb(y, x, (corner & PackedColor.OPAQUE_BLACK)
+                    | (color & ~PackedColor.OPAQUE_BLACK));
+          }
+        }
+
+        Canvas[] images = {canvas, PlanarCanvas.of(canvas), FloatCanvas.of(canvas)};
+        for (Canvas image : images) {
+          TestImages.checkPixels(expected,
+                  model.applyFilter(new SimpleProductFilter2D(filter), image, border));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to find the pixel standing in for a position, by reflecting or moving it into
+   * the image step by step.
+   *
+   * @param canvas image data.
+   * @param border border mode.
+   * @param y row of the position, may be outside of the image.
+   * @param x column of the position, may be outside of the image.
+   * @return pixel standing in for the position, opaque black for a zero pixel.
+   */
+  private static int getPixel(Canvas canvas, BorderEnum border, int y, int x) {
+    int row = map(border, y, canvas.getHeight());
+    int column = map(border, x, canvas.getWidth());
+    if (row < 0 || column < 0) {
+      return PackedColor.OPAQUE_BLACK;
+    }
+
+    return canvas.getArgb(row, column);
+  }
+
+  /**
+   * Helper method to map a position along one dimension of an image into the image.
+   *
+   * @param border border mode.
+   * @param index position, may be outside of the image.
+   * @param length size of the image along the dimension.
+   * @return position inside of the image, or -1 for a zero pixel.
+   */
+  private static int map(BorderEnum border, int index, int length) {
+    while (index < 0 || index >= length) {
+      switch (border) {
+        case CLAMP:
+          return index < 0 ? 0 : length - 1;
+        case MIRROR:
+          index = index < 0 ? -1 - index : 2 * length - 1 - index;
+          break;
+        case WRAP:
+          index += index < 0 ? length : -length;
+          break;
+        default:
+          return -1;
+      }
+    }
+
+    return index;
+  }
+}
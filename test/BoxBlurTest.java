@@ -0,0 +1,140 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+
+/**
+ * JUNIT test class comparing the box blur of {@link ImageModelImpl} with the mean over every
+ * window computed directly.
+ */
+public class BoxBlurTest {
+
+  /**
+   * Allowance for the rounding of the floating point sums of high precision images.
+   */
+  private static final double FLOAT_ERROR = 1e-3;
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for a single pass.
+   */
+  @Test
+  public void testSinglePass() {
+    checkBlur(TestImages.createImage(19, 27, 23), 2, 1);
+  }
+
+  /**
+   * Test case for several passes, which approach a Gaussian blur.
+   */
+  @Test
+  public void testSeveralPasses() {
+    checkBlur(TestImages.createImage(19, 27, 23), 3, 3);
+  }
+
+  /**
+   * Test case for a window reaching beyond the image on every side, which averages the whole
+   * image.
+   */
+  @Test
+  public void testWideWindow() {
+    checkBlur(TestImages.createImage(5, 8, 24), 10, 2);
+  }
+
+  /**
+   * Test case for a radius of zero, which keeps the image as it is.
+   */
+  @Test
+  public void testZeroRadius() {
+    Canvas canvas = TestImages.createImage(5, 8, 25);
+    TestImages.checkPixels(canvas, model.applyBoxBlur(0, 2, canvas));
+  }
+
+  /**
+   * Test case for a negative radius.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRadius() {
+    model.applyBoxBlur(-1, 1, TestImages.createImage(5, 8, 25));
+  }
+
+  /**
+   * Helper method to compare the blur with the direct means on a packed, a planar and a high
+   * precision image. Every pass of the blur stores its results like the image, so 8-bit channels
+   * may be one step apart per pass. The alpha channels must be kept.
+   *
+   * @param canvas image data.
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   */
+  private void checkBlur(Canvas canvas, int radius, int passes) {
+    double[][][] expected = blur(canvas, radius, passes);
+    Canvas[] images = {canvas, PlanarCanvas.of(canvas), FloatCanvas.of(canvas)};
+    for (Canvas image : images) {
+      Canvas result = model.applyBoxBlur(radius, passes, image);
+      Assert.assertEquals(image.getClass(), result.getClass());
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          for (int channel = 0; channel < 3; channel++) {
+            double actual = result instanceof FloatCanvas
+                    ? ((FloatCanvas) result).getPlane(channel)[y * canvas.getWidth() + x]
+                    : PackedColor.channel(result.getArgb(y, x), channel);
+            double bound = result instanceof FloatCanvas ? FLOAT_ERROR : passes;
+            Assert.assertTrue(Math.abs(expected[channel][y][x] - actual) <= bound);
+          }
+          Assert.assertEquals(PackedColor.alpha(canvas.getArgb(y, x)),
+                  PackedColor.alpha(result.getArgb(y, x)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to blur an image directly. Every pixel of a pass is the mean over the part of
+   * its window inside of the image.
+   *
+   * @param canvas image data.
+   * @param radius number of pixels the window reaches on each side of its center.
+   * @param passes number of times the blur is applied.
+   * @return blurred color channels, indexed by channel, row and column.
+   */
+  private static double[][][] blur(Canvas canvas, int radius, int passes) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    double[][][] values = new double[3][height][width];
+    for (int channel = 0; channel < 3; channel++) {
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          values[channel][y][x] = PackedColor.channel(canvas.getArgb(y, x), channel);
+        }
+      }
+    }
+
+    for (int pass = 0; pass < passes; pass++) {
+      double[][][] means = new double[3][height][width];
+      for (int channel = 0; channel < 3; channel++) {
+        for (int y = 0; y < height; y++) {
+          for (int x = 0; x < width; x++) {
+            double sum = 0;
+            int count = 0;
+            for (int i = Math.max(0, y - radius); i <= Math.min(height - 1, y + radius); i++) {
+              for (int j = Math.max(0, x - radius); j <= Math.min(width - 1, x + radius); j++) {
+                sum += values[channel][i][j];
+                count++;
+              }
+            }
+            means[channel][y][x] = sum / count;
+          }
+        }
+      }
+      values = means;
+    }
+
+    return values;
+  }
+}
@@ -0,0 +1,103 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.image.Canvas;
+import dto.image.CanvasBufferPool;
+import dto.image.PlanarCanvas;
+
+/**
+ * JUNIT test class for the pool of pixel arrays of released heap canvases, see
+ * {@link CanvasBufferPool}.
+ */
+public class BufferPoolTest {
+
+  /**
+   * Test case for the planes of a released canvas, which are borrowed again by the next canvas
+   * of the same size and come back cleared.
+   */
+  @Test
+  public void testReuseCleared() {
+    CanvasBufferPool.clear();
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(6, 11, 3));
+    byte[] red = canvas.getPlane(0);
+    canvas.release();
+
+    PlanarCanvas next = new PlanarCanvas(6, 11);
+    boolean reused = false;
+    for (int channel = 0; channel < 4; channel++) {
+      reused |= next.getPlane(channel) == red;
+    }
+    Assert.assertTrue(reused);
+    checkCleared(next);
+  }
+
+  /**
+   * Test case for the pixels of a released packed canvas, which do not show up in the next canvas
+   * of the same size.
+   */
+  @Test
+  public void testPackedCleared() {
+    CanvasBufferPool.clear();
+    TestImages.createImage(6, 11, 3).release();
+    checkCleared(new Canvas(6, 11));
+  }
+
+  /**
+   * Test case for a canvas of a different size, which does not take a pooled array.
+   */
+  @Test
+  public void testDifferentSize() {
+    CanvasBufferPool.clear();
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(6, 11, 3));
+    byte[] red = canvas.getPlane(0);
+    canvas.release();
+
+    PlanarCanvas next = new PlanarCanvas(11, 7);
+    for (int channel = 0; channel < 4; channel++) {
+      Assert.assertNotSame(red, next.getPlane(channel));
+      Assert.assertEquals(77, next.getPlane(channel).length);
+    }
+  }
+
+  /**
+   * Test case for a pool without capacity, which does not keep released arrays.
+   */
+  @Test
+  public void testZeroCapacity() {
+    CanvasBufferPool.clear();
+    CanvasBufferPool.setCapacity(0);
+    try {
+      PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(6, 11, 3));
+      byte[] red = canvas.getPlane(0);
+      canvas.release();
+
+      PlanarCanvas next = new PlanarCanvas(6, 11);
+      for (int channel = 0; channel < 4; channel++) {
+        Assert.assertNotSame(red, next.getPlane(channel));
+      }
+    } finally {
+      CanvasBufferPool.setCapacity(CanvasBufferPool.DEFAULT_CAPACITY);
+    }
+  }
+
+  /**
+   * Test case for a negative capacity.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    CanvasBufferPool.setCapacity(-1);
+  }
+
+  /**
+   * Helper method to check that every pixel of an image is transparent black.
+   *
+   * @param canvas image data.
+   */
+  private static void checkCleared(Canvas canvas) {
+    for (int y = 0; y < canvas.getHeight(); y++) {
+      for (int x = 0; x < canvas.getWidth(); x++) {
+        Assert.assertEquals(0, canvas.getArgb(y, x));
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.PlanarCanvas;
+import enums.TransformEnum;
+import factory.transform.TransformFactory;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.transform.ColorLookupTable;
+import model.image.transform.ColorTransform;
+import model.image.transform.FloatingTransform2D;
+
+/**
+ * JUNIT test class comparing {@link ColorLookupTable} with the color transforms it is compiled
+ * from.
+ */
+public class ColorLookupTableTest {
+
+  /**
+   * Distance between the sampled values of a channel, chosen so that the samples hit every
+   * position inside of the lattice cells.
+   */
+  private static final int SAMPLE_STEP = 7;
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for an exact table of the sepia transform, which clamps its results.
+   */
+  @Test
+  public void testExactSepia() {
+    FloatingTransform2D sepia = createTransform(TransformEnum.SEPIA);
+    ColorLookupTable table = ColorLookupTable.compileExact(sepia);
+    Assert.assertTrue(table.isExact());
+    checkTable(table, 0, sepia);
+  }
+
+  /**
+   * Test case for an exact table of a chain of transforms.
+   */
+  @Test
+  public void testExactChain() {
+    FloatingTransform2D greyscale = createTransform(TransformEnum.GREYSCALE);
+    FloatingTransform2D sepia = createTransform(TransformEnum.SEPIA);
+    checkTable(ColorLookupTable.compileExact(greyscale, sepia), 0, greyscale, sepia);
+  }
+
+  /**
+   * Test case for a lattice table of greyscale, whose results stay in range.
+   */
+  @Test
+  public void testLatticeGreyscale() {
+    FloatingTransform2D greyscale = createTransform(TransformEnum.GREYSCALE);
+    ColorLookupTable table = ColorLookupTable.compileLattice(
+            ColorLookupTable.DEFAULT_LATTICE_SIZE, greyscale);
+    Assert.assertFalse(table.isExact());
+    checkTable(table, 1, greyscale);
+  }
+
+  /**
+   * Test case for a lattice table of a random transform whose results stay in range, for
+   * several lattice sizes.
+   */
+  @Test
+  public void testLatticeInRange() {
+    Random random = new Random(5);
+    float[][] matrix = new float[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        matrix[i][j] = random.nextFloat() / 3;
+      }
+    }
+
+    FloatingTransform2D transform = new FloatingTransform2D(matrix);
+    for (int latticeSize : new int[]{4, 18, 52}) {
+      checkTable(ColorLookupTable.compileLattice(latticeSize, transform), 1, transform);
+    }
+  }
+
+  /**
+   * Test case for lattice sizes whose points do not lie on whole channel values.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLatticeSize() {
+    ColorLookupTable.compileLattice(10, createTransform(TransformEnum.GREYSCALE));
+  }
+
+  /**
+   * Test case for a table applied by the model to packed and planar images, which keeps the
+   * alpha of every pixel.
+   */
+  @Test
+  public void testApplyToImages() {
+    FloatingTransform2D sepia = createTransform(TransformEnum.SEPIA);
+    ColorLookupTable table = ColorLookupTable.compileLattice(
+            ColorLookupTable.DEFAULT_LATTICE_SIZE, sepia);
+
+    Canvas canvas = TestImages.createImage(29, 41, 13);
+    for (Canvas image : new Canvas[]{canvas, PlanarCanvas.of(canvas)}) {
+      Canvas result = model.applyTransformer(table, image);
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          Assert.assertEquals(table.transformArgb(image.getArgb(y, x)), result.getArgb(y, x));
+          Assert.assertEquals(PackedColor.alpha(image.getArgb(y, x)),
+                  PackedColor.alpha(result.getArgb(y, x)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to compare a table with the chain of transforms it was compiled from, on a
+   * grid of colors which includes the largest value of every channel.
+   *
+   * @param table compiled table.
+   * @param bound largest difference of a channel.
+   * @param transforms color transforms, applied in the given order.
+   */
+  private static void checkTable(ColorLookupTable table, int bound,
+                                 ColorTransform... transforms) {
+    for (int red = 0; red < 256; red = nextSample(red)) {
+      for (int green = 0; green < 256; green = nextSample(green)) {
+        for (int blue = 0; blue < 256; blue = nextSample(blue)) {
+          int argb = PackedColor.OPAQUE_BLACK | (red << 16) | (green << 8) | blue;
+          int expected = argb;
+          for (ColorTransform transform : transforms) {
+            expected = transform.transformArgb(expected);
+          }
+
+          int actual = table.transformArgb(argb);
+          for (int channel = 0; channel < 3; channel++) {
+            Assert.assertTrue(Math.abs(PackedColor.channel(expected, channel)
+                    - PackedColor.channel(actual, channel)) <= bound);
+          }
+          Assert.assertEquals(PackedColor.alpha(argb), PackedColor.alpha(actual));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to advance a sampled channel value, ending with 255.
+   *
+   * @param value current value.
+   * @return next value, or 256 once 255 has been sampled.
+   */
+  private static int nextSample(int value) {
+    return value == 255 ? 256 : Math.min(value + SAMPLE_STEP, 255);
+  }
+
+  /**
+   * Helper method to create one of the predefined transforms.
+   *
+   * @param type type of the transform.
+   * @return color transform.
+   */
+  private static FloatingTransform2D createTransform(TransformEnum type) {
+    return new FloatingTransform2D(TransformFactory.getTransformer(type));
+  }
+}
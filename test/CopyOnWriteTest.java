@@ -0,0 +1,172 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.image.Canvas;
+import dto.image.CanvasBufferPool;
+import dto.image.DirectCanvas;
+import dto.image.PlanarCanvas;
+
+/**
+ * JUNIT test class for the pixel storage shared between a canvas and its duplicates until one of
+ * them is written to.
+ */
+public class CopyOnWriteTest {
+
+  /**
+   * Test case for writing to a duplicate of a packed canvas.
+   */
+  @Test
+  public void testWriteDuplicate() {
+    Canvas canvas = TestImages.createImage(7, 9, 1);
+    Canvas duplicate = canvas.duplicate();
+    int argb = canvas.getArgb(3, 4);
+    duplicate.setArgb(3, 4, ~argb);
+
+    Assert.assertEquals(~argb, duplicate.getArgb(3, 4));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 1), canvas);
+  }
+
+  /**
+   * Test case for writing to a packed canvas which has a duplicate.
+   */
+  @Test
+  public void testWriteOriginal() {
+    Canvas canvas = TestImages.createImage(7, 9, 1);
+    Canvas duplicate = canvas.duplicate();
+    for (int x = 0; x < 9; x++) {
+      canvas.setArgb(2, x, 0);
+    }
+
+    Assert.assertEquals(0, canvas.getArgb(2, 5));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 1), duplicate);
+  }
+
+  /**
+   * Test case for releasing one owner of a packed pixel array, after which the other owners keep
+   * their pixels and can still be written to on their own.
+   */
+  @Test
+  public void testReleaseOwner() {
+    Canvas canvas = TestImages.createImage(7, 9, 1);
+    Canvas first = canvas.duplicate();
+    Canvas second = canvas.duplicate();
+    canvas.release();
+    TestImages.checkPixels(TestImages.createImage(7, 9, 1), first);
+
+    first.setArgb(0, 0, 0);
+    Assert.assertEquals(0, first.getArgb(0, 0));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 1), second);
+
+    first.release();
+    second.setArgb(6, 8, 0);
+    Assert.assertEquals(0, second.getArgb(6, 8));
+    Assert.assertEquals(TestImages.createImage(7, 9, 1).getArgb(0, 0), second.getArgb(0, 0));
+  }
+
+  /**
+   * Test case for a planar canvas, which only copies the planes that are written to.
+   */
+  @Test
+  public void testPlanarWrite() {
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(7, 9, 2));
+    PlanarCanvas duplicate = (PlanarCanvas) canvas.duplicate();
+    Assert.assertSame(canvas.getPlane(0), duplicate.getPlane(0));
+
+    byte[] red = duplicate.getWritablePlane(0);
+    red[10] = (byte) ~red[10];
+    Assert.assertNotSame(canvas.getPlane(0), red);
+    Assert.assertSame(canvas.getPlane(1), duplicate.getPlane(1));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 2), canvas);
+  }
+
+  /**
+   * Test case for releasing one owner of the planes of a planar canvas.
+   */
+  @Test
+  public void testPlanarReleaseOwner() {
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(7, 9, 2));
+    PlanarCanvas first = (PlanarCanvas) canvas.duplicate();
+    PlanarCanvas second = (PlanarCanvas) canvas.duplicate();
+    canvas.release();
+
+    first.setArgb(1, 1, 0);
+    TestImages.checkPixels(TestImages.createImage(7, 9, 2), second);
+    first.release();
+    TestImages.checkPixels(TestImages.createImage(7, 9, 2), second);
+  }
+
+  /**
+   * Test case for the last owner of a plane, which writes to it in place once all other owners
+   * are released.
+   */
+  @Test
+  public void testPlanarLastOwner() {
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(7, 9, 2));
+    PlanarCanvas duplicate = (PlanarCanvas) canvas.duplicate();
+    byte[] red = duplicate.getPlane(0);
+    canvas.release();
+
+    Assert.assertSame(red, duplicate.getWritablePlane(0));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 2), duplicate);
+  }
+
+  /**
+   * Test case for the planes shared by duplicates, which go back to the pool once the last owner
+   * is released.
+   */
+  @Test
+  public void testPlanarLastRelease() {
+    CanvasBufferPool.clear();
+    PlanarCanvas canvas = PlanarCanvas.of(TestImages.createImage(7, 9, 2));
+    PlanarCanvas duplicate = (PlanarCanvas) canvas.duplicate();
+    byte[] red = canvas.getPlane(0);
+    canvas.release();
+    duplicate.release();
+
+    PlanarCanvas next = new PlanarCanvas(7, 9);
+    boolean reused = false;
+    for (int channel = 0; channel < 4; channel++) {
+      reused |= next.getPlane(channel) == red;
+    }
+    Assert.assertTrue(reused);
+  }
+
+  /**
+   * Test case for writing to an off-heap canvas and to its duplicate, which share their buffer
+   * until then.
+   */
+  @Test
+  public void testDirectWrite() {
+    Canvas canvas = DirectCanvas.of(TestImages.createImage(7, 9, 3));
+    Canvas duplicate = canvas.duplicate();
+    Assert.assertEquals(DirectCanvas.class, duplicate.getClass());
+    int argb = canvas.getArgb(3, 4);
+    duplicate.setArgb(3, 4, ~argb);
+    Assert.assertEquals(~argb, duplicate.getArgb(3, 4));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 3), canvas);
+
+    Canvas second = canvas.duplicate();
+    canvas.writeRow(2, new int[9]);
+    Assert.assertEquals(0, canvas.getArgb(2, 5));
+    TestImages.checkPixels(TestImages.createImage(7, 9, 3), second);
+  }
+
+  /**
+   * Test case for releasing one owner of the buffer of an off-heap canvas, which leaves it to the
+   * other owners.
+   */
+  @Test
+  public void testDirectReleaseOwner() {
+    Canvas canvas = DirectCanvas.of(TestImages.createImage(7, 9, 3));
+    Canvas first = canvas.duplicate();
+    Canvas second = canvas.duplicate();
+    canvas.release();
+    TestImages.checkPixels(TestImages.createImage(7, 9, 3), first);
+
+    first.setArgb(0, 0, 0);
+    first.release();
+    TestImages.checkPixels(TestImages.createImage(7, 9, 3), second);
+    second.setArgb(6, 8, 0);
+    Assert.assertEquals(0, second.getArgb(6, 8));
+  }
+}
@@ -0,0 +1,163 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import dto.color.BaseColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.filter.ConvolutionalFilter2D;
+import model.image.filter.SimpleProductFilter2D;
+
+/**
+ * JUNIT test class comparing large filters applied in frequency space by {@link ImageModelImpl}
+ * with the same filters applied pixel by pixel.
+ */
+public class FftFilterTest {
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for the smallest filter applied in frequency space, on packed images.
+   */
+  @Test
+  public void testSmallestPacked() {
+    checkFilter(createWeights(ImageModelImpl.FFT_KERNEL_SIZE, 5), false);
+  }
+
+  /**
+   * Test case for a larger filter with negative weights, on packed images.
+   */
+  @Test
+  public void testLargerPacked() {
+    float[][] weights = createWeights(ImageModelImpl.FFT_KERNEL_SIZE + 4, 6);
+    weights[0][3] = -0.05f;
+    weights[7][1] = -0.1f;
+    checkFilter(weights, false);
+  }
+
+  /**
+   * Test case for the smallest filter applied in frequency space, on planar and high precision
+   * images.
+   */
+  @Test
+  public void testSmallestPlanar() {
+    checkFilter(createWeights(ImageModelImpl.FFT_KERNEL_SIZE, 8), true);
+  }
+
+  /**
+   * Test case for a filter whose sums are exact in floating point, so that many of them lie
+   * exactly on an integer. Both filter paths must then give the same results.
+   */
+  @Test
+  public void testExactSums() {
+    // a quarter of the sums of four pixels are divisible by 4.
+    int size = ImageModelImpl.FFT_KERNEL_SIZE;
+    float[][] weights = new float[size][size];
+    weights[0][0] = 0.25f;
+    weights[0][size - 1] = 0.25f;
+    weights[size - 1][0] = 0.25f;
+    weights[size / 2][size / 2] = 0.25f;
+
+    SimpleProductFilter2D filter = new SimpleProductFilter2D(weights);
+    Assert.assertNull(filter.getSeparableWeights());
+    Canvas canvas = TestImages.createImage(70, 131, 47);
+    for (Canvas image : new Canvas[]{canvas, PlanarCanvas.of(canvas)}) {
+      for (BorderEnum border : BorderEnum.values()) {
+        TestImages.checkPixels(model.applyFilter(new PixelFilter(filter), image, border),
+                model.applyFilter(filter, image, border));
+      }
+    }
+  }
+
+  /**
+   * Helper method to compare both filter paths for every border mode, on images whose sizes are
+   * no multiple of the tile size, and on images smaller than the filter. Every channel may be
+   * one step apart, as the sums are computed in a different order. The alpha channels must be
+   * equal.
+   *
+   * @param weights weights of the filter.
+   * @param planar whether to use planar and high precision images instead of packed ones.
+   */
+  private void checkFilter(float[][] weights, boolean planar) {
+    SimpleProductFilter2D filter = new SimpleProductFilter2D(weights);
+    Assert.assertNull(filter.getSeparableWeights());
+
+    int[][] sizes = {{37, 53}, {70, 131}, {5, 3}};
+    for (int[] size : sizes) {
+      Canvas canvas = TestImages.createImage(size[0], size[1], size[0] * 31L + size[1]);
+      Canvas[] images = planar
+              ? new Canvas[]{PlanarCanvas.of(canvas), FloatCanvas.of(canvas)}
+              : new Canvas[]{canvas};
+
+      for (Canvas image : images) {
+        for (BorderEnum border : BorderEnum.values()) {
+          Canvas fftResult = model.applyFilter(filter, image, border);
+          Canvas directResult = model.applyFilter(new PixelFilter(filter), image, border);
+          TestImages.checkClose(directResult, fftResult, 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to create random weights which add up to about 1 and are not separable.
+   *
+   * @param size number of rows and columns of the filter.
+   * @param seed seed of the random weights.
+   * @return weights of the filter.
+   */
+  private static float[][] createWeights(int size, long seed) {
+    Random random = new Random(seed);
+    float[][] weights = new float[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        weights[i][j] = 2 * random.nextFloat() / (size * size);
+      }
+    }
+
+    return weights;
+  }
+
+  /**
+   * Filter computing the values of another filter but hiding its weights, so that it is applied
+   * pixel by pixel.
+   */
+  private static class PixelFilter implements ConvolutionalFilter2D {
+
+    private final ConvolutionalFilter2D filter;
+
+    /**
+     * Wraps a filter.
+     *
+     * @param filter filter to delegate to.
+     */
+    PixelFilter(ConvolutionalFilter2D filter) {
+      this.filter = filter;
+    }
+
+    @Override
+    public int getWidth() {
+      return filter.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return filter.getHeight();
+    }
+
+    @Override
+    public BaseColor getValue(BaseColor[][] data) {
+      return filter.getValue(data);
+    }
+
+    @Override
+    public int getArgbValue(int[][] data) {
+      return filter.getArgbValue(data);
+    }
+  }
+}
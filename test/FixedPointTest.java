@@ -0,0 +1,221 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.Image;
+import dto.image.Image2D;
+import dto.image.PlanarCanvas;
+import enums.FilterEnum;
+import enums.TransformEnum;
+import factory.filter.FilterFactory;
+import factory.transform.TransformFactory;
+import model.ExtendedModelImpl;
+import model.ModelImpl;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.filter.SimpleProductFilter2D;
+import model.image.transform.FloatingTransform2D;
+
+/**
+ * JUNIT test class comparing the fixed point filters and color transforms of
+ * {@link ImageModelImpl} with the floating point ones.
+ */
+public class FixedPointTest {
+
+  /**
+   * Largest change of a coefficient when it is rounded to Q15.
+   */
+  private static final double QUANTIZATION_ERROR = 1.0 / (1 << 16);
+
+  /**
+   * Allowance for the rounding of the floating point products.
+   */
+  private static final double FLOAT_ERROR = 1e-3;
+
+  private final ImageModel floatModel = new ImageModelImpl(1);
+  private final ImageModel fixedModel = new ImageModelImpl(1, true);
+
+  /**
+   * Test case for the blur filter.
+   */
+  @Test
+  public void testBlur() {
+    checkFilter(FilterFactory.getFilter(FilterEnum.BLUR));
+  }
+
+  /**
+   * Test case for the sharpen filter, whose negative weights push results out of range.
+   */
+  @Test
+  public void testSharpen() {
+    checkFilter(FilterFactory.getFilter(FilterEnum.SHARPEN));
+  }
+
+  /**
+   * Test case for a filter with random weights.
+   */
+  @Test
+  public void testRandomFilter() {
+    Random random = new Random(7);
+    float[][] weights = new float[7][7];
+    for (float[] row : weights) {
+      for (int j = 0; j < row.length; j++) {
+        row[j] = (random.nextFloat() - 0.3f) / 10;
+      }
+    }
+
+    checkFilter(weights);
+  }
+
+  /**
+   * Test case for the sepia transform.
+   */
+  @Test
+  public void testSepia() {
+    checkTransform(TransformFactory.getTransformer(TransformEnum.SEPIA));
+  }
+
+  /**
+   * Test case for the greyscale transform.
+   */
+  @Test
+  public void testGreyscale() {
+    checkTransform(TransformFactory.getTransformer(TransformEnum.GREYSCALE));
+  }
+
+  /**
+   * Test case for the fixed point mode flag.
+   */
+  @Test
+  public void testFixedPointMode() {
+    Assert.assertFalse(new ImageModelImpl().isFixedPoint());
+    Assert.assertTrue(new ImageModelImpl(2, true).isFixedPoint());
+    Assert.assertFalse(new ModelImpl(false, 2).isFixedPoint());
+    Assert.assertTrue(new ExtendedModelImpl(ExtendedModelImpl.DEFAULT_OFF_HEAP_THRESHOLD, false,
+            2, true).isFixedPoint());
+  }
+
+  /**
+   * Test case for a model in fixed point mode, which filters images like the image model in
+   * fixed point mode.
+   */
+  @Test
+  public void testModelFixedPoint() {
+    float[][] weights = FilterFactory.getFilter(FilterEnum.BLUR);
+    Canvas canvas = TestImages.createImage(41, 29, 42);
+    Image filtered = new ModelImpl(false, 1, true).applyFilter(weights,
+            new Image2D(canvas, BufferedImage.TYPE_INT_ARGB, "png"));
+    TestImages.checkPixels(fixedModel.applyFilter(new SimpleProductFilter2D(weights), canvas),
+            filtered.getData());
+  }
+
+  /**
+   * Helper method to compare both filter paths on packed and planar images. Every channel may be
+   * one step apart, and must be equal unless its exact value lies within the error bound of an
+   * integer. The alpha channels must be equal.
+   *
+   * @param weights weights of the filter.
+   */
+  private void checkFilter(float[][] weights) {
+    double bound = 255 * weights.length * weights.length * QUANTIZATION_ERROR + FLOAT_ERROR;
+    SimpleProductFilter2D filter = new SimpleProductFilter2D(weights);
+
+    for (Canvas canvas : createImages()) {
+      Canvas floatResult = floatModel.applyFilter(filter, canvas);
+      Canvas fixedResult = fixedModel.applyFilter(filter, canvas);
+      int center = weights.length / 2;
+
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          for (int channel = 0; channel < 3; channel++) {
+            double exact = 0;
+            for (int i = 0; i < weights.length; i++) {
+              for (int j = 0; j < weights.length; j++) {
+                if (canvas.isWithinBounds(y + i - center, x + j - center)) {
+                  exact += weights[i][j] * PackedColor.channel(
+                          canvas.getArgb(y + i - center, x + j - center), channel);
+                }
+              }
+            }
+
+            checkChannel(floatResult, fixedResult, y, x, channel,
+                    Math.abs(exact - Math.rint(exact)), bound);
+          }
+
+          Assert.assertEquals(PackedColor.alpha(floatResult.getArgb(y, x)),
+                  PackedColor.alpha(fixedResult.getArgb(y, x)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to compare both transform paths on packed and planar images. Every channel may
+   * be one step apart, and must be equal unless its exact value lies within the error bound of a
+   * rounding step. The alpha channels must be equal.
+   *
+   * @param matrix 3x3 matrix of the transform.
+   */
+  private void checkTransform(float[][] matrix) {
+    double bound = 255 * 3 * QUANTIZATION_ERROR + FLOAT_ERROR;
+    FloatingTransform2D transform = new FloatingTransform2D(matrix);
+
+    for (Canvas canvas : createImages()) {
+      Canvas floatResult = floatModel.applyTransformer(transform, canvas);
+      Canvas fixedResult = fixedModel.applyTransformer(transform, canvas);
+
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          int argb = canvas.getArgb(y, x);
+          for (int channel = 0; channel < 3; channel++) {
+            double exact = 0;
+            for (int j = 0; j < 3; j++) {
+              exact += matrix[channel][j] * PackedColor.channel(argb, j);
+            }
+
+            double step = Math.floor(exact) + 0.5;
+            checkChannel(floatResult, fixedResult, y, x, channel, Math.abs(exact - step), bound);
+          }
+
+          Assert.assertEquals(PackedColor.alpha(floatResult.getArgb(y, x)),
+                  PackedColor.alpha(fixedResult.getArgb(y, x)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to compare a channel of both results.
+   *
+   * @param floatResult floating point result.
+   * @param fixedResult fixed point result.
+   * @param y row of the pixel.
+   * @param x column of the pixel.
+   * @param channel index of the channel.
+   * @param distance distance of the exact value from the nearest rounding step.
+   * @param bound largest error of the fixed point value.
+   */
+  private static void checkChannel(Canvas floatResult, Canvas fixedResult, int y, int x,
+                                   int channel, double distance, double bound) {
+    int expected = PackedColor.channel(floatResult.getArgb(y, x), channel);
+    int actual = PackedColor.channel(fixedResult.getArgb(y, x), channel);
+    Assert.assertTrue(Math.abs(expected - actual) <= 1);
+    if (distance > bound) {
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Helper method to create a random image, as a packed and as a planar canvas.
+   *
+   * @return images holding the same pixels.
+   */
+  private static Canvas[] createImages() {
+    Canvas canvas = TestImages.createImage(41, 29, 42);
+    return new Canvas[]{canvas, PlanarCanvas.of(canvas)};
+  }
+}
@@ -0,0 +1,161 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+
+/**
+ * JUNIT test class comparing the Gaussian blur of {@link ImageModelImpl} with a convolution with
+ * the sampled Gaussian. Narrow blurs are computed as such a convolution, wide blurs, from a sigma
+ * of 3, with a recursion approximating it.
+ */
+public class GaussianBlurTest {
+
+  /**
+   * Allowance for the rounding of the floating point sums of high precision images.
+   */
+  private static final double FLOAT_ERROR = 1e-3;
+
+  /**
+   * Largest difference of the recursion from the sampled Gaussian on the test images. The
+   * recursion has slightly heavier tails than the Gaussian.
+   */
+  private static final double RECURSION_ERROR = 3;
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for a narrow blur, which is convolved with the sampled Gaussian.
+   */
+  @Test
+  public void testNarrow() {
+    checkBlur(TestImages.createImage(23, 31, 29), 1.5f, 1, FLOAT_ERROR);
+  }
+
+  /**
+   * Test case for the widest blur still convolved with the sampled Gaussian, whose window
+   * reaches beyond the image.
+   */
+  @Test
+  public void testNarrowSmallImage() {
+    checkBlur(TestImages.createImage(4, 6, 30), 2.9f, 1, FLOAT_ERROR);
+  }
+
+  /**
+   * Test case for wide blurs, which are computed with the recursion.
+   */
+  @Test
+  public void testWide() {
+    for (float sigma : new float[]{3, 4.5f, 8}) {
+      checkBlur(TestImages.createImage(41, 53, 31), sigma, RECURSION_ERROR, RECURSION_ERROR);
+    }
+  }
+
+  /**
+   * Test case for an image of a single color, which both ways of blurring keep, also at the
+   * edges of the image.
+   */
+  @Test
+  public void testSingleColor() {
+    Canvas canvas = new Canvas(17, 13);
+    for (int y = 0; y < canvas.getHeight(); y++) {
+      for (int x = 0; x < canvas.getWidth(); x++) {
+        canvas.setArgb(y, x, PackedColor.pack(200, 100, 30, 255));
+      }
+    }
+
+    for (float sigma : new float[]{1, 5}) {
+      checkBlur(canvas, sigma, FLOAT_ERROR, FLOAT_ERROR);
+    }
+  }
+
+  /**
+   * Test case for a sigma which is not positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroSigma() {
+    model.applyGaussianBlur(0, TestImages.createImage(4, 6, 30));
+  }
+
+  /**
+   * Helper method to compare the blur with the sampled Gaussian on a packed, a planar and a high
+   * precision image. The alpha channels must be kept.
+   *
+   * @param canvas image data.
+   * @param sigma standard deviation of the Gaussian.
+   * @param bound largest difference of an 8-bit channel.
+   * @param floatBound largest difference of a high precision channel.
+   */
+  private void checkBlur(Canvas canvas, float sigma, double bound, double floatBound) {
+    double[][][] expected = blur(canvas, sigma);
+    Canvas[] images = {canvas, PlanarCanvas.of(canvas), FloatCanvas.of(canvas)};
+    for (Canvas image : images) {
+      Canvas result = model.applyGaussianBlur(sigma, image);
+      Assert.assertEquals(image.getClass(), result.getClass());
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          for (int channel = 0; channel < 3; channel++) {
+            boolean highPrecision = result instanceof FloatCanvas;
+            double actual = highPrecision
+                    ? ((FloatCanvas) result).getPlane(channel)[y * canvas.getWidth() + x]
+                    : PackedColor.channel(result.getArgb(y, x), channel);
+            Assert.assertTrue(Math.abs(expected[channel][y][x] - actual)
+                    <= (highPrecision ? floatBound : bound));
+          }
+          Assert.assertEquals(PackedColor.alpha(canvas.getArgb(y, x)),
+                  PackedColor.alpha(result.getArgb(y, x)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to convolve an image with the Gaussian sampled over three standard deviations
+   * on each side, along the rows and then along the columns. Beyond the edges, the image
+   * continues with its edge pixels.
+   *
+   * @param canvas image data.
+   * @param sigma standard deviation of the Gaussian.
+   * @return blurred color channels, indexed by channel, row and column.
+   */
+  private static double[][][] blur(Canvas canvas, float sigma) {
+    int radius = (int) Math.ceil(3 * sigma);
+    double[] weights = new double[2 * radius + 1];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = Math.exp(-(i - radius) * (i - radius) / (2.0 * sigma * sigma));
+      sum += weights[i];
+    }
+
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    double[][][] result = new double[3][height][width];
+    for (int channel = 0; channel < 3; channel++) {
+      double[][] rows = new double[height][width];
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          for (int i = -radius; i <= radius; i++) {
+            int column = Math.min(width - 1, Math.max(0, x + i));
+            rows[y][x] += weights[i + radius] / sum
+                    * PackedColor.channel(canvas.getArgb(y, column), channel);
+          }
+        }
+      }
+
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          for (int i = -radius; i <= radius; i++) {
+            int row = Math.min(height - 1, Math.max(0, y + i));
+            result[channel][y][x] += weights[i + radius] / sum * rows[row][x];
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,76 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import dto.image.Canvas;
+import dto.image.Image2D;
+import dto.image.MappedCanvas;
+import io.ImageWriter;
+
+/**
+ * JUNIT test class for {@link ImageWriter}, which writes images from their canvases without
+ * copying them.
+ */
+public class ImageWriterTest {
+
+  /**
+   * Test case for a lossless format, which keeps every pixel of packed and mapped images.
+   *
+   * @throws IOException if the image cannot be written or read.
+   */
+  @Test
+  public void testPng() throws IOException {
+    Canvas canvas = TestImages.createImage(37, 53, 43);
+    Canvas mapped = new MappedCanvas(37, 53);
+    mapped.copyRegion(canvas, 0, 0, 0, 0, 37, 53);
+    for (Canvas image : new Canvas[]{canvas, mapped}) {
+      BufferedImage written = write(image, BufferedImage.TYPE_INT_ARGB, "png");
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          Assert.assertEquals(canvas.getArgb(y, x), written.getRGB(x, y));
+        }
+      }
+    }
+  }
+
+  /**
+   * Test case for a format without transparency, to which images with an alpha channel are
+   * written opaque.
+   *
+   * @throws IOException if the image cannot be written or read.
+   */
+  @Test
+  public void testJpgWithAlpha() throws IOException {
+    BufferedImage written = write(TestImages.createImage(37, 53, 44),
+            BufferedImage.TYPE_INT_ARGB, "jpg");
+    Assert.assertFalse(written.getColorModel().hasAlpha());
+    Assert.assertEquals(53, written.getWidth());
+    Assert.assertEquals(37, written.getHeight());
+  }
+
+  /**
+   * Helper method to write an image to a temporary file and read it back.
+   *
+   * @param canvas image data.
+   * @param colorType color type of the image.
+   * @param format file format to write.
+   * @return image read from the file.
+   * @throws IOException if the image cannot be written or read.
+   */
+  private static BufferedImage write(Canvas canvas, int colorType, String format)
+          throws IOException {
+    File file = File.createTempFile("ImageWriterTest", "." + format);
+    try {
+      Assert.assertTrue(ImageWriter.writeImage(new Image2D(canvas, colorType, format),
+              file.getAbsolutePath()));
+      return ImageIO.read(file);
+    } finally {
+      file.delete();
+    }
+  }
+}
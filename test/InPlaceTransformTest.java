@@ -0,0 +1,122 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.TransformEnum;
+import factory.transform.TransformFactory;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.transform.ColorLookupTable;
+import model.image.transform.ColorTransform;
+import model.image.transform.FloatingTransform2D;
+
+/**
+ * JUNIT test class comparing the color transforms of {@link ImageModelImpl} applied in place
+ * with the same transforms applied to a new canvas.
+ */
+public class InPlaceTransformTest {
+
+  private final FloatingTransform2D sepia =
+          new FloatingTransform2D(TransformFactory.getTransformer(TransformEnum.SEPIA));
+
+  /**
+   * Test case for matrix transforms on packed, planar and high precision images, on a single
+   * thread.
+   */
+  @Test
+  public void testMatrixSerial() {
+    checkTransform(new ImageModelImpl(1), sepia, false);
+  }
+
+  /**
+   * Test case for matrix transforms on images split into bands processed on several threads.
+   */
+  @Test
+  public void testMatrixParallel() {
+    checkTransform(new ImageModelImpl(4), sepia, true);
+  }
+
+  /**
+   * Test case for fixed point transforms, on a single thread.
+   */
+  @Test
+  public void testFixedPointSerial() {
+    checkTransform(new ImageModelImpl(1, true), sepia, false);
+  }
+
+  /**
+   * Test case for fixed point transforms, on several threads.
+   */
+  @Test
+  public void testFixedPointParallel() {
+    checkTransform(new ImageModelImpl(4, true), sepia, true);
+  }
+
+  /**
+   * Test case for lookup tables, on a single thread.
+   */
+  @Test
+  public void testLookupSerial() {
+    checkTransform(new ImageModelImpl(1), createTable(), false);
+  }
+
+  /**
+   * Test case for lookup tables, on several threads.
+   */
+  @Test
+  public void testLookupParallel() {
+    checkTransform(new ImageModelImpl(4), createTable(), true);
+  }
+
+  /**
+   * Helper method to compare a transform applied in place with the same transform applied to a
+   * new canvas, on a packed, a planar and a high precision image. The transform in place must
+   * return the canvas it was given, and must not change a duplicate taken before.
+   *
+   * @param model model applying the transform.
+   * @param transform color transform.
+   * @param large whether the images are large enough to be split into bands.
+   */
+  private static void checkTransform(ImageModel model, ColorTransform transform, boolean large) {
+    for (int kind = 0; kind < 3; kind++) {
+      Canvas canvas = createImage(kind, large);
+      Canvas expected = model.applyTransformer(transform, canvas);
+      Canvas duplicate = canvas.duplicate();
+
+      Canvas actual = model.applyTransformerInPlace(transform, canvas);
+      Assert.assertSame(canvas, actual);
+      TestImages.checkEqual(expected, actual);
+      TestImages.checkEqual(createImage(kind, large), duplicate);
+    }
+  }
+
+  /**
+   * Helper method to compile the sepia transform into a lattice table.
+   *
+   * @return lookup table.
+   */
+  private ColorLookupTable createTable() {
+    return ColorLookupTable.compileLattice(ColorLookupTable.DEFAULT_LATTICE_SIZE, sepia);
+  }
+
+  /**
+   * Helper method to create a random image, which is the same for the same arguments.
+   *
+   * @param kind 0 for a packed, 1 for a planar and 2 for a high precision canvas.
+   * @param large whether the image is just above the size from which images are split into
+   *        bands.
+   * @return image data.
+   */
+  private static Canvas createImage(int kind, boolean large) {
+    int width = large ? 515 : 41;
+    int height = large ? (int) (ImageModelImpl.PARALLEL_THRESHOLD / width) + 3 : 29;
+    Canvas canvas = TestImages.createImage(height, width, 19);
+    if (kind == 1) {
+      return PlanarCanvas.of(canvas);
+    }
+
+    return kind == 2 ? FloatCanvas.of(canvas) : canvas;
+  }
+}
@@ -0,0 +1,94 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.filter.MedianFilter2D;
+
+/**
+ * JUNIT test class comparing the median filter applied by {@link ImageModelImpl} with the medians
+ * found by sorting every neighbourhood.
+ */
+public class MedianFilterTest {
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for a radius of zero, which keeps the image as it is.
+   */
+  @Test
+  public void testZeroRadius() {
+    checkMedian(TestImages.createImage(9, 11, 37), 0);
+  }
+
+  /**
+   * Test case for small neighbourhoods.
+   */
+  @Test
+  public void testSmallRadius() {
+    checkMedian(TestImages.createImage(9, 11, 37), 1);
+    checkMedian(TestImages.createImage(9, 11, 38), 2);
+  }
+
+  /**
+   * Test case for neighbourhoods reaching beyond the image on every side.
+   */
+  @Test
+  public void testLargeRadius() {
+    checkMedian(TestImages.createImage(3, 5, 39), 4);
+    checkMedian(TestImages.createImage(1, 7, 40), 3);
+  }
+
+  /**
+   * Test case for a negative radius.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRadius() {
+    new MedianFilter2D(-1);
+  }
+
+  /**
+   * Helper method to compare the median filter with sorted neighbourhoods on a packed, a planar
+   * and a high precision image. Pixels outside of the image repeat the nearest edge pixel, and
+   * the alpha of every pixel is kept.
+   *
+   * @param canvas image data.
+   * @param radius number of pixels the neighbourhood reaches on each side of its center.
+   */
+  private void checkMedian(Canvas canvas, int radius) {
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    Canvas expected = new Canvas(height, width);
+    int[] samples = new int[(2 * radius + 1) * (2 * radius + 1)];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int[] channels = new int[3];
+        for (int channel = 0; channel < 3; channel++) {
+          int count = 0;
+          for (int i = y - radius; i <= y + radius; i++) {
+            for (int j = x - radius; j <= x + radius; j++) {
+              int argb = canvas.getArgb(Math.min(height - 1, Math.max(0, i)),
+                      Math.min(width - 1, Math.max(0, j)));
+              samples[count++] = PackedColor.channel(argb, channel);
+            }
+          }
+          Arrays.sort(samples);
+          channels[channel] = samples[samples.length / 2];
+        }
+        expected.setArgb(y, x, PackedColor.pack(channels[0], channels[1], channels[2],
+                PackedColor.alpha(canvas.getArgb(y, x))));
+      }
+    }
+
+    Canvas[] images = {canvas, PlanarCanvas.of(canvas), FloatCanvas.of(canvas)};
+    for (Canvas image : images) {
+      TestImages.checkPixels(expected, model.applyNonLinearFilter(new MedianFilter2D(radius),
+              image));
+    }
+  }
+}
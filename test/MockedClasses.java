@@ -2,6 +2,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import controller.Controller;
 import controller.ExtendedControllerImpl;
@@ -328,6 +329,53 @@ public class MockedClasses {
       return image1;
     }
 
+    @Override
+    public Image applyTransforms(List<float[][]> transforms, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "Transforms");
+      stringBuilder.append("Model Transforms called with transform count: ")
+              .append(transforms.size()).append("\n");
+      return image1;
+    }
+
+    @Override
+    public Image applyTransformsInPlace(List<float[][]> transforms, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "TransformsInPlace");
+      stringBuilder.append("Model Transforms in place called with transform count: ")
+              .append(transforms.size()).append("\n");
+      return image1;
+    }
+
+    @Override
+    public Image applyFilters(List<float[][]> filters, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "Filters");
+      stringBuilder.append("Model Filters called with filter count: ").append(filters.size())
+              .append("\n");
+      return image1;
+    }
+
+    @Override
+    public Image applyBoxBlur(int radius, int passes, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "BoxBlur");
+      stringBuilder.append("Model Box blur called with radius: ").append(radius).append(
+              " passes: ").append(passes).append("\n");
+      return image1;
+    }
+
+    @Override
+    public Image applyGaussianBlur(float sigma, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "GaussianBlur");
+      stringBuilder.append("Model Gaussian blur called with sigma: ").append(sigma).append("\n");
+      return image1;
+    }
+
+    @Override
+    public Image applyMedianFilter(int radius, Image image) {
+      Image image1 = new Image2D(new Canvas(10, 10), 0, "Median");
+      stringBuilder.append("Model Median filter called with radius: ").append(radius)
+              .append("\n");
+      return image1;
+    }
+
     @Override
     public Image drawCheckerBoard(int boardSize, int squareSize) {
       Image image1 = new Image2D(new Canvas(10, 10), 0, "Checkerboard");
@@ -0,0 +1,130 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
+import enums.FilterEnum;
+import factory.filter.FilterFactory;
+import model.image.ImageModelImpl;
+import model.image.filter.MedianFilter2D;
+import model.image.filter.SimpleProductFilter2D;
+
+/**
+ * JUNIT test class comparing the results of {@link ImageModelImpl} on several threads with those
+ * on a single thread, for images large enough to be split into bands.
+ */
+public class ParallelTest {
+
+  private final ImageModelImpl serialModel = new ImageModelImpl(1);
+  private final ImageModelImpl parallelModel = new ImageModelImpl(4);
+
+  /**
+   * Test case for the blur filter, which is separable.
+   */
+  @Test
+  public void testBlur() {
+    SimpleProductFilter2D filter =
+            new SimpleProductFilter2D(FilterFactory.getFilter(FilterEnum.BLUR));
+    for (Canvas canvas : createImages()) {
+      for (BorderEnum border : BorderEnum.values()) {
+        TestImages.checkEqual(serialModel.applyFilter(filter, canvas, border),
+                parallelModel.applyFilter(filter, canvas, border));
+      }
+    }
+  }
+
+  /**
+   * Test case for the sharpen filter, which is not separable.
+   */
+  @Test
+  public void testSharpen() {
+    SimpleProductFilter2D filter =
+            new SimpleProductFilter2D(FilterFactory.getFilter(FilterEnum.SHARPEN));
+    for (Canvas canvas : createImages()) {
+      for (BorderEnum border : BorderEnum.values()) {
+        TestImages.checkEqual(serialModel.applyFilter(filter, canvas, border),
+                parallelModel.applyFilter(filter, canvas, border));
+      }
+    }
+  }
+
+  /**
+   * Test case for a large filter which is not separable, applied in frequency space.
+   */
+  @Test
+  public void testLargeFilter() {
+    int size = ImageModelImpl.FFT_KERNEL_SIZE;
+    float[][] weights = new float[size][size];
+    Random random = new Random(3);
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        weights[i][j] = random.nextFloat() / (size * size);
+      }
+    }
+
+    SimpleProductFilter2D filter = new SimpleProductFilter2D(weights);
+    for (Canvas canvas : createImages()) {
+      TestImages.checkEqual(serialModel.applyFilter(filter, canvas),
+              parallelModel.applyFilter(filter, canvas));
+    }
+  }
+
+  /**
+   * Test case for the box blur.
+   */
+  @Test
+  public void testBoxBlur() {
+    for (Canvas canvas : createImages()) {
+      TestImages.checkEqual(serialModel.applyBoxBlur(4, 3, canvas),
+              parallelModel.applyBoxBlur(4, 3, canvas));
+    }
+  }
+
+  /**
+   * Test case for the Gaussian blur.
+   */
+  @Test
+  public void testGaussianBlur() {
+    for (Canvas canvas : createImages()) {
+      TestImages.checkEqual(serialModel.applyGaussianBlur(3.5f, canvas),
+              parallelModel.applyGaussianBlur(3.5f, canvas));
+    }
+  }
+
+  /**
+   * Test case for the median filter.
+   */
+  @Test
+  public void testMedian() {
+    for (Canvas canvas : createImages()) {
+      TestImages.checkEqual(serialModel.applyNonLinearFilter(new MedianFilter2D(2), canvas),
+              parallelModel.applyNonLinearFilter(new MedianFilter2D(2), canvas));
+    }
+  }
+
+  /**
+   * Test case for the parallelism of the models.
+   */
+  @Test
+  public void testParallelism() {
+    Assert.assertEquals(3, new ImageModelImpl(3).getParallelism());
+    Assert.assertEquals(1, serialModel.getParallelism());
+  }
+
+  /**
+   * Helper method to create a random image just above the size from which images are split into
+   * bands, as a packed, a planar and a high precision canvas.
+   *
+   * @return images holding the same pixels.
+   */
+  private static Canvas[] createImages() {
+    int width = 515;
+    int height = (int) (ImageModelImpl.PARALLEL_THRESHOLD / width) + 3;
+    Canvas canvas = TestImages.createImage(height, width, 11);
+    return new Canvas[]{canvas, PlanarCanvas.of(canvas), FloatCanvas.of(canvas)};
+  }
+}
@@ -0,0 +1,183 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import dto.color.BaseColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+import dto.image.PlanarCanvas;
+import enums.BorderEnum;
+import model.image.ImageModel;
+import model.image.ImageModelImpl;
+import model.image.filter.ConvolutionalFilter2D;
+import model.image.filter.SimpleProductFilter2D;
+
+/**
+ * JUNIT test class comparing the separable filter path of {@link ImageModelImpl} with the direct
+ * two-dimensional one, and testing the factorization of {@link SimpleProductFilter2D}.
+ */
+public class SeparableFilterTest {
+
+  /**
+   * Allowance for the different order of the floating point sums of high precision images.
+   */
+  private static final double FLOAT_ERROR = 1e-3;
+
+  private static final float[] COLUMN = {0.1f, 0.3f, 0.4f, 0.15f, 0.05f};
+  private static final float[] ROW = {0.2f, 0.2f, 0.3f, 0.1f, 0.2f};
+
+  private final ImageModel model = new ImageModelImpl(1);
+
+  /**
+   * Test case for a filter of rank 1, which is split into its column and row.
+   */
+  @Test
+  public void testFactorizeRankOne() {
+    float[][] weights = outerProduct(COLUMN, ROW);
+    float[][] separable = new SimpleProductFilter2D(weights).getSeparableWeights();
+    Assert.assertNotNull(separable);
+
+    for (int i = 0; i < weights.length; i++) {
+      for (int j = 0; j < weights.length; j++) {
+        Assert.assertTrue(Math.abs(separable[0][i] * separable[1][j] - weights[i][j]) < 1e-6);
+      }
+    }
+  }
+
+  /**
+   * Test case for a filter of rank 2, which is not separable.
+   */
+  @Test
+  public void testFactorizeRankTwo() {
+    float[][] weights = outerProduct(COLUMN, ROW);
+    weights[0][0] += 0.05f;
+    weights[4][4] -= 0.05f;
+    Assert.assertNull(new SimpleProductFilter2D(weights).getSeparableWeights());
+  }
+
+  /**
+   * Test case for a filter without any non-zero weight, which is trivially separable.
+   */
+  @Test
+  public void testFactorizeZero() {
+    Assert.assertNotNull(new SimpleProductFilter2D(new float[3][3]).getSeparableWeights());
+  }
+
+  /**
+   * Test case for the separable path on packed images, for every border mode.
+   */
+  @Test
+  public void testPacked() {
+    for (BorderEnum border : BorderEnum.values()) {
+      checkFilter(TestImages.createImage(23, 37, 7), border);
+    }
+  }
+
+  /**
+   * Test case for the separable path on planar images, for every border mode.
+   */
+  @Test
+  public void testPlanar() {
+    for (BorderEnum border : BorderEnum.values()) {
+      checkFilter(PlanarCanvas.of(TestImages.createImage(23, 37, 7)), border);
+    }
+  }
+
+  /**
+   * Test case for the separable path on high precision images, for every border mode.
+   */
+  @Test
+  public void testFloat() {
+    for (BorderEnum border : BorderEnum.values()) {
+      checkFilter(FloatCanvas.of(TestImages.createImage(23, 37, 7)), border);
+    }
+  }
+
+  /**
+   * Helper method to compare the separable path with the direct path on an image. The sums are
+   * computed in a different order, so 8-bit channels may be one step apart, and high precision
+   * channels may differ by the rounding of the sums. The alpha channels must be equal.
+   *
+   * @param canvas image data.
+   * @param border how pixels outside of the image are taken.
+   */
+  private void checkFilter(Canvas canvas, BorderEnum border) {
+    SimpleProductFilter2D filter = new SimpleProductFilter2D(outerProduct(COLUMN, ROW));
+    Assert.assertNotNull(filter.getSeparableWeights());
+    Canvas separableResult = model.applyFilter(filter, canvas, border);
+    Canvas directResult = model.applyFilter(new DirectFilter(filter), canvas, border);
+    Assert.assertEquals(canvas.getClass(), separableResult.getClass());
+    Assert.assertEquals(canvas.getClass(), directResult.getClass());
+
+    TestImages.checkClose(directResult, separableResult, 1);
+    if (canvas instanceof FloatCanvas) {
+      for (int channel = 0; channel < 3; channel++) {
+        float[] expected = ((FloatCanvas) directResult).getPlane(channel);
+        float[] actual = ((FloatCanvas) separableResult).getPlane(channel);
+        for (int i = 0; i < expected.length; i++) {
+          Assert.assertTrue(Math.abs(expected[i] - actual[i]) <= FLOAT_ERROR);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method to compute the outer product of a column and a row vector.
+   *
+   * @param column column vector.
+   * @param row row vector.
+   * @return matrix of the products.
+   */
+  private static float[][] outerProduct(float[] column, float[] row) {
+    float[][] weights = new float[column.length][row.length];
+    for (int i = 0; i < column.length; i++) {
+      for (int j = 0; j < row.length; j++) {
+        weights[i][j] = column[i] * row[j];
+      }
+    }
+
+    return weights;
+  }
+
+  /**
+   * Filter exposing the weights of another filter but not their factorization, so that it is
+   * applied by the direct two-dimensional path.
+   */
+  private static class DirectFilter implements ConvolutionalFilter2D {
+
+    private final ConvolutionalFilter2D filter;
+
+    /**
+     * Wraps a filter.
+     *
+     * @param filter filter to delegate to.
+     */
+    DirectFilter(ConvolutionalFilter2D filter) {
+      this.filter = filter;
+    }
+
+    @Override
+    public int getWidth() {
+      return filter.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return filter.getHeight();
+    }
+
+    @Override
+    public BaseColor getValue(BaseColor[][] data) {
+      return filter.getValue(data);
+    }
+
+    @Override
+    public int getArgbValue(int[][] data) {
+      return filter.getArgbValue(data);
+    }
+
+    @Override
+    public float[][] getWeights() {
+      return filter.getWeights();
+    }
+  }
+}
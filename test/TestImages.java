@@ -0,0 +1,96 @@
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dto.color.PackedColor;
+import dto.image.Canvas;
+import dto.image.FloatCanvas;
+
+/**
+ * Helper class creating the images of the JUNIT tests and comparing their results.
+ */
+final class TestImages {
+
+  private TestImages() {
+  }
+
+  /**
+   * Creates a packed image of random pixels, which is the same for the same arguments.
+   *
+   * @param height number of rows of the image.
+   * @param width number of columns of the image.
+   * @param seed seed of the random pixels.
+   * @return image data.
+   */
+  static Canvas createImage(int height, int width, long seed) {
+    Random random = new Random(seed);
+    Canvas canvas = new Canvas(height, width);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        canvas.setArgb(y, x, random.nextInt());
+      }
+    }
+
+    return canvas;
+  }
+
+  /**
+   * Checks that two images, which may be of different kinds, are of the same size and hold the
+   * same pixels.
+   *
+   * @param expected expected image data.
+   * @param actual actual image data.
+   */
+  static void checkPixels(Canvas expected, Canvas actual) {
+    Assert.assertEquals(expected.getHeight(), actual.getHeight());
+    Assert.assertEquals(expected.getWidth(), actual.getWidth());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        Assert.assertEquals(expected.getArgb(y, x), actual.getArgb(y, x));
+      }
+    }
+  }
+
+  /**
+   * Checks that two images are of the same kind and size and equal in every pixel, and in every
+   * channel value for high precision images.
+   *
+   * @param expected expected image data.
+   * @param actual actual image data.
+   */
+  static void checkEqual(Canvas expected, Canvas actual) {
+    Assert.assertEquals(expected.getClass(), actual.getClass());
+    checkPixels(expected, actual);
+    if (expected instanceof FloatCanvas) {
+      for (int channel = 0; channel < 4; channel++) {
+        Assert.assertTrue(Arrays.equals(((FloatCanvas) expected).getPlane(channel),
+                ((FloatCanvas) actual).getPlane(channel)));
+      }
+    }
+  }
+
+  /**
+   * Checks that two images are of the same size, that every color channel of one is at most the
+   * given number of steps apart from that of the other, and that the alpha channels are equal.
+   *
+   * @param expected expected image data.
+   * @param actual actual image data.
+   * @param bound largest difference of a color channel.
+   */
+  static void checkClose(Canvas expected, Canvas actual, int bound) {
+    Assert.assertEquals(expected.getHeight(), actual.getHeight());
+    Assert.assertEquals(expected.getWidth(), actual.getWidth());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        int expectedArgb = expected.getArgb(y, x);
+        int actualArgb = actual.getArgb(y, x);
+        for (int channel = 0; channel < 3; channel++) {
+          Assert.assertTrue(Math.abs(PackedColor.channel(expectedArgb, channel)
+                  - PackedColor.channel(actualArgb, channel)) <= bound);
+        }
+        Assert.assertEquals(PackedColor.alpha(expectedArgb), PackedColor.alpha(actualArgb));
+      }
+    }
+  }
+}
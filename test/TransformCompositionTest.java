@@ -0,0 +1,105 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import dto.image.Image;
+import dto.image.Image2D;
+import enums.TransformEnum;
+import factory.transform.TransformFactory;
+import model.Model;
+import model.ModelImpl;
+import model.image.transform.TransformComposition;
+
+/**
+ * JUNIT test class for the composition of color transforms, see {@link TransformComposition},
+ * and for chains of transforms applied by {@link ModelImpl}.
+ */
+public class TransformCompositionTest {
+
+  private final float[][] greyscale = TransformFactory.getTransformer(TransformEnum.GREYSCALE);
+  private final float[][] sepia = TransformFactory.getTransformer(TransformEnum.SEPIA);
+  private final Model model = new ModelImpl(false, 1);
+
+  /**
+   * Test case for the transforms whose results stay in range.
+   */
+  @Test
+  public void testKeepsRange() {
+    Assert.assertTrue(TransformComposition.keepsRange(greyscale));
+    Assert.assertFalse(TransformComposition.keepsRange(sepia));
+  }
+
+  /**
+   * Test case for the matrix of a composed transform.
+   */
+  @Test
+  public void testCompose() {
+    float[][] composed = TransformComposition.compose(greyscale, sepia);
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        double weight = 0;
+        for (int k = 0; k < 3; k++) {
+          weight += sepia[i][k] * greyscale[k][j];
+        }
+        Assert.assertTrue(Math.abs(weight - composed[i][j]) < 1e-6);
+      }
+    }
+  }
+
+  /**
+   * Test case for transforms of different sizes.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testComposeDifferentSizes() {
+    TransformComposition.compose(greyscale, new float[][]{{1, 0}, {0, 1}});
+  }
+
+  /**
+   * Test case for greyscale followed by sepia, which are composed into one transform whose
+   * results are at most one step from those of the chain.
+   */
+  @Test
+  public void testGreyscaleThenSepia() {
+    checkChain(Arrays.asList(greyscale, sepia), 1);
+  }
+
+  /**
+   * Test case for sepia followed by greyscale, which are not composed since sepia clamps its
+   * results, so the results equal those of the chain.
+   */
+  @Test
+  public void testSepiaThenGreyscale() {
+    checkChain(Arrays.asList(sepia, greyscale), 0);
+  }
+
+  /**
+   * Helper method to compare a chain of transforms applied by the model, out of place and in
+   * place, with the same transforms applied one at a time.
+   *
+   * @param transforms matrices of the transforms, in order.
+   * @param bound largest difference of a channel.
+   */
+  private void checkChain(List<float[][]> transforms, int bound) {
+    Image expected = createImage();
+    for (float[][] transform : transforms) {
+      expected = model.applyTransform(transform, expected);
+    }
+
+    Image chained = model.applyTransforms(transforms, createImage());
+    Image inPlace = model.applyTransformsInPlace(transforms, createImage());
+    TestImages.checkClose(expected.getData(), chained.getData(), bound);
+    TestImages.checkClose(expected.getData(), inPlace.getData(), bound);
+  }
+
+  /**
+   * Helper method to create a random image.
+   *
+   * @return image holding random pixels.
+   */
+  private static Image createImage() {
+    return new Image2D(TestImages.createImage(29, 41, 17), BufferedImage.TYPE_INT_ARGB, "png");
+  }
+}